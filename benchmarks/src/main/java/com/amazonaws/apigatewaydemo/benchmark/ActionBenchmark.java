@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.benchmark;
+
+import com.amazonaws.apigatewaydemo.RequestRouter;
+import com.amazonaws.apigatewaydemo.model.pet.InMemoryPetDAO;
+import com.amazonaws.apigatewaydemo.model.user.InMemoryUserDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End to end benchmarks of the RequestRouter: each invocation reads an event, routes it to the action and writes the
+ * response. The forked JVM uses the InMemory DAOs and the Local credentials provider so that no AWS service is called,
+ * and disables the login throttling that would otherwise reject most of the login attempts.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Ddao.type=InMemory", "-Dcredentials.provider=Local", "-Dlogin.throttle.enabled=false"})
+public class ActionBenchmark {
+    private static final String USERNAME = "benchmark";
+    private static final String PASSWORD = "benchmark-password";
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        private final AtomicLong sequence = new AtomicLong();
+        private final BenchmarkContext context = new BenchmarkContext();
+
+        private byte[] loginEvent;
+        private byte[] createPetEvent;
+        private byte[] getPetEvent;
+        private byte[] listPetsEvent;
+        private byte[] batchEvent;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            InMemoryUserDAO.getInstance().clear();
+            InMemoryPetDAO.getInstance().clear();
+
+            invoke(registerEvent(USERNAME), new ByteArrayOutputStream(), context);
+
+            String petId = null;
+            for (int i = 0; i < 100; i++) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                invoke(ModelSamples.event("CreatePet", ModelSamples.CREATE_PET_BODY), out, context);
+                if (petId == null) {
+                    petId = ModelSamples.readPetId(out);
+                }
+            }
+
+            loginEvent = ModelSamples.event("Login",
+                    "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\",\"sourceIp\":\"127.0.0.1\"}");
+            createPetEvent = ModelSamples.event("CreatePet", ModelSamples.CREATE_PET_BODY);
+            getPetEvent = ModelSamples.event("GetPet", "{\"petId\":\"" + petId + "\"}");
+            listPetsEvent = ModelSamples.event("ListPets", "{\"limit\":\"25\"}");
+            batchEvent = ("[{\"action\":\"GetPet\",\"body\":{\"petId\":\"" + petId + "\"}},"
+                    + "{\"action\":\"ListPets\",\"body\":{\"limit\":\"10\"}},"
+                    + "{\"action\":\"CreatePet\",\"body\":" + ModelSamples.CREATE_PET_BODY + "}]")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            InMemoryUserDAO.getInstance().clear();
+            InMemoryPetDAO.getInstance().clear();
+        }
+
+        byte[] nextRegisterEvent() {
+            return registerEvent(USERNAME + "-" + sequence.incrementAndGet());
+        }
+
+        private static byte[] registerEvent(String username) {
+            return ModelSamples.event("Register", "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Output {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+    }
+
+    @Benchmark
+    public int register(Store store, Output output) throws Exception {
+        return invoke(store.nextRegisterEvent(), output.buffer, store.context);
+    }
+
+    @Benchmark
+    public int login(Store store, Output output) throws Exception {
+        return invoke(store.loginEvent, output.buffer, store.context);
+    }
+
+    @Benchmark
+    public int createPet(Store store, Output output) throws Exception {
+        return invoke(store.createPetEvent, output.buffer, store.context);
+    }
+
+    @Benchmark
+    public int getPet(Store store, Output output) throws Exception {
+        return invoke(store.getPetEvent, output.buffer, store.context);
+    }
+
+    @Benchmark
+    public int listPets(Store store, Output output) throws Exception {
+        return invoke(store.listPetsEvent, output.buffer, store.context);
+    }
+
+    @Benchmark
+    public int batch(Store store, Output output) throws Exception {
+        return invoke(store.batchEvent, output.buffer, store.context);
+    }
+
+    private static int invoke(byte[] event, ByteArrayOutputStream output, BenchmarkContext context) throws Exception {
+        output.reset();
+        RequestRouter.lambdaHandler(new ByteArrayInputStream(event), output, context);
+        return output.size();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.benchmark;
+
+import com.amazonaws.apigatewaydemo.model.pet.CachingPetDAO;
+import com.amazonaws.apigatewaydemo.model.pet.InMemoryPetDAO;
+import com.amazonaws.apigatewaydemo.model.pet.Pet;
+import com.amazonaws.apigatewaydemo.model.pet.PetPage;
+import com.amazonaws.apigatewaydemo.model.user.InMemoryUserDAO;
+import com.amazonaws.apigatewaydemo.model.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the DAO paths used by the actions without the cost of the network: the InMemory DAOs and the cache in front
+ * of the pet DAO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DAOBenchmark {
+    private static final int PET_COUNT = 1000;
+    private static final String USERNAME = "benchmark";
+
+    private InMemoryPetDAO petDAO;
+    private CachingPetDAO cachingPetDAO;
+    private InMemoryUserDAO userDAO;
+    private String petId;
+    private String pageToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        petDAO = InMemoryPetDAO.getInstance();
+        petDAO.clear();
+        for (int i = 0; i < PET_COUNT; i++) {
+            String id = petDAO.createPet(newPet());
+            if (petId == null) {
+                petId = id;
+            }
+        }
+        pageToken = petDAO.getPets(25, null, null).getNextPageToken();
+
+        cachingPetDAO = new CachingPetDAO(petDAO);
+        cachingPetDAO.getPetById(petId, null);
+
+        userDAO = InMemoryUserDAO.getInstance();
+        userDAO.clear();
+        User user = new User();
+        user.setUsername(USERNAME);
+        userDAO.createUser(user);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        petDAO.clear();
+        userDAO.clear();
+    }
+
+    @Benchmark
+    public Pet getPet() throws Exception {
+        return petDAO.getPetById(petId, null);
+    }
+
+    @Benchmark
+    public Pet getCachedPet() throws Exception {
+        return cachingPetDAO.getPetById(petId, null);
+    }
+
+    @Benchmark
+    public PetPage getFirstPage() throws Exception {
+        return petDAO.getPets(25, null, null);
+    }
+
+    @Benchmark
+    public PetPage getNextPage() throws Exception {
+        return petDAO.getPets(25, pageToken, null);
+    }
+
+    @Benchmark
+    public String createPet() throws Exception {
+        return petDAO.createPet(newPet());
+    }
+
+    @Benchmark
+    public User getUser() throws Exception {
+        return userDAO.getUserByName(USERNAME);
+    }
+
+    private static Pet newPet() {
+        Pet pet = new Pet();
+        pet.setPetType("dog");
+        pet.setPetName("Rex");
+        pet.setPetAge(4);
+        return pet;
+    }
+}
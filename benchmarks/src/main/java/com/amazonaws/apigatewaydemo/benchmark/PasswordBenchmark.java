@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.benchmark;
+
+import com.amazonaws.apigatewaydemo.helper.PasswordHelper;
+import com.amazonaws.apigatewaydemo.helper.PasswordSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the password hash with the legacy parameters and with the parameters used for new users. Run it with the
+ * memory size of the Lambda function in mind: the hash is CPU bound and the CPU share grows with the memory size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordBenchmark {
+    private static final String PASSWORD = "benchmark-password";
+
+    @Param({"legacy", "current"})
+    public String spec;
+
+    private PasswordSpec passwordSpec;
+    private byte[] salt;
+    private byte[] encryptedPassword;
+
+    @Setup
+    public void setUp() throws Exception {
+        passwordSpec = "legacy".equals(spec) ? PasswordSpec.LEGACY : PasswordHelper.getCurrentSpec();
+        salt = PasswordHelper.generateSalt(passwordSpec);
+        encryptedPassword = PasswordHelper.getEncryptedPassword(PASSWORD, salt, passwordSpec);
+    }
+
+    @Benchmark
+    public byte[] hash() throws Exception {
+        return PasswordHelper.getEncryptedPassword(PASSWORD, salt, passwordSpec);
+    }
+
+    @Benchmark
+    public boolean authenticate() throws Exception {
+        return PasswordHelper.authenticate(PASSWORD, encryptedPassword, salt, passwordSpec);
+    }
+}
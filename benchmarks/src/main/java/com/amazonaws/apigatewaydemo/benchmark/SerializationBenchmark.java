@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.benchmark;
+
+import com.amazonaws.apigatewaydemo.model.json.GsonFactory;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes each request and response model with the shared Gson object and its TypeAdapters
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"RegisterUserRequest", "RegisterUserResponse", "LoginUserRequest", "LoginUserResponse",
+            "CreatePetRequest", "CreatePetResponse", "GetPetRequest", "Pet", "ListPetsRequest", "ListPetsResponse"})
+    public String model;
+
+    private Gson gson;
+    private ModelSamples.Sample sample;
+
+    @Setup
+    public void setUp() {
+        gson = GsonFactory.getGson();
+        sample = ModelSamples.get(model);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return gson.fromJson(new StringReader(sample.getJson()), sample.getModelClass());
+    }
+
+    @Benchmark
+    public String encode() {
+        return gson.toJson(sample.getModel(), sample.getModelClass());
+    }
+}
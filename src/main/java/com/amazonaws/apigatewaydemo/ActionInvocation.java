@@ -0,0 +1,271 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo;
+
+import com.amazonaws.apigatewaydemo.action.ActionRegistry;
+import com.amazonaws.apigatewaydemo.action.StreamingDemoAction;
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.DeadlineExceededException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.helper.Deadline;
+import com.amazonaws.apigatewaydemo.metrics.ActionMetrics;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+import com.amazonaws.apigatewaydemo.model.json.GsonFactory;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single "action" and "body" pair read from the incoming event. The body is bound to the request class of the
+ * action while the event is streamed.
+ */
+public class ActionInvocation {
+    private final String actionName;
+    private final StreamingDemoAction<?> action;
+    private final Object body;
+    private final ActionMetrics metrics;
+
+    protected ActionInvocation(String actionName, StreamingDemoAction<?> action, Object body) {
+        this.actionName = actionName;
+        this.action = action;
+        this.body = body;
+        this.metrics = Metrics.getActionMetrics(action);
+    }
+
+    /**
+     * Reads an invocation object from the stream. Errors caused by the content of the object, such as a missing or
+     * unknown action, are only thrown once the whole object has been consumed so that the reader can be used to read
+     * the following values.
+     *
+     * @param reader The JsonReader positioned at the beginning of the invocation object
+     * @param logger The Lambda logger
+     * @return The invocation
+     * @throws IOException            If the stream cannot be read or does not contain valid json
+     * @throws BadRequestException    If the object does not contain an action
+     * @throws InternalErrorException If the action cannot be resolved
+     */
+    public static ActionInvocation read(JsonReader reader, LambdaLogger logger) throws IOException, BadRequestException, InternalErrorException {
+        return read(reader, logger, false);
+    }
+
+    /**
+     * Reads an invocation object written by the client, such as an entry of a batch. The action must be one of the
+     * names in the ActionRegistry: the client cannot make the function load a class by its name.
+     *
+     * @param reader The JsonReader positioned at the beginning of the invocation object
+     * @param logger The Lambda logger
+     * @return The invocation
+     * @throws IOException         If the stream cannot be read or does not contain valid json
+     * @throws BadRequestException If the object does not contain an action or the action is not registered
+     */
+    public static ActionInvocation readRegistered(JsonReader reader, LambdaLogger logger) throws IOException, BadRequestException {
+        try {
+            return read(reader, logger, true);
+        } catch (final InternalErrorException e) {
+            // only thrown when resolving a class name
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ActionInvocation read(JsonReader reader, LambdaLogger logger, boolean registeredOnly)
+            throws IOException, BadRequestException, InternalErrorException {
+        String actionName = null;
+        StreamingDemoAction<?> action = null;
+        Object body = null;
+        JsonElement bufferedBody = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String property = reader.nextName();
+            if ("action".equals(property) && reader.peek() == JsonToken.STRING) {
+                actionName = reader.nextString();
+            } else if ("body".equals(property) && (action = findAction(actionName, registeredOnly)) != null) {
+                // the mapping templates declare the action first so we can bind the body straight to the
+                // request object of the action
+                body = GsonFactory.getGson().fromJson(reader, action.getRequestClass());
+            } else if ("body".equals(property)) {
+                // the action is not known yet, keep the body until we find it
+                bufferedBody = new JsonParser().parse(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (actionName == null || actionName.trim().equals("")) {
+            logger.log("Invald inputObj, could not find action parameter");
+            throw new BadRequestException("Could not find action value in request");
+        }
+
+        if (action == null) {
+            action = getAction(actionName, registeredOnly, logger);
+            body = bindBody(action, bufferedBody, logger);
+        }
+
+        return new ActionInvocation(actionName, action, body);
+    }
+
+    /**
+     * Returns the value of the action property
+     *
+     * @return The action name
+     */
+    public String getActionName() {
+        return actionName;
+    }
+
+    /**
+     * Returns the action the body is bound to
+     *
+     * @return The shared action instance
+     */
+    public StreamingDemoAction<?> getAction() {
+        return action;
+    }
+
+    /**
+     * Returns the metrics of the action
+     *
+     * @return The ActionMetrics shared by the invocations of the action
+     */
+    public ActionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Runs the action and writes its response. The time spent is recorded as the handle phase of the action, the
+     * data store and credentials provider calls made by the action are recorded against it as well.
+     * <p/>
+     * The deadline is attached to the thread for the duration of the action. The action is not started when the
+     * deadline is already too close, and a failure once the time is spent, usually a DynamoDB or Cognito request the
+     * client refused to send, is reported as a DeadlineExceededException.
+     *
+     * @param response The JsonWriter for the response
+     * @param context  The Lambda Context object
+     * @param deadline The deadline of the request
+     * @throws BadRequestException
+     * @throws InternalErrorException A DeadlineExceededException if the deadline was reached
+     * @throws IOException            If the response cannot be written
+     */
+    public void execute(JsonWriter response, Context context, Deadline deadline) throws BadRequestException, InternalErrorException, IOException {
+        Deadline previousDeadline = Deadline.enter(deadline);
+        ActionMetrics previous = Metrics.enter(metrics);
+        long start = System.nanoTime();
+        try {
+            deadline.check();
+            handle(action, body, response, context);
+        } catch (final InternalErrorException | RuntimeException e) {
+            if (e instanceof DeadlineExceededException || deadline.hasBudget()) {
+                throw e;
+            }
+            context.getLogger().log("Deadline exceeded in action " + actionName + " after "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms\n" + e);
+            throw new DeadlineExceededException(e);
+        } finally {
+            metrics.record(Phase.HANDLE, System.nanoTime() - start);
+            Metrics.exit(previous);
+            Deadline.exit(previousDeadline);
+        }
+    }
+
+    private static StreamingDemoAction<?> findAction(String actionName, boolean registeredOnly) {
+        if (actionName == null || actionName.trim().equals("")) {
+            return null;
+        }
+        if (registeredOnly) {
+            return ActionRegistry.getRegisteredAction(actionName);
+        }
+
+        try {
+            return ActionRegistry.getAction(actionName);
+        } catch (final InternalErrorException e) {
+            // reported by getAction once the object has been read
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the action in the ActionRegistry
+     *
+     * @param actionName     The value of the action property in the request
+     * @param registeredOnly Whether the class name lookup of the registry is skipped
+     * @param logger         The Lambda logger
+     * @return The action implementation
+     * @throws BadRequestException    If the registry returned no action
+     * @throws InternalErrorException If the action could not be resolved
+     */
+    private static StreamingDemoAction<?> getAction(String actionName, boolean registeredOnly, LambdaLogger logger)
+            throws BadRequestException, InternalErrorException {
+        if (registeredOnly) {
+            StreamingDemoAction<?> action = ActionRegistry.getRegisteredAction(actionName);
+            if (action == null) {
+                logger.log("Unknown action " + actionName);
+                throw new BadRequestException(ExceptionMessages.EX_UNKNOWN_ACTION);
+            }
+            return action;
+        }
+
+        StreamingDemoAction<?> action;
+        try {
+            action = ActionRegistry.getAction(actionName);
+        } catch (final InternalErrorException e) {
+            logger.log("Could not resolve action " + actionName + "\n" + e.getMessage());
+            throw e;
+        }
+
+        if (action == null) {
+            logger.log("Action class is null");
+            throw new BadRequestException("Invalid action class");
+        }
+
+        return action;
+    }
+
+    /**
+     * Binds a body that was read before the action property
+     *
+     * @param action The action the body is for
+     * @param body   The buffered body, null if the request did not contain one
+     * @param logger The Lambda logger
+     * @return The bound request object
+     * @throws BadRequestException If the body does not match the request object
+     */
+    private static Object bindBody(StreamingDemoAction<?> action, JsonElement body, LambdaLogger logger) throws BadRequestException {
+        if (body == null || body.isJsonNull()) {
+            return null;
+        }
+
+        try {
+            return GsonFactory.getGson().fromJson(body, action.getRequestClass());
+        } catch (final JsonParseException | IllegalStateException e) {
+            logger.log("Invalid request body\n" + e.getMessage());
+            throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I> void handle(StreamingDemoAction<I> action, Object body, JsonWriter response, Context context)
+            throws BadRequestException, InternalErrorException, IOException {
+        action.handle((I) body, response, context);
+    }
+}
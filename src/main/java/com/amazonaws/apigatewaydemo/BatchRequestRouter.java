@@ -0,0 +1,279 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo;
+
+import com.amazonaws.apigatewaydemo.action.LoginDemoAction;
+import com.amazonaws.apigatewaydemo.action.RegisterDemoAction;
+import com.amazonaws.apigatewaydemo.configuration.BatchConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.DeadlineExceededException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.exception.ServiceUnavailableException;
+import com.amazonaws.apigatewaydemo.exception.TooManyRequestsException;
+import com.amazonaws.apigatewaydemo.helper.Deadline;
+import com.amazonaws.apigatewaydemo.model.json.GsonFactory;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handles batch events: an array of "action" and "body" objects. The entries are independent from each other and run
+ * concurrently on a bounded thread pool shared by all invocations in the container. When the queue of the pool is
+ * full, an entry runs on the thread of the invocation before the following ones are submitted. The response is an
+ * array with one result per entry, in the same order, containing the HTTP status for the entry and either its
+ * response body or the error message.
+ * <p/>
+ * [{"action":"GetPet","status":200,"body":{...}},{"action":"CreatePet","status":400,"error":"BAD_REQ: ..."}]
+ */
+public class BatchRequestRouter {
+    public static final int STATUS_OK = 200;
+    public static final int STATUS_BAD_REQUEST = 400;
+    public static final int STATUS_TOO_MANY_REQUESTS = 429;
+    public static final int STATUS_INTERNAL_ERROR = 500;
+    public static final int STATUS_UNAVAILABLE = 503;
+
+    private static final ExecutorService executor = new ThreadPoolExecutor(
+            BatchConfiguration.THREAD_POOL_SIZE,
+            BatchConfiguration.THREAD_POOL_SIZE,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(BatchConfiguration.QUEUE_SIZE),
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "batch-worker-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    protected BatchRequestRouter() {
+        // static router, should not be instantiated
+    }
+
+    /**
+     * Reads the entries of a batch event. Entries with a missing or unknown action are kept as failed results, the
+     * other entries of the batch are still executed. The actions are looked up among the names of the ActionRegistry
+     * only, class names that are not registered are unknown.
+     * <p/>
+     * Login and Register entries are rejected, both hash a password with PBKDF2 and a batch would run up to
+     * MAX_BATCH_SIZE of these hashes per request. The login throttling also limits the attempts by source IP address,
+     * which is set by the /login mapping template, while the body of a batch entry is written by the client and could
+     * carry its own address, or none.
+     *
+     * @param reader The JsonReader positioned at the beginning of the array
+     * @param logger The Lambda logger
+     * @return The list of entries in the batch
+     * @throws IOException         If the stream cannot be read or does not contain valid json
+     * @throws BadRequestException If the batch is empty or contains too many entries
+     */
+    public static List<BatchEntry> readBatch(JsonReader reader, LambdaLogger logger) throws IOException, BadRequestException {
+        List<BatchEntry> entries = new ArrayList<BatchEntry>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (entries.size() == BatchConfiguration.MAX_BATCH_SIZE) {
+                logger.log("Batch contains more than " + BatchConfiguration.MAX_BATCH_SIZE + " entries");
+                throw new BadRequestException(ExceptionMessages.EX_BATCH_SIZE);
+            }
+
+            try {
+                ActionInvocation invocation = ActionInvocation.readRegistered(reader, logger);
+                if (invocation.getAction() instanceof LoginDemoAction) {
+                    logger.log("Login entry rejected in batch");
+                    entries.add(new BatchEntry(STATUS_BAD_REQUEST, new BadRequestException(ExceptionMessages.EX_LOGIN_IN_BATCH).getMessage()));
+                } else if (invocation.getAction() instanceof RegisterDemoAction) {
+                    logger.log("Register entry rejected in batch");
+                    entries.add(new BatchEntry(STATUS_BAD_REQUEST, new BadRequestException(ExceptionMessages.EX_REGISTER_IN_BATCH).getMessage()));
+                } else {
+                    entries.add(new BatchEntry(invocation));
+                }
+            } catch (final BadRequestException e) {
+                entries.add(new BatchEntry(STATUS_BAD_REQUEST, e.getMessage()));
+            }
+        }
+        reader.endArray();
+
+        if (entries.isEmpty()) {
+            logger.log("Empty batch");
+            throw new BadRequestException(ExceptionMessages.EX_BATCH_SIZE);
+        }
+
+        return entries;
+    }
+
+    /**
+     * Runs the entries of a batch concurrently and writes the array of results. All the entries share the deadline
+     * of the request, entries that have not completed when it is reached are cancelled and reported as a
+     * DeadlineExceededException.
+     *
+     * @param entries  The entries read from the batch event
+     * @param response The Writer for the response
+     * @param context  The Lambda Context object
+     * @param deadline The deadline of the request
+     * @throws IOException If the response cannot be written
+     */
+    public static void execute(List<BatchEntry> entries, Writer response, final Context context, final Deadline deadline) throws IOException {
+        LambdaLogger logger = context.getLogger();
+
+        List<Future<BatchEntry>> futures = new ArrayList<Future<BatchEntry>>(entries.size());
+        for (final BatchEntry entry : entries) {
+            if (entry.invocation == null) {
+                futures.add(null);
+                continue;
+            }
+
+            futures.add(executor.submit(new Callable<BatchEntry>() {
+                public BatchEntry call() {
+                    return run(entry, context, deadline);
+                }
+            }));
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            Future<BatchEntry> future = futures.get(i);
+            if (future == null) {
+                continue;
+            }
+
+            BatchEntry entry = entries.get(i);
+            try {
+                // without a time limit from Lambda, for example when the router is called by a test, we wait for all
+                // entries
+                future.get(deadline.bound(Long.MAX_VALUE), TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) {
+                logger.log("Batch entry " + i + " (" + entry.invocation.getActionName() + ") timed out");
+                // the entry is failed before the worker is interrupted so that its result is ignored
+                entry.fail(STATUS_INTERNAL_ERROR, new DeadlineExceededException().getMessage());
+                future.cancel(true);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entry.fail(STATUS_INTERNAL_ERROR, new InternalErrorException(ExceptionMessages.EX_TIMEOUT).getMessage());
+                future.cancel(true);
+            } catch (final ExecutionException e) {
+                logger.log("Error while running batch entry " + i + "\n" + e.getCause());
+                entry.fail(STATUS_INTERNAL_ERROR, new InternalErrorException(e.getCause().getMessage()).getMessage());
+            }
+        }
+
+        writeResults(entries, response);
+    }
+
+    private static BatchEntry run(BatchEntry entry, Context context, Deadline deadline) {
+        StringWriter buffer = new StringWriter();
+        try {
+            JsonWriter writer = GsonFactory.newJsonWriter(buffer);
+            entry.invocation.execute(writer, context, deadline);
+            writer.flush();
+            entry.complete(buffer.toString());
+        } catch (final BadRequestException e) {
+            entry.invocation.getMetrics().recordError(e);
+            entry.fail(e instanceof TooManyRequestsException ? STATUS_TOO_MANY_REQUESTS : STATUS_BAD_REQUEST, e.getMessage());
+        } catch (final InternalErrorException e) {
+            entry.invocation.getMetrics().recordError(e);
+            entry.fail(e instanceof ServiceUnavailableException ? STATUS_UNAVAILABLE : STATUS_INTERNAL_ERROR, e.getMessage());
+        } catch (final IOException | RuntimeException e) {
+            context.getLogger().log("Error while running action " + entry.invocation.getActionName() + "\n" + e);
+            InternalErrorException error = new InternalErrorException(e.getMessage());
+            entry.invocation.getMetrics().recordError(error);
+            entry.fail(STATUS_INTERNAL_ERROR, error.getMessage());
+        }
+        return entry;
+    }
+
+    private static void writeResults(List<BatchEntry> entries, Writer response) throws IOException {
+        Gson gson = GsonFactory.getGson();
+
+        // the bodies are already serialized so the envelope is written directly to the Writer
+        response.write('[');
+        for (int i = 0; i < entries.size(); i++) {
+            BatchEntry entry = entries.get(i);
+            if (i > 0) {
+                response.write(',');
+            }
+            response.write('{');
+            if (entry.invocation != null) {
+                response.write("\"action\":");
+                response.write(gson.toJson(entry.invocation.getActionName()));
+                response.write(',');
+            }
+            response.write("\"status\":");
+            response.write(Integer.toString(entry.status));
+            if (entry.status == STATUS_OK) {
+                response.write(",\"body\":");
+                response.write(entry.body == null || entry.body.isEmpty() ? "null" : entry.body);
+            } else {
+                response.write(",\"error\":");
+                response.write(gson.toJson(entry.error));
+            }
+            response.write('}');
+        }
+        response.write(']');
+        response.flush();
+    }
+
+    /**
+     * An entry of the batch and its result. Results are written by the worker thread and read by the router thread
+     * once the Future for the entry has completed, or after the entry has been cancelled.
+     */
+    public static class BatchEntry {
+        private final ActionInvocation invocation;
+        private volatile int status;
+        private volatile String body;
+        private volatile String error;
+
+        BatchEntry(ActionInvocation invocation) {
+            this.invocation = invocation;
+        }
+
+        BatchEntry(int status, String error) {
+            this.invocation = null;
+            this.status = status;
+            this.error = error;
+        }
+
+        synchronized void complete(String body) {
+            if (status == 0) {
+                this.body = body;
+                this.status = STATUS_OK;
+            }
+        }
+
+        synchronized void fail(int status, String error) {
+            if (this.status == 0) {
+                this.error = error;
+                this.status = status;
+            }
+        }
+    }
+}
@@ -12,32 +12,52 @@
  */
 package com.amazonaws.apigatewaydemo;
 
-import com.amazonaws.apigatewaydemo.action.DemoAction;
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
 import com.amazonaws.apigatewaydemo.exception.BadRequestException;
 import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.helper.Deadline;
+import com.amazonaws.apigatewaydemo.metrics.ActionMetrics;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+import com.amazonaws.apigatewaydemo.model.json.GsonFactory;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import org.apache.commons.io.IOUtils;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * This class contains the main event handler for the Lambda function.
  */
 public class RequestRouter {
     /**
-     * The main Lambda function handler. Receives the request as an input stream, parses the json and looks for the
-     * "action" property to decide where to route the request. The "body" property of the incoming request is passed
-     * to the DemoAction implementation as a request body.
+     * The main Lambda function handler. Receives the request as an input stream, streams the json and looks for the
+     * "action" property to decide where to route the request. The "body" property of the incoming request is bound to
+     * the request class of the action while reading the stream, the action then writes its response directly to the
+     * response stream.
+     * <p/>
+     * The event can also be an array of "action" and "body" objects, the entries are then executed concurrently by the
+     * BatchRequestRouter and the response is an array with the result of each entry.
+     * <p/>
+     * The deadline of the request, the remaining time of the function minus the time needed to write the response, is
+     * computed before the event is read and passed to the actions, see Deadline.
      *
      * @param request  The InputStream for the incoming event. This should contain an "action" and "body" properties. The
-     *                 action property should contain the namespaced name of the class that should handle the invocation.
-     *                 The class should implement the DemoAction interface. The body property should contain the full
-     *                 request body for the action class.
+     *                 action property should contain the namespaced name of the class that should handle the invocation
+     *                 or one of the aliases declared in the ActionRegistry. The class should implement the DemoAction
+     *                 interface. The body property should contain the full request body for the action class.
      * @param response An OutputStream where the response returned by the action class is written
      * @param context  The Lambda Context object
      * @throws BadRequestException    This Exception is thrown whenever parameters are missing from the request or the action
@@ -47,54 +67,54 @@ public class RequestRouter {
      */
     public static void lambdaHandler(InputStream request, OutputStream response, Context context) throws BadRequestException, InternalErrorException {
         LambdaLogger logger = context.getLogger();
+        long start = System.nanoTime();
+        Deadline deadline = Deadline.fromContext(context);
+        ActionMetrics metrics = Metrics.getActionMetrics(Metrics.ROUTER_METRICS_NAME);
 
-        JsonParser parser = new JsonParser();
-        JsonObject inputObj;
         try {
-            inputObj = parser.parse(IOUtils.toString(request)).getAsJsonObject();
-        } catch (IOException e) {
-            logger.log("Error while reading request\n" + e.getMessage());
-            throw new InternalErrorException(e.getMessage());
-        }
-
-        if (inputObj == null || inputObj.get("action") == null || inputObj.get("action").getAsString().trim().equals("")) {
-            logger.log("Invald inputObj, could not find action parameter");
-            throw new BadRequestException("Could not find action value in request");
-        }
+            ActionInvocation invocation = null;
+            List<BatchRequestRouter.BatchEntry> batch = null;
 
-        String actionClass = inputObj.get("action").getAsString();
-        DemoAction action;
+            try {
+                JsonReader reader = new JsonReader(new InputStreamReader(request, StandardCharsets.UTF_8));
+                if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    batch = BatchRequestRouter.readBatch(reader, logger);
+                } else {
+                    invocation = ActionInvocation.read(reader, logger);
+                }
+            } catch (final MalformedJsonException | EOFException e) {
+                logger.log("Invalid json in request\n" + e.getMessage());
+                throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
+            } catch (final IOException e) {
+                logger.log("Error while reading request\n" + e.getMessage());
+                throw new InternalErrorException(e.getMessage());
+            } catch (final JsonParseException | IllegalStateException e) {
+                logger.log("Invalid request\n" + e.getMessage());
+                throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
+            }
 
-        try {
-            action = DemoAction.class.cast(Class.forName(actionClass).newInstance());
-        } catch (final InstantiationException e) {
-            logger.log("Error while instantiating action class\n" + e.getMessage());
-            throw new InternalErrorException(e.getMessage());
-        } catch (final IllegalAccessException e) {
-            logger.log("Illegal access while instantiating action class\n" + e.getMessage());
-            throw new InternalErrorException(e.getMessage());
-        } catch (final ClassNotFoundException e) {
-            logger.log("Action class could not be found\n" + e.getMessage());
-            throw new InternalErrorException(e.getMessage());
-        }
+            metrics = invocation != null ? invocation.getMetrics() : Metrics.getActionMetrics(Metrics.BATCH_METRICS_NAME);
+            metrics.record(Phase.PARSE, System.nanoTime() - start);
 
-        if (action == null) {
-            logger.log("Action class is null");
-            throw new BadRequestException("Invalid action class");
-        }
-
-        JsonObject body = null;
-        if (inputObj.get("body") != null) {
-            body = inputObj.get("body").getAsJsonObject();
-        }
-
-        String output = action.handle(body, context);
-
-        try {
-            IOUtils.write(output, response);
-        } catch (final IOException e) {
-            logger.log("Error while writing response\n" + e.getMessage());
-            throw new InternalErrorException(e.getMessage());
+            try {
+                Writer output = new OutputStreamWriter(response, StandardCharsets.UTF_8);
+                if (batch != null) {
+                    BatchRequestRouter.execute(batch, output, context, deadline);
+                } else {
+                    JsonWriter writer = GsonFactory.newJsonWriter(output);
+                    invocation.execute(writer, context, deadline);
+                    writer.flush();
+                }
+            } catch (final IOException e) {
+                logger.log("Error while writing response\n" + e.getMessage());
+                throw new InternalErrorException(e.getMessage());
+            }
+        } catch (final BadRequestException | InternalErrorException e) {
+            metrics.recordError(e);
+            throw e;
+        } finally {
+            metrics.record(Phase.TOTAL, System.nanoTime() - start);
+            Metrics.flush(logger, context.getAwsRequestId());
         }
     }
 }
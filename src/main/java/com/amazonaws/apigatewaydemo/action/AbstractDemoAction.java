@@ -12,8 +12,8 @@
  */
 package com.amazonaws.apigatewaydemo.action;
 
+import com.amazonaws.apigatewaydemo.model.json.GsonFactory;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * Abstract class implementing the DemoAction interface. This class is used to declare utility method
@@ -21,16 +21,10 @@ import com.google.gson.GsonBuilder;
  */
 public abstract class AbstractDemoAction implements DemoAction {
     /**
-     * Returns an initialized Gson object with the default configuration
+     * Returns the shared Gson object with the TypeAdapters for the model beans
      * @return An initialized Gson object
      */
     protected Gson getGson() {
-        return new GsonBuilder()
-                //.enableComplexMapKeySerialization()
-                //.serializeNulls()
-                //.setDateFormat(DateFormat.LONG)
-                //.setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE)
-                .setPrettyPrinting()
-                .create();
+        return GsonFactory.getGson();
     }
 }
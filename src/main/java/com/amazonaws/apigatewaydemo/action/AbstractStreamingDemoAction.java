@@ -0,0 +1,49 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.action;
+
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.model.json.GsonFactory;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Base class for the actions that write their response to a JsonWriter. The String based methods of the DemoAction
+ * and TypedDemoAction interfaces are implemented by writing the response to an in-memory buffer, the RequestRouter
+ * only uses the streaming handle method.
+ *
+ * @param <I> The request bean for the action
+ */
+public abstract class AbstractStreamingDemoAction<I> extends AbstractTypedDemoAction<I> implements StreamingDemoAction<I> {
+    protected AbstractStreamingDemoAction(Class<I> requestClass) {
+        super(requestClass);
+    }
+
+    public String handleRequest(I request, Context lambdaContext) throws BadRequestException, InternalErrorException {
+        StringWriter buffer = new StringWriter();
+        try {
+            JsonWriter writer = GsonFactory.newJsonWriter(buffer);
+            handle(request, writer, lambdaContext);
+            writer.flush();
+        } catch (final IOException e) {
+            lambdaContext.getLogger().log("Error while writing response\n" + e.getMessage());
+            throw new InternalErrorException(ExceptionMessages.EX_WRITE_RESPONSE);
+        }
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.action;
+
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.google.gson.JsonObject;
+
+/**
+ * Base class for the actions that bind their body to a request bean. The JsonObject based handle method of the
+ * DemoAction interface is implemented here by binding the object to the request class and calling handleRequest.
+ *
+ * @param <I> The request bean for the action
+ */
+public abstract class AbstractTypedDemoAction<I> extends AbstractDemoAction implements TypedDemoAction<I> {
+    private final Class<I> requestClass;
+
+    protected AbstractTypedDemoAction(Class<I> requestClass) {
+        this.requestClass = requestClass;
+    }
+
+    public Class<I> getRequestClass() {
+        return requestClass;
+    }
+
+    public String handle(JsonObject request, Context lambdaContext) throws BadRequestException, InternalErrorException {
+        return handleRequest(getGson().fromJson(request, requestClass), lambdaContext);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.action;
+
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the DemoAction implementations used by the RequestRouter. The registry is populated once per container
+ * when the class is loaded and maps each action name to a single, reusable instance of the action. DemoAction
+ * implementations are therefore expected to be stateless and thread-safe.
+ * <p/>
+ * Each built-in action is registered under a short alias (for example "GetPet"), its simple class name and its fully
+ * qualified class name, which is the value used by the mapping templates in the swagger.yaml file. Actions that do not
+ * implement the StreamingDemoAction interface are wrapped in a DemoActionAdapter when they are registered.
+ */
+public class ActionRegistry {
+    private static final ConcurrentMap<String, StreamingDemoAction<?>> actions = new ConcurrentHashMap<String, StreamingDemoAction<?>>();
+
+    static {
+        register("Register", new RegisterDemoAction());
+        register("Login", new LoginDemoAction());
+        register("CreatePet", new CreatePetDemoAction());
+        register("GetPet", new GetPetDemoAction());
+        register("ListPets", new ListPetsDemoAction());
+        register("BatchGetPets", new BatchGetPetsDemoAction());
+        register("BatchCreatePets", new BatchCreatePetsDemoAction());
+    }
+
+    protected ActionRegistry() {
+        // static registry, should not be instantiated
+    }
+
+    /**
+     * Registers an action instance under the given alias as well as its simple and fully qualified class names.
+     *
+     * @param alias  A short name for the action
+     * @param action The action instance, this is shared by all invocations in the container
+     */
+    public static void register(String alias, DemoAction action) {
+        StreamingDemoAction<?> handler = asStreamingAction(action);
+        actions.put(alias, handler);
+        actions.put(action.getClass().getSimpleName(), handler);
+        actions.put(action.getClass().getName(), handler);
+    }
+
+    /**
+     * Returns the action registered with the given name, without looking up classes. Used for the names written by the
+     * client, such as the actions of a batch.
+     *
+     * @param name The alias, simple class name or fully qualified class name of the action
+     * @return The shared action instance, null if no action is registered with the name
+     */
+    public static StreamingDemoAction<?> getRegisteredAction(String name) {
+        return actions.get(name);
+    }
+
+    /**
+     * Returns the action registered with the given name. Names that are not in the registry are treated as fully
+     * qualified class names: the class is instantiated once and the instance is cached for the following invocations.
+     * The class is loaded without being initialized, its static initializers only run once it is known to implement
+     * DemoAction.
+     *
+     * @param name The alias, simple class name or fully qualified class name of the action
+     * @return The shared action instance
+     * @throws InternalErrorException If the action class cannot be found or instantiated
+     */
+    public static StreamingDemoAction<?> getAction(String name) throws InternalErrorException {
+        StreamingDemoAction<?> handler = actions.get(name);
+        if (handler != null) {
+            return handler;
+        }
+
+        DemoAction action;
+        try {
+            Class<?> actionClass = Class.forName(name, false, ActionRegistry.class.getClassLoader());
+            if (!DemoAction.class.isAssignableFrom(actionClass)) {
+                throw new InternalErrorException("Class " + name + " does not implement DemoAction");
+            }
+            action = DemoAction.class.cast(actionClass.newInstance());
+        } catch (final InstantiationException e) {
+            throw new InternalErrorException("Error while instantiating action class " + name, e);
+        } catch (final IllegalAccessException e) {
+            throw new InternalErrorException("Illegal access while instantiating action class " + name, e);
+        } catch (final ClassNotFoundException e) {
+            throw new InternalErrorException("Action class could not be found " + name, e);
+        }
+
+        handler = asStreamingAction(action);
+        StreamingDemoAction<?> existing = actions.putIfAbsent(name, handler);
+        return existing == null ? handler : existing;
+    }
+
+    private static StreamingDemoAction<?> asStreamingAction(DemoAction action) {
+        if (action instanceof StreamingDemoAction) {
+            return (StreamingDemoAction<?>) action;
+        }
+        return new DemoActionAdapter(action);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.action;
+
+import com.amazonaws.apigatewaydemo.configuration.BatchConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.model.DAOFactory;
+import com.amazonaws.apigatewaydemo.model.action.BatchCreatePetsRequest;
+import com.amazonaws.apigatewaydemo.model.action.BatchPetResult;
+import com.amazonaws.apigatewaydemo.model.action.BatchPetsResponse;
+import com.amazonaws.apigatewaydemo.model.action.CreatePetRequest;
+import com.amazonaws.apigatewaydemo.model.pet.Pet;
+import com.amazonaws.apigatewaydemo.model.pet.PetBatch;
+import com.amazonaws.apigatewaydemo.model.pet.PetDAO;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Action that creates a list of pets in the data store in as few requests as possible. All the pets are validated
+ * before any of them is written. The response contains a result for each pet of the request, in the same order:
+ * CREATED with the generated petId, or UNPROCESSED when the data store could not write the pet in time. Unprocessed
+ * pets were not created and can be sent again.
+ * <p/>
+ * POST to /pets/batch-create
+ */
+public class BatchCreatePetsDemoAction extends AbstractStreamingDemoAction<BatchCreatePetsRequest> {
+    public BatchCreatePetsDemoAction() {
+        super(BatchCreatePetsRequest.class);
+    }
+
+    public void handle(BatchCreatePetsRequest input, JsonWriter response, Context lambdaContext)
+            throws BadRequestException, InternalErrorException, IOException {
+        LambdaLogger logger = lambdaContext.getLogger();
+
+        if (input == null || input.getPets() == null) {
+            logger.log("Invalid input passed to " + this.getClass().getName());
+            throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
+        }
+
+        if (input.getPets().isEmpty() || input.getPets().size() > BatchConfiguration.MAX_BATCH_PETS) {
+            throw new BadRequestException(ExceptionMessages.EX_BATCH_PETS_SIZE);
+        }
+
+        List<Pet> newPets = new ArrayList<Pet>(input.getPets().size());
+        for (CreatePetRequest petInput : input.getPets()) {
+            if (petInput == null ||
+                    petInput.getPetType() == null ||
+                    petInput.getPetType().trim().equals("")) {
+                throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
+            }
+
+            Pet newPet = new Pet();
+            newPet.setPetType(petInput.getPetType());
+            newPet.setPetName(petInput.getPetName());
+            newPet.setPetAge(petInput.getPetAge());
+            newPets.add(newPet);
+        }
+
+        PetDAO dao = DAOFactory.getPetDAO();
+        PetBatch batch;
+        try {
+            batch = dao.createPets(newPets);
+        } catch (final DAOException e) {
+            logger.log("Error while creating " + newPets.size() + " pets\n" + e.getMessage());
+            throw new InternalErrorException(ExceptionMessages.EX_DAO_ERROR);
+        }
+
+        if (!batch.getUnprocessedPetIds().isEmpty()) {
+            logger.log(batch.getUnprocessedPetIds().size() + " pets could not be written");
+        }
+
+        Set<String> unprocessed = new HashSet<String>(batch.getUnprocessedPetIds());
+
+        List<BatchPetResult> results = new ArrayList<BatchPetResult>(newPets.size());
+        for (Pet pet : newPets) {
+            BatchPetResult result = new BatchPetResult();
+            if (unprocessed.contains(pet.getPetId())) {
+                // the pet was not written, its petId is not returned so that it isn't mistaken for an existing pet
+                result.setStatus(BatchPetResult.Status.UNPROCESSED);
+            } else {
+                result.setPetId(pet.getPetId());
+                result.setStatus(BatchPetResult.Status.CREATED);
+            }
+            results.add(result);
+        }
+
+        BatchPetsResponse output = new BatchPetsResponse();
+        output.setCount(results.size());
+        output.setUnprocessedCount(unprocessed.size());
+        output.setResults(results);
+
+        getGson().toJson(output, BatchPetsResponse.class, response);
+    }
+}
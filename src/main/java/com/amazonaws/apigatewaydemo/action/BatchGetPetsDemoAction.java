@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.action;
+
+import com.amazonaws.apigatewaydemo.configuration.BatchConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.model.DAOFactory;
+import com.amazonaws.apigatewaydemo.model.action.BatchGetPetsRequest;
+import com.amazonaws.apigatewaydemo.model.action.BatchPetResult;
+import com.amazonaws.apigatewaydemo.model.action.BatchPetsResponse;
+import com.amazonaws.apigatewaydemo.model.pet.Pet;
+import com.amazonaws.apigatewaydemo.model.pet.PetBatch;
+import com.amazonaws.apigatewaydemo.model.pet.PetDAO;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Action that reads a list of pets from the data store in as few requests as possible. The response contains a result
+ * for each petId of the request, in the same order: FOUND with the pet, NOT_FOUND or UNPROCESSED when the data store
+ * could not read the pet in time.
+ * <p/>
+ * POST to /pets/batch-get
+ */
+public class BatchGetPetsDemoAction extends AbstractStreamingDemoAction<BatchGetPetsRequest> {
+    public BatchGetPetsDemoAction() {
+        super(BatchGetPetsRequest.class);
+    }
+
+    public void handle(BatchGetPetsRequest input, JsonWriter response, Context lambdaContext)
+            throws BadRequestException, InternalErrorException, IOException {
+        LambdaLogger logger = lambdaContext.getLogger();
+
+        if (input == null || input.getPetIds() == null) {
+            logger.log("Invalid input passed to " + this.getClass().getName());
+            throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
+        }
+
+        List<String> petIds = input.getPetIds();
+        if (petIds.isEmpty() || petIds.size() > BatchConfiguration.MAX_BATCH_PETS) {
+            throw new BadRequestException(ExceptionMessages.EX_BATCH_PETS_SIZE);
+        }
+        for (String petId : petIds) {
+            if (petId == null || petId.trim().equals("")) {
+                throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
+            }
+        }
+
+        PetDAO dao = DAOFactory.getPetDAO();
+        PetBatch batch;
+        try {
+            batch = dao.getPetsByIds(petIds);
+        } catch (final DAOException e) {
+            logger.log("Error while fetching " + petIds.size() + " pets\n" + e.getMessage());
+            throw new InternalErrorException(ExceptionMessages.EX_DAO_ERROR);
+        }
+
+        if (!batch.getUnprocessedPetIds().isEmpty()) {
+            logger.log(batch.getUnprocessedPetIds().size() + " pets could not be read");
+        }
+
+        Map<String, Pet> found = new HashMap<String, Pet>();
+        for (Pet pet : batch.getPets()) {
+            found.put(pet.getPetId(), pet);
+        }
+        Set<String> unprocessed = new HashSet<String>(batch.getUnprocessedPetIds());
+
+        List<BatchPetResult> results = new ArrayList<BatchPetResult>(petIds.size());
+        int unprocessedCount = 0;
+        for (String petId : petIds) {
+            BatchPetResult result = new BatchPetResult();
+            result.setPetId(petId);
+            if (found.containsKey(petId)) {
+                result.setStatus(BatchPetResult.Status.FOUND);
+                result.setPet(found.get(petId));
+            } else if (unprocessed.contains(petId)) {
+                result.setStatus(BatchPetResult.Status.UNPROCESSED);
+                unprocessedCount++;
+            } else {
+                result.setStatus(BatchPetResult.Status.NOT_FOUND);
+            }
+            results.add(result);
+        }
+
+        BatchPetsResponse output = new BatchPetsResponse();
+        output.setCount(results.size());
+        output.setUnprocessedCount(unprocessedCount);
+        output.setResults(results);
+
+        getGson().toJson(output, BatchPetsResponse.class, response);
+    }
+}
@@ -13,30 +13,52 @@
 package com.amazonaws.apigatewaydemo.action;
 
 import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+import com.amazonaws.apigatewaydemo.configuration.IdempotencyConfiguration;
 import com.amazonaws.apigatewaydemo.exception.BadRequestException;
 import com.amazonaws.apigatewaydemo.exception.DAOException;
 import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
 import com.amazonaws.apigatewaydemo.model.DAOFactory;
 import com.amazonaws.apigatewaydemo.model.action.CreatePetRequest;
 import com.amazonaws.apigatewaydemo.model.action.CreatePetResponse;
+import com.amazonaws.apigatewaydemo.model.idempotency.IdempotencyDAO;
+import com.amazonaws.apigatewaydemo.model.idempotency.IdempotencyRecord;
 import com.amazonaws.apigatewaydemo.model.pet.Pet;
 import com.amazonaws.apigatewaydemo.model.pet.PetDAO;
+import com.amazonaws.apigatewaydemo.model.pet.PetField;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
-import com.google.gson.JsonObject;
+import com.amazonaws.util.BinaryUtils;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.UUID;
 
 /**
  * Action that creates a new Pet in the data store
  * <p/>
  * POST to /pets/
+ * <p/>
+ * Clients that retry the request after a timeout should send an idempotency key, a value they generate for each new
+ * pet such as a UUID. The key is recorded with the petId before the pet is written, and the requests that arrive
+ * with the same key return the recorded petId instead of creating another pet. A key sent with different pet details
+ * is rejected.
+ * <p/>
+ * Pets are not owned by a user and the keys are not scoped to the caller: a key is shared by every client of the API,
+ * which must generate keys that cannot be guessed or reused by another client, such as random UUIDs.
  */
-public class CreatePetDemoAction extends AbstractDemoAction {
-    private LambdaLogger logger;
-
-    public String handle(JsonObject request, Context lambdaContext) throws BadRequestException, InternalErrorException {
-        logger = lambdaContext.getLogger();
+public class CreatePetDemoAction extends AbstractStreamingDemoAction<CreatePetRequest> {
+    public CreatePetDemoAction() {
+        super(CreatePetRequest.class);
+    }
 
-        CreatePetRequest input = getGson().fromJson(request, CreatePetRequest.class);
+    public void handle(CreatePetRequest input, JsonWriter response, Context lambdaContext)
+            throws BadRequestException, InternalErrorException, IOException {
+        LambdaLogger logger = lambdaContext.getLogger();
 
         if (input == null ||
                 input.getPetType() == null ||
@@ -54,7 +76,11 @@ public class CreatePetDemoAction extends AbstractDemoAction {
         String petId;
 
         try {
-            petId = dao.createPet(newPet);
+            if (input.getIdempotencyKey() == null) {
+                petId = dao.createPet(newPet);
+            } else {
+                petId = createPetOnce(dao, newPet, input, logger);
+            }
         } catch (final DAOException e) {
             logger.log("Error while creating new pet\n" + e.getMessage());
             throw new InternalErrorException(ExceptionMessages.EX_DAO_ERROR);
@@ -68,6 +94,87 @@ public class CreatePetDemoAction extends AbstractDemoAction {
         CreatePetResponse output = new CreatePetResponse();
         output.setPetId(petId);
 
-        return getGson().toJson(output);
+        getGson().toJson(output, CreatePetResponse.class, response);
+    }
+
+    /**
+     * Creates the pet unless the idempotency key of the request was already recorded. The petId is generated and
+     * recorded with the key before the pet is written, so that a request sent again while the first one is still
+     * running, or after it failed, gets the same petId. When the key was already recorded the pet is only written if
+     * it cannot be found, the request that recorded the key failed before writing it. The pet is written with the
+     * same petId and details, so the requests racing for it write the same item.
+     *
+     * @param dao    The PetDAO
+     * @param pet    The pet to be created
+     * @param input  The request, with its idempotency key
+     * @param logger The Lambda logger
+     * @return The petId recorded for the key
+     * @throws BadRequestException If the key is not valid or was recorded for a different pet
+     * @throws DAOException
+     */
+    private String createPetOnce(PetDAO dao, Pet pet, CreatePetRequest input, LambdaLogger logger)
+            throws BadRequestException, DAOException {
+        String idempotencyKey = input.getIdempotencyKey();
+        if (idempotencyKey.length() == 0 || idempotencyKey.length() > IdempotencyConfiguration.KEY_MAX_LENGTH) {
+            throw new BadRequestException(ExceptionMessages.EX_INVALID_IDEMPOTENCY_KEY);
+        }
+
+        IdempotencyDAO idempotencyDAO = DAOFactory.getIdempotencyDAO();
+        String requestHash = hash(input);
+        long now = System.currentTimeMillis();
+
+        IdempotencyRecord record = idempotencyDAO.getRecord(idempotencyKey, now);
+        if (record == null) {
+            pet.setPetId(UUID.randomUUID().toString());
+            record = idempotencyDAO.putRecordIfAbsent(new IdempotencyRecord(idempotencyKey, pet.getPetId(), requestHash,
+                    now + IdempotencyConfiguration.RECORD_TTL_MS), now);
+            if (record == null) {
+                return dao.createPet(pet);
+            }
+        }
+
+        if (!requestHash.equals(record.getRequestHash())) {
+            logger.log("Idempotency key " + idempotencyKey + " sent again with a different pet");
+            throw new BadRequestException(ExceptionMessages.EX_IDEMPOTENCY_KEY_REUSED);
+        }
+
+        if (dao.getPetById(record.getPetId(), EnumSet.of(PetField.petId)) == null) {
+            logger.log("Pet " + record.getPetId() + " recorded for idempotency key " + idempotencyKey + " not found, writing it");
+            pet.setPetId(record.getPetId());
+            return dao.createPet(pet);
+        }
+
+        return record.getPetId();
+    }
+
+    /**
+     * Hashes the pet details of the request, the idempotency key excluded. The details are encoded as a JSON array so
+     * that a missing name and the name "null", or names containing the separators, hash differently.
+     *
+     * @param input The request
+     * @return The hex encoded SHA-256 hash of the pet details
+     */
+    private static String hash(CreatePetRequest input) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        StringWriter details = new StringWriter();
+        try {
+            new JsonWriter(details).beginArray()
+                    .value(input.getPetType())
+                    .value(input.getPetName())
+                    .value(input.getPetAge())
+                    .endArray()
+                    .close();
+        } catch (final IOException e) {
+            // a StringWriter does not throw
+            throw new IllegalStateException(e);
+        }
+        return BinaryUtils.toHex(digest.digest(details.toString().getBytes(StandardCharsets.UTF_8)));
     }
 }
@@ -23,6 +23,9 @@ import com.google.gson.JsonObject;
  * DemoAction defines the methods called by the RequestRouter when it is invoked by a Lambda function. Implementing
  * classes should be able to receive a JsonObject containing the body of the request (taken from the "body" property)
  * of the incoming JSON, and return a String that contains valid json.
+ * <p/>
+ * A single instance of each implementation is shared by all invocations through the ActionRegistry, implementing
+ * classes should not keep per-request state in their fields.
  */
 public interface DemoAction {
     /**
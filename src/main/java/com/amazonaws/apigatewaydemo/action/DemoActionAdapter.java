@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.action;
+
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Adapts a String returning DemoAction to the StreamingDemoAction interface. TypedDemoAction implementations keep
+ * receiving their request bean, other actions receive the body as a JsonObject. The JSON returned by the action is
+ * copied to the response JsonWriter.
+ */
+public class DemoActionAdapter implements StreamingDemoAction<Object> {
+    // null members are kept so that the response is copied exactly as the action produced it
+    private static final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    private final DemoAction action;
+    private final Class<?> requestClass;
+
+    public DemoActionAdapter(DemoAction action) {
+        this.action = action;
+        if (action instanceof TypedDemoAction) {
+            this.requestClass = ((TypedDemoAction<?>) action).getRequestClass();
+        } else {
+            this.requestClass = JsonObject.class;
+        }
+    }
+
+    /**
+     * Returns the wrapped action
+     *
+     * @return The DemoAction instance
+     */
+    public DemoAction getAction() {
+        return action;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Class<Object> getRequestClass() {
+        return (Class<Object>) requestClass;
+    }
+
+    public void handle(Object request, JsonWriter response, Context lambdaContext) throws BadRequestException, InternalErrorException, IOException {
+        String output;
+        if (action instanceof TypedDemoAction) {
+            output = handleTyped((TypedDemoAction<?>) action, request, lambdaContext);
+        } else {
+            output = action.handle((JsonObject) request, lambdaContext);
+        }
+
+        gson.toJson(new JsonParser().parse(output), response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I> String handleTyped(TypedDemoAction<I> action, Object request, Context lambdaContext)
+            throws BadRequestException, InternalErrorException {
+        return action.handleRequest((I) request, lambdaContext);
+    }
+}
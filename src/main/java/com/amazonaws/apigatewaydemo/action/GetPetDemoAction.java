@@ -20,22 +20,28 @@ import com.amazonaws.apigatewaydemo.model.DAOFactory;
 import com.amazonaws.apigatewaydemo.model.action.GetPetRequest;
 import com.amazonaws.apigatewaydemo.model.pet.Pet;
 import com.amazonaws.apigatewaydemo.model.pet.PetDAO;
+import com.amazonaws.apigatewaydemo.model.pet.PetField;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Set;
 
 /**
- * Action that extracts a pet from the data store based on the given petId
+ * Action that extracts a pet from the data store based on the given petId. The optional fields parameter limits the
+ * properties read from the data store and returned to the client.
  * <p/>
- * GET to /pets/{petId}
+ * GET to /pets/{petId}?fields=petId,petName
  */
-public class GetPetDemoAction extends AbstractDemoAction {
-    private static LambdaLogger logger;
-
-    public String handle(JsonObject request, Context lambdaContext) throws BadRequestException, InternalErrorException {
-        logger = lambdaContext.getLogger();
+public class GetPetDemoAction extends AbstractStreamingDemoAction<GetPetRequest> {
+    public GetPetDemoAction() {
+        super(GetPetRequest.class);
+    }
 
-        GetPetRequest input = getGson().fromJson(request, GetPetRequest.class);
+    public void handle(GetPetRequest input, JsonWriter response, Context lambdaContext)
+            throws BadRequestException, InternalErrorException, IOException {
+        LambdaLogger logger = lambdaContext.getLogger();
 
         if (input == null ||
                 input.getPetId() == null ||
@@ -44,15 +50,23 @@ public class GetPetDemoAction extends AbstractDemoAction {
             throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
         }
 
+        Set<PetField> fields;
+        try {
+            fields = PetField.parse(input.getFields());
+        } catch (final IllegalArgumentException e) {
+            logger.log("Invalid fields " + input.getFields());
+            throw new BadRequestException(ExceptionMessages.EX_INVALID_FIELDS);
+        }
+
         PetDAO dao = DAOFactory.getPetDAO();
         Pet pet;
         try {
-            pet = dao.getPetById(input.getPetId());
+            pet = dao.getPetById(input.getPetId(), fields);
         } catch (final DAOException e) {
             logger.log("Error while fetching pet with id " + input.getPetId() + "\n" + e.getMessage());
             throw new InternalErrorException(ExceptionMessages.EX_DAO_ERROR);
         }
 
-        return getGson().toJson(pet);
+        getGson().toJson(pet, Pet.class, response);
     }
 }
@@ -13,38 +13,88 @@
 package com.amazonaws.apigatewaydemo.action;
 
 import com.amazonaws.apigatewaydemo.configuration.DynamoDBConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
 import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
 import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.exception.InvalidPageTokenException;
 import com.amazonaws.apigatewaydemo.model.DAOFactory;
+import com.amazonaws.apigatewaydemo.model.action.ListPetsRequest;
 import com.amazonaws.apigatewaydemo.model.action.ListPetsResponse;
-import com.amazonaws.apigatewaydemo.model.pet.Pet;
 import com.amazonaws.apigatewaydemo.model.pet.PetDAO;
+import com.amazonaws.apigatewaydemo.model.pet.PetField;
+import com.amazonaws.apigatewaydemo.model.pet.PetPage;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.Set;
 
 /**
- * Action to return a list of pets from in the data store
+ * Action to return a page of pets from the data store. The response includes a nextPageToken property while there are
+ * more pets to read, the client sends it back as the pageToken parameter to get the next page. When a type is given
+ * only the pets of that type are read, through the type index of the pets table. The optional fields parameter limits
+ * the properties read from the data store and returned to the client.
  * <p/>
- * GET to /pets/
+ * GET to /pets/?type=...&pageToken=...&limit=...&fields=petId,petName
  */
-public class ListPetsDemoAction extends AbstractDemoAction {
-    private static LambdaLogger logger;
+public class ListPetsDemoAction extends AbstractStreamingDemoAction<ListPetsRequest> {
+    public ListPetsDemoAction() {
+        super(ListPetsRequest.class);
+    }
+
+    public void handle(ListPetsRequest input, JsonWriter response, Context lambdaContext)
+            throws BadRequestException, InternalErrorException, IOException {
+        LambdaLogger logger = lambdaContext.getLogger();
 
-    public String handle(JsonObject request, Context lambdaContext) throws BadRequestException, InternalErrorException {
-        logger = lambdaContext.getLogger();
+        int limit = DynamoDBConfiguration.SCAN_LIMIT;
+        String pageToken = null;
+        String petType = null;
+        Set<PetField> fields = null;
+        if (input != null) {
+            if (input.getLimit() < 0) {
+                logger.log("Invalid page limit " + input.getLimit());
+                throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
+            }
+            if (input.getLimit() > 0 && input.getLimit() < limit) {
+                limit = input.getLimit();
+            }
+            if (input.getPageToken() != null && !input.getPageToken().trim().equals("")) {
+                pageToken = input.getPageToken().trim();
+            }
+            if (input.getPetType() != null && !input.getPetType().trim().equals("")) {
+                petType = input.getPetType().trim();
+            }
+            try {
+                fields = PetField.parse(input.getFields());
+            } catch (final IllegalArgumentException e) {
+                logger.log("Invalid fields " + input.getFields());
+                throw new BadRequestException(ExceptionMessages.EX_INVALID_FIELDS);
+            }
+        }
 
         PetDAO dao = DAOFactory.getPetDAO();
 
-        List<Pet> pets = dao.getPets(DynamoDBConfiguration.SCAN_LIMIT);
+        PetPage page;
+        try {
+            page = petType == null
+                    ? dao.getPets(limit, pageToken, fields)
+                    : dao.getPetsByType(petType, limit, pageToken, fields);
+        } catch (final InvalidPageTokenException e) {
+            logger.log("Invalid page token " + pageToken + ": " + e.getMessage());
+            throw new BadRequestException(ExceptionMessages.EX_INVALID_PAGE_TOKEN);
+        } catch (final DAOException e) {
+            logger.log("Error while listing pets\n" + e.getMessage());
+            throw new InternalErrorException(ExceptionMessages.EX_DAO_ERROR);
+        }
 
         ListPetsResponse output = new ListPetsResponse();
-        output.setCount(pets.size());
-        output.setPageLimit(DynamoDBConfiguration.SCAN_LIMIT);
-        output.setPets(pets);
+        output.setCount(page.getPets().size());
+        output.setPageLimit(limit);
+        output.setPets(page.getPets());
+        output.setNextPageToken(page.getNextPageToken());
 
-        return getGson().toJson(output);
+        getGson().toJson(output, ListPetsResponse.class, response);
     }
 }
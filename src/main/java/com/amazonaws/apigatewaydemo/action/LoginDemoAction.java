@@ -13,11 +13,17 @@
 package com.amazonaws.apigatewaydemo.action;
 
 import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+import com.amazonaws.apigatewaydemo.configuration.ThrottleConfiguration;
 import com.amazonaws.apigatewaydemo.exception.AuthorizationException;
 import com.amazonaws.apigatewaydemo.exception.BadRequestException;
 import com.amazonaws.apigatewaydemo.exception.DAOException;
 import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.exception.ProviderUnavailableException;
+import com.amazonaws.apigatewaydemo.exception.ServiceUnavailableException;
+import com.amazonaws.apigatewaydemo.exception.TooManyRequestsException;
+import com.amazonaws.apigatewaydemo.helper.ActionExecutor;
 import com.amazonaws.apigatewaydemo.helper.PasswordHelper;
+import com.amazonaws.apigatewaydemo.helper.PasswordSpec;
 import com.amazonaws.apigatewaydemo.model.DAOFactory;
 import com.amazonaws.apigatewaydemo.model.action.LoginUserRequest;
 import com.amazonaws.apigatewaydemo.model.action.LoginUserResponse;
@@ -28,26 +34,34 @@ import com.amazonaws.apigatewaydemo.model.user.UserDAO;
 import com.amazonaws.apigatewaydemo.model.user.UserIdentity;
 import com.amazonaws.apigatewaydemo.provider.CredentialsProvider;
 import com.amazonaws.apigatewaydemo.provider.ProviderFactory;
+import com.amazonaws.apigatewaydemo.throttle.RateLimiterFactory;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Action used to verify a user credentials and return a set of temporary AWS credentials
  * <p/>
  * POST to /login/
  */
-public class LoginDemoAction extends AbstractDemoAction {
-    private LambdaLogger logger;
-    private CredentialsProvider cognito = ProviderFactory.getCredentialsProvider();
+public class LoginDemoAction extends AbstractStreamingDemoAction<LoginUserRequest> {
+    private final CredentialsProvider cognito = ProviderFactory.getCredentialsProvider();
 
-    public String handle(JsonObject request, Context lambdaContext) throws BadRequestException, InternalErrorException {
-        logger = lambdaContext.getLogger();
+    public LoginDemoAction() {
+        super(LoginUserRequest.class);
+    }
 
-        LoginUserRequest input = getGson().fromJson(request, LoginUserRequest.class);
+    public void handle(LoginUserRequest input, JsonWriter response, Context lambdaContext)
+            throws BadRequestException, InternalErrorException, IOException {
+        LambdaLogger logger = lambdaContext.getLogger();
 
         if (input == null ||
                 input.getUsername() == null ||
@@ -57,6 +71,20 @@ public class LoginDemoAction extends AbstractDemoAction {
             throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
         }
 
+        // reject attempts over the limit before spending a data store read and a password hash on them
+        if (ThrottleConfiguration.LOGIN_THROTTLE_ENABLED) {
+            String sourceIp = input.getSourceIp() == null || input.getSourceIp().trim().equals("")
+                    ? ThrottleConfiguration.UNKNOWN_SOURCE : input.getSourceIp();
+            if (!RateLimiterFactory.getLoginSourceLimiter().tryAcquire(sourceIp)) {
+                logger.log("Too many login attempts from " + sourceIp);
+                throw new TooManyRequestsException(ExceptionMessages.EX_TOO_MANY_ATTEMPTS);
+            }
+            if (!RateLimiterFactory.getLoginUsernameLimiter().tryAcquire(input.getUsername())) {
+                logger.log("Too many login attempts for user " + input.getUsername());
+                throw new TooManyRequestsException(ExceptionMessages.EX_TOO_MANY_ATTEMPTS);
+            }
+        }
+
         UserDAO dao = DAOFactory.getUserDAO();
         User loggedUser;
         try {
@@ -70,8 +98,16 @@ public class LoginDemoAction extends AbstractDemoAction {
             throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
         }
 
+        PasswordSpec spec;
         try {
-            if (!PasswordHelper.authenticate(input.getPassword(), loggedUser.getPasswordBytes(), loggedUser.getSaltBytes())) {
+            spec = PasswordSpec.parse(loggedUser.getPasswordSpec());
+        } catch (final IllegalArgumentException e) {
+            logger.log("Invalid password specification for user " + loggedUser.getUsername() + "\n" + e.getMessage());
+            throw new InternalErrorException(ExceptionMessages.EX_PWD_ENCRYPT);
+        }
+
+        try {
+            if (!PasswordHelper.authenticate(input.getPassword(), loggedUser.getPasswordBytes(), loggedUser.getSaltBytes(), spec)) {
                 throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
             }
         } catch (final NoSuchAlgorithmException e) {
@@ -82,23 +118,84 @@ public class LoginDemoAction extends AbstractDemoAction {
             throw new InternalErrorException(ExceptionMessages.EX_PWD_ENCRYPT);
         }
 
+        // passwords stored with weaker parameters are encrypted again while Cognito is called
+        Future<?> rehashTask = null;
+        if (PasswordHelper.needsRehash(spec)) {
+            rehashTask = ActionExecutor.getExecutor().submit(
+                    new RehashTask(dao, loggedUser.getUsername(), input.getPassword(), logger));
+        }
+
         UserIdentity identity;
         UserCredentials credentials;
         try {
             identity = cognito.getUserIdentity(loggedUser);
-            loggedUser.setIdentity(identity);
-            credentials = cognito.getUserCredentials(loggedUser);
+            // the loaded user can be shared with concurrent logins of the same username, it is not modified
+            User sessionUser = new User();
+            sessionUser.setUsername(loggedUser.getUsername());
+            sessionUser.setIdentity(identity);
+            credentials = cognito.getUserCredentials(sessionUser);
+        } catch (final ProviderUnavailableException e) {
+            logger.log("Cognito is unavailable, failing fast\n" + e.getMessage());
+            ActionExecutor.cancelAll(rehashTask);
+            throw new ServiceUnavailableException(ExceptionMessages.EX_COGNITO_UNAVAILABLE);
         } catch (final AuthorizationException e) {
             logger.log("Error while getting oidc token through Cognito\n" + e.getMessage());
+            ActionExecutor.cancelAll(rehashTask);
             throw new InternalErrorException(ExceptionMessages.EX_NO_COGNITO_IDENTITY);
         }
 
+        if (rehashTask != null) {
+            try {
+                rehashTask.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rehashTask.cancel(true);
+            } catch (final ExecutionException e) {
+                // the user logged in with the old hash, the rehash is attempted again on the next login
+                logger.log("Error while rehashing password\n" + e.getCause().getMessage());
+            }
+        }
+
         // if we reach this point we assume that the user is authenticated.
         LoginUserResponse output = new LoginUserResponse();
-        output.setIdentityId(loggedUser.getCognitoIdentityId());
+        output.setIdentityId(identity.getIdentityId());
         output.setToken(identity.getOpenIdToken());
         output.setCredentials(credentials);
 
-        return getGson().toJson(output);
+        getGson().toJson(output, LoginUserResponse.class, response);
+    }
+
+    /**
+     * Encrypts the password of a user with the current PasswordSpec and updates the stored hash. The task only writes
+     * the password attributes and doesn't share the User object of the action.
+     */
+    private static class RehashTask implements Callable<Void> {
+        private final UserDAO dao;
+        private final String username;
+        private final String password;
+        private final LambdaLogger logger;
+
+        private RehashTask(UserDAO dao, String username, String password, LambdaLogger logger) {
+            this.dao = dao;
+            this.username = username;
+            this.password = password;
+            this.logger = logger;
+        }
+
+        public Void call() throws Exception {
+            PasswordSpec spec = PasswordHelper.getCurrentSpec();
+            byte[] salt = PasswordHelper.generateSalt(spec);
+            byte[] encryptedPassword = PasswordHelper.getEncryptedPassword(password, salt, spec);
+
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(ByteBuffer.wrap(encryptedPassword));
+            user.setSalt(ByteBuffer.wrap(salt));
+            user.setPasswordSpec(spec.format());
+            dao.updateUser(user);
+
+            logger.log("Password of user " + username + " encrypted again with " + spec.format());
+            return null;
+        }
     }
 }
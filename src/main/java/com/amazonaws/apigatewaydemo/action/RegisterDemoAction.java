@@ -17,7 +17,12 @@ import com.amazonaws.apigatewaydemo.exception.AuthorizationException;
 import com.amazonaws.apigatewaydemo.exception.BadRequestException;
 import com.amazonaws.apigatewaydemo.exception.DAOException;
 import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.exception.ProviderUnavailableException;
+import com.amazonaws.apigatewaydemo.exception.ServiceUnavailableException;
+import com.amazonaws.apigatewaydemo.exception.UsernameTakenException;
+import com.amazonaws.apigatewaydemo.helper.ActionExecutor;
 import com.amazonaws.apigatewaydemo.helper.PasswordHelper;
+import com.amazonaws.apigatewaydemo.helper.PasswordSpec;
 import com.amazonaws.apigatewaydemo.model.DAOFactory;
 import com.amazonaws.apigatewaydemo.model.action.RegisterUserRequest;
 import com.amazonaws.apigatewaydemo.model.action.RegisterUserResponse;
@@ -28,36 +33,51 @@ import com.amazonaws.apigatewaydemo.provider.CredentialsProvider;
 import com.amazonaws.apigatewaydemo.provider.ProviderFactory;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Action used to register a new user.
  * <p/>
  * POST to /users/
+ * <p/>
+ * The password is hashed while the username is checked and the Cognito identity is requested. The identity is only
+ * requested once the lookup found no user with the same name: GetOpenIdTokenForDeveloperIdentity creates the identity
+ * of a new login, and an identity created for a rejected registration cannot be removed by cancelling the call. Two
+ * registrations of the same username racing past the lookup still both create an identity and one of them is then
+ * rejected by the conditional write, leaving an identity without a user. That identity has no credentials attached
+ * and is never returned, it only counts against the identity pool. Deleting it would need the
+ * cognito-identity:DeleteIdentities permission for a race that the lookup makes rare.
  */
-public class RegisterDemoAction extends AbstractDemoAction {
-
-    private CredentialsProvider cognito = ProviderFactory.getCredentialsProvider();
+public class RegisterDemoAction extends AbstractStreamingDemoAction<RegisterUserRequest> {
+    private final CredentialsProvider cognito = ProviderFactory.getCredentialsProvider();
 
-    private LambdaLogger logger = null;
+    public RegisterDemoAction() {
+        super(RegisterUserRequest.class);
+    }
 
     /**
-     * Handler implementation for the registration action. It expcts a RegisterUserRequest object in input and returns
-     * a serialized RegisterUserResponse object
+     * Handler implementation for the registration action. It expcts a RegisterUserRequest object in input and writes
+     * the new user identifier and a set of temporary AWS credentials as a RegisterUserResponse object
      *
-     * @param request       Receives a JsonObject containing the body content
+     * @param input         The RegisterUserRequest bound from the body content
+     * @param response      The JsonWriter for the RegisterUserResponse object
      * @param lambdaContext The Lambda context passed by the AWS Lambda environment
-     * @return Returns the new user identifier and a set of temporary AWS credentials as a RegisterUserResponse object
      * @throws BadRequestException
      * @throws InternalErrorException
+     * @throws IOException
      */
-    public String handle(JsonObject request, Context lambdaContext) throws BadRequestException, InternalErrorException {
-        logger = lambdaContext.getLogger();
-        RegisterUserRequest input = getGson().fromJson(request, RegisterUserRequest.class);
+    public void handle(RegisterUserRequest input, JsonWriter response, Context lambdaContext)
+            throws BadRequestException, InternalErrorException, IOException {
+        LambdaLogger logger = lambdaContext.getLogger();
 
         if (input == null ||
                 input.getUsername() == null ||
@@ -68,52 +88,64 @@ public class RegisterDemoAction extends AbstractDemoAction {
             throw new BadRequestException(ExceptionMessages.EX_INVALID_INPUT);
         }
 
-        User newUser = new User();
-        newUser.setUsername(input.getUsername());
-
-        // encrypt password
-        try {
-            byte[] salt = PasswordHelper.generateSalt();
-            byte[] encryptedPassword = PasswordHelper.getEncryptedPassword(input.getPassword(), salt);
-            newUser.setPassword(ByteBuffer.wrap(encryptedPassword));
-            newUser.setSalt(ByteBuffer.wrap(salt));
-        } catch (final NoSuchAlgorithmException e) {
-            logger.log("No algrithm found for password encryption\n" + e.getMessage());
-            throw new InternalErrorException(ExceptionMessages.EX_PWD_SALT);
-        } catch (final InvalidKeySpecException e) {
-            logger.log("No KeySpec found for password encryption\n" + e.getMessage());
-            throw new InternalErrorException(ExceptionMessages.EX_PWD_ENCRYPT);
-        }
-
-        if (newUser.getPassword() == null) {
-            logger.log("Password null after encryption");
-            throw new InternalErrorException(ExceptionMessages.EX_PWD_SAVE);
-        }
+        final String username = input.getUsername();
+        final String password = input.getPassword();
+        final UserDAO dao = DAOFactory.getUserDAO();
 
-        UserDAO dao = DAOFactory.getUserDAO();
+        // the password hashing runs while the username is checked and the identity requested from Cognito, the user
+        // is written once all of them completed
+        ExecutorService executor = ActionExecutor.getExecutor();
+        Future<User> existingUserTask = executor.submit(new Callable<User>() {
+            public User call() throws Exception {
+                return dao.getUserByName(username);
+            }
+        });
+        Future<User> hashTask = executor.submit(new Callable<User>() {
+            public User call() throws Exception {
+                return encryptPassword(username, password);
+            }
+        });
 
+        User newUser;
         UserIdentity identity;
+        boolean completed = false;
         try {
-            // check if the user exists
-            if (dao.getUserByName(newUser.getUsername()) != null) {
-                throw new BadRequestException("Username is taken");
+            if (usernameTaken(existingUserTask, logger)) {
+                logger.log("Username " + username + " is taken");
+                throw new BadRequestException(ExceptionMessages.EX_USERNAME_TAKEN);
             }
 
-            identity = cognito.getUserIdentity(newUser);
+            // the call creates the Cognito identity, it is only made for a username that is free
+            identity = getNewIdentity(username, logger);
 
-            if (identity == null || identity.getIdentityId() == null || identity.getIdentityId().trim().equals("")) {
-                logger.log("Could not load Cognito identity ");
-                throw new InternalErrorException(ExceptionMessages.EX_NO_COGNITO_IDENTITY);
+            newUser = hashTask.get();
+            if (newUser.getPassword() == null) {
+                logger.log("Password null after encryption");
+                throw new InternalErrorException(ExceptionMessages.EX_PWD_SAVE);
+            }
+            completed = true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalErrorException(ExceptionMessages.EX_TIMEOUT);
+        } catch (final ExecutionException e) {
+            throw mapFailure(e.getCause(), logger);
+        } finally {
+            if (!completed) {
+                // stop the steps still running, their results are not needed anymore
+                ActionExecutor.cancelAll(existingUserTask, hashTask);
             }
+        }
 
+        try {
             newUser.setIdentity(identity);
+            // the conditional write is the authoritative check, the lookup above only saves work when the name is taken
             dao.createUser(newUser);
+        } catch (final UsernameTakenException e) {
+            logger.log("Username " + newUser.getUsername() + " is taken");
+            throw new BadRequestException(ExceptionMessages.EX_USERNAME_TAKEN);
         } catch (final DAOException e) {
             logger.log("Error while saving new user\n" + e.getMessage());
             throw new InternalErrorException(ExceptionMessages.EX_DAO_ERROR);
-        } catch (final AuthorizationException e) {
-            logger.log("Error while accessing Cognito\n" + e.getMessage());
-            throw new InternalErrorException(ExceptionMessages.EX_NO_COGNITO_IDENTITY);
         }
 
         RegisterUserResponse output = new RegisterUserResponse();
@@ -129,6 +161,109 @@ public class RegisterDemoAction extends AbstractDemoAction {
             logger.log("Error while accessing Cognito\n" + e.getMessage());
         }
 
-        return getGson().toJson(output, RegisterUserResponse.class);
+        getGson().toJson(output, RegisterUserResponse.class, response);
+    }
+
+    /**
+     * Creates a new User object with the given username and the password encrypted with a new salt and the current
+     * PasswordSpec
+     *
+     * @param username The username
+     * @param password The clear text password
+     * @return The populated User object
+     * @throws NoSuchAlgorithmException
+     * @throws InvalidKeySpecException
+     */
+    private static User encryptPassword(String username, String password)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
+        User user = new User();
+        user.setUsername(username);
+
+        PasswordSpec spec = PasswordHelper.getCurrentSpec();
+        byte[] salt = PasswordHelper.generateSalt(spec);
+        byte[] encryptedPassword = PasswordHelper.getEncryptedPassword(password, salt, spec);
+        user.setPassword(ByteBuffer.wrap(encryptedPassword));
+        user.setSalt(ByteBuffer.wrap(salt));
+        user.setPasswordSpec(spec.format());
+
+        return user;
+    }
+
+    /**
+     * Requests the Cognito identity of a new user
+     *
+     * @param username The username of the new user
+     * @param logger   The Lambda logger
+     * @return The identity with its OpenID token
+     * @throws InternalErrorException A ServiceUnavailableException when Cognito is failing fast
+     */
+    private UserIdentity getNewIdentity(String username, LambdaLogger logger) throws InternalErrorException {
+        User user = new User();
+        user.setUsername(username);
+
+        UserIdentity identity;
+        try {
+            identity = cognito.getUserIdentity(user);
+        } catch (final AuthorizationException e) {
+            throw mapFailure(e, logger);
+        }
+
+        if (identity == null || identity.getIdentityId() == null || identity.getIdentityId().trim().equals("")) {
+            logger.log("Could not load Cognito identity ");
+            throw new InternalErrorException(ExceptionMessages.EX_NO_COGNITO_IDENTITY);
+        }
+        return identity;
+    }
+
+    /**
+     * Waits for the username lookup. A failed lookup is logged and ignored, the conditional write still rejects
+     * usernames that are taken.
+     *
+     * @param existingUserTask The lookup task
+     * @param logger           The Lambda logger
+     * @return True if a user with the same username exists
+     * @throws InterruptedException
+     */
+    private static boolean usernameTaken(Future<User> existingUserTask, LambdaLogger logger) throws InterruptedException {
+        try {
+            return existingUserTask.get() != null;
+        } catch (final ExecutionException e) {
+            logger.log("Error while checking the username, relying on the conditional write\n" + e.getCause().getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Converts the failure of one of the registration steps into the exception returned to the client
+     *
+     * @param cause  The exception thrown by the step
+     * @param logger The Lambda logger
+     * @return The InternalErrorException to be thrown, a ServiceUnavailableException when Cognito is failing fast
+     */
+    private static InternalErrorException mapFailure(Throwable cause, LambdaLogger logger) {
+        if (cause instanceof NoSuchAlgorithmException) {
+            logger.log("No algrithm found for password encryption\n" + cause.getMessage());
+            return new InternalErrorException(ExceptionMessages.EX_PWD_SALT);
+        }
+        if (cause instanceof InvalidKeySpecException) {
+            logger.log("No KeySpec found for password encryption\n" + cause.getMessage());
+            return new InternalErrorException(ExceptionMessages.EX_PWD_ENCRYPT);
+        }
+        if (cause instanceof ProviderUnavailableException) {
+            logger.log("Cognito is unavailable, failing fast\n" + cause.getMessage());
+            return new ServiceUnavailableException(ExceptionMessages.EX_COGNITO_UNAVAILABLE);
+        }
+        if (cause instanceof AuthorizationException) {
+            logger.log("Error while accessing Cognito\n" + cause.getMessage());
+            return new InternalErrorException(ExceptionMessages.EX_NO_COGNITO_IDENTITY);
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        logger.log("Error while registering user\n" + cause.getMessage());
+        return new InternalErrorException(ExceptionMessages.EX_DAO_ERROR);
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.action;
+
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * StreamingDemoAction is the handler contract used by the RequestRouter. Instead of returning a String the action
+ * writes its response directly to the Lambda OutputStream through a JsonWriter, memory used by the response therefore
+ * does not grow with its size.
+ * <p/>
+ * Actions implementing only the DemoAction interface are wrapped in a DemoActionAdapter by the ActionRegistry.
+ *
+ * @param <I> The request bean the "body" property is bound to
+ */
+public interface StreamingDemoAction<I> {
+    /**
+     * Returns the class of the request bean the "body" property is bound to
+     *
+     * @return The request bean class
+     */
+    Class<I> getRequestClass();
+
+    /**
+     * The main handler method for each requests. This method is called by the RequestRouter when invoked by a Lambda
+     * function.
+     *
+     * @param request       The request bean, null if the event did not contain a body
+     * @param response      The JsonWriter for the response, the action should write exactly one JSON value
+     * @param lambdaContext The Lambda context passed by the AWS Lambda environment
+     * @throws BadRequestException    This exception should be thrown whenever request parameters are not valid or improperly
+     *                                formatted
+     * @throws InternalErrorException This exception should be thrown if an error that is independent from user input happens
+     * @throws IOException            If the response cannot be written
+     */
+    void handle(I request, JsonWriter response, Context lambdaContext) throws BadRequestException, InternalErrorException, IOException;
+}
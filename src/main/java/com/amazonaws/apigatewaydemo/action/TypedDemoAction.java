@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.action;
+
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.services.lambda.runtime.Context;
+
+/**
+ * TypedDemoAction extends the DemoAction interface for actions that declare the bean their request body maps to. The
+ * RequestRouter uses the request class to bind the "body" property of the incoming event while it streams the input,
+ * without building an intermediate String or JsonObject.
+ *
+ * @param <I> The request bean for the action
+ */
+public interface TypedDemoAction<I> extends DemoAction {
+    /**
+     * Returns the class of the request bean the "body" property is bound to
+     *
+     * @return The request bean class
+     */
+    Class<I> getRequestClass();
+
+    /**
+     * Handles a request that has already been bound to the request bean.
+     *
+     * @param request       The request bean, null if the event did not contain a body
+     * @param lambdaContext The Lambda context passed by the AWS Lambda environment
+     * @return A string containing valid JSON to be returned to the client
+     * @throws BadRequestException    This exception should be thrown whenever request parameters are not valid or improperly
+     *                                formatted
+     * @throws InternalErrorException This exception should be thrown if an error that is independent from user input happens
+     */
+    String handleRequest(I request, Context lambdaContext) throws BadRequestException, InternalErrorException;
+}
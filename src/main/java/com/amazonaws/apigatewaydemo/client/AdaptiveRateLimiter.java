@@ -0,0 +1,165 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side rate limiter that adapts to the throttling errors returned by a service. It lets every request through
+ * until a throttling error is received, then limits the requests to a fraction of the rate they were sent at. Each
+ * further throttling error cuts the rate by the same factor and each successful response raises it a little
+ * (additive increase, multiplicative decrease), so the client settles just below the rate the service accepts rather
+ * than sending requests that will be throttled and retried. The limiter stops once no throttling error was received
+ * for a while.
+ * <p/>
+ * The requests over the rate are not refused, reserve returns how long they should wait before being sent.
+ */
+public class AdaptiveRateLimiter {
+    private static final long MEASURE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    // weight of the last interval in the smoothed send rate
+    private static final double MEASURE_SMOOTHING = 0.8;
+
+    private final double decreaseFactor;
+    private final double increasePerSecond;
+    private final double minRate;
+    private final long resetNanos;
+
+    private boolean enabled;
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long lastThrottle;
+
+    private double measuredRate;
+    private long intervalStart = System.nanoTime();
+    private int intervalCount;
+
+    /**
+     * Creates a new limiter, disabled until the first throttling error
+     *
+     * @param decreaseFactor    The factor applied to the rate for each throttling error, between 0 and 1
+     * @param increasePerSecond How much the rate grows each second while the requests succeed, in requests per second
+     * @param minRate           The lowest rate, in requests per second
+     * @param resetMillis       How long without a throttling error before the limiter stops, in milliseconds
+     */
+    public AdaptiveRateLimiter(double decreaseFactor, double increasePerSecond, double minRate, long resetMillis) {
+        this.decreaseFactor = decreaseFactor;
+        this.increasePerSecond = increasePerSecond;
+        this.minRate = minRate;
+        this.resetNanos = TimeUnit.MILLISECONDS.toNanos(resetMillis);
+    }
+
+    /**
+     * Reserves the right to send a request
+     *
+     * @param maxWaitMillis The longest the request can wait, in milliseconds
+     * @return How long to wait before sending the request, in milliseconds, or -1 if the request would have to wait
+     * longer than maxWaitMillis, nothing is reserved then
+     */
+    public synchronized long reserve(long maxWaitMillis) {
+        long now = System.nanoTime();
+        if (enabled && now - lastThrottle > resetNanos) {
+            enabled = false;
+        }
+
+        long waitMillis = 0;
+        if (enabled) {
+            refill(now);
+            if (tokens < 1) {
+                waitMillis = (long) Math.ceil((1 - tokens) * 1000 / rate);
+                if (waitMillis > maxWaitMillis) {
+                    return -1;
+                }
+            }
+            tokens -= 1;
+        }
+
+        measure(now);
+        intervalCount++;
+        return waitMillis;
+    }
+
+    /**
+     * Lowers the rate after a throttling error, and starts limiting the requests if the limiter was not enabled
+     */
+    public synchronized void onThrottle() {
+        long now = System.nanoTime();
+        measure(now);
+
+        // the rate the requests were sent at, the last interval may not be complete yet
+        double sendRate = measuredRate;
+        long elapsed = now - intervalStart;
+        if (intervalCount > 0 && elapsed > 0) {
+            sendRate = Math.max(sendRate, intervalCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+        }
+
+        if (enabled) {
+            refill(now);
+            rate = Math.max(minRate, Math.min(rate, sendRate) * decreaseFactor);
+        } else {
+            rate = Math.max(minRate, sendRate * decreaseFactor);
+            tokens = 0;
+            lastRefill = now;
+            enabled = true;
+        }
+        tokens = Math.min(tokens, Math.max(1, rate));
+        lastThrottle = now;
+    }
+
+    /**
+     * Raises the rate after a successful response
+     */
+    public synchronized void onSuccess() {
+        if (!enabled) {
+            return;
+        }
+        refill(System.nanoTime());
+        // about rate responses per second, the rate grows by increasePerSecond every second
+        rate += increasePerSecond / rate;
+    }
+
+    /**
+     * Whether the requests are being limited
+     *
+     * @return true after a throttling error, until the limiter resets
+     */
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the current rate
+     *
+     * @return The rate in requests per second, only meaningful while the limiter is enabled
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    private void refill(long now) {
+        // at most one second of requests can be sent in a burst
+        tokens = Math.min(Math.max(1, rate), tokens + (now - lastRefill) * rate / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+    }
+
+    private void measure(long now) {
+        long elapsed = now - intervalStart;
+        if (elapsed < MEASURE_INTERVAL_NANOS) {
+            return;
+        }
+        double intervalRate = intervalCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        measuredRate = MEASURE_SMOOTHING * intervalRate + (1 - MEASURE_SMOOTHING) * measuredRate;
+        intervalStart = now;
+        intervalCount = 0;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.client;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+import com.amazonaws.apigatewaydemo.helper.Deadline;
+import com.amazonaws.handlers.RequestHandler2;
+
+/**
+ * Request handler for the SDK clients that fails a request with a RequestNotSentException, before it is sent, when
+ * the deadline of the action that makes it is too close for the request to complete, see Deadline. Requests made
+ * outside of an action are not affected.
+ */
+public class DeadlineRequestHandler extends RequestHandler2 {
+    public void beforeRequest(Request<?> request) {
+        if (!Deadline.current().hasBudget()) {
+            throw new RequestNotSentException(ExceptionMessages.EX_DEADLINE + ", " + request.getServiceName()
+                    + " request not sent");
+        }
+    }
+
+    public void afterResponse(Request<?> request, Response<?> response) {
+        // nothing to do
+    }
+
+    public void afterError(Request<?> request, Response<?> response, Exception e) {
+        // nothing to do
+    }
+}
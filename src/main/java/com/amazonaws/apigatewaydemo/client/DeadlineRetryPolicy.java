@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.client;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.apigatewaydemo.configuration.DeadlineConfiguration;
+import com.amazonaws.apigatewaydemo.helper.Deadline;
+import com.amazonaws.retry.RetryPolicy;
+
+/**
+ * Makes the retries of an SDK client aware of the deadline of the action that sends the request, see Deadline. The
+ * SDK only checks the request handlers once per call, the retries are bounded here: a request is not retried when
+ * the deadline would not leave enough time for the retry after the backoff, and the backoff never waits past the
+ * point where the last retry can still be started.
+ */
+public class DeadlineRetryPolicy {
+    protected DeadlineRetryPolicy() {
+        // static helper, should not be instantiated
+    }
+
+    /**
+     * Wraps the retry condition and backoff strategy of a retry policy. The maximum number of retries is kept.
+     *
+     * @param policy The retry policy of the client
+     * @return The deadline aware retry policy
+     */
+    public static RetryPolicy wrap(RetryPolicy policy) {
+        final RetryPolicy.RetryCondition condition = policy.getRetryCondition();
+        final RetryPolicy.BackoffStrategy backoff = policy.getBackoffStrategy();
+
+        return new RetryPolicy(
+                new RetryPolicy.RetryCondition() {
+                    public boolean shouldRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+                                               int retriesAttempted) {
+                        return Deadline.current().hasBudget() && condition.shouldRetry(originalRequest, exception, retriesAttempted);
+                    }
+                },
+                new RetryPolicy.BackoffStrategy() {
+                    public long delayBeforeNextRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+                                                     int retriesAttempted) {
+                        long delay = backoff.delayBeforeNextRetry(originalRequest, exception, retriesAttempted);
+                        Deadline deadline = Deadline.current();
+                        if (deadline.hasBudget(delay)) {
+                            return delay;
+                        }
+                        // shortened so that the retry still has the minimum budget when it starts
+                        return Math.max(0, Math.min(delay,
+                                deadline.remaining() - DeadlineConfiguration.MIN_REQUEST_BUDGET_MS));
+                    }
+                },
+                policy.getMaxErrorRetry(),
+                policy.isMaxErrorRetryInClientConfigHonored());
+    }
+}
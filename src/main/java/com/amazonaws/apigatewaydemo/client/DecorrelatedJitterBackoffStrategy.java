@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.client;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.retry.RetryPolicy;
+import com.amazonaws.retry.RetryUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backoff strategy with decorrelated jitter: each delay is picked at random between the base delay and 3 times the
+ * previous delay, up to a maximum. The delays grow about as fast as an exponential backoff but the clients that
+ * failed at the same time don't retry at the same time. Throttling errors start from a longer base delay.
+ * <p/>
+ * The SDK only passes the number of retries to the strategy, the previous delay of the request is kept for the
+ * thread sending it: the synchronous clients retry a request on the calling thread.
+ */
+public class DecorrelatedJitterBackoffStrategy implements RetryPolicy.BackoffStrategy {
+    private final long baseDelay;
+    private final long throttledBaseDelay;
+    private final long maxDelay;
+    private final ThreadLocal<Long> previousDelay = new ThreadLocal<Long>();
+
+    /**
+     * Creates a new backoff strategy, all the delays are in milliseconds
+     *
+     * @param baseDelay          The shortest delay
+     * @param throttledBaseDelay The shortest delay after a throttling error
+     * @param maxDelay           The longest delay
+     */
+    public DecorrelatedJitterBackoffStrategy(long baseDelay, long throttledBaseDelay, long maxDelay) {
+        this.baseDelay = baseDelay;
+        this.throttledBaseDelay = throttledBaseDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    public long delayBeforeNextRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+                                     int retriesAttempted) {
+        long base = isThrottling(exception) ? throttledBaseDelay : baseDelay;
+        Long previous = previousDelay.get();
+        long upper = retriesAttempted == 0 || previous == null ? base * 3 : previous * 3;
+        upper = Math.min(maxDelay, Math.max(base, upper));
+
+        long delay = base >= upper ? upper : base + ThreadLocalRandom.current().nextLong(upper - base + 1);
+        previousDelay.set(delay);
+        return delay;
+    }
+
+    /**
+     * Whether an exception is a throttling error returned by the service
+     *
+     * @param exception The exception thrown by the client
+     * @return true if the request was throttled
+     */
+    public static boolean isThrottling(AmazonClientException exception) {
+        return exception instanceof AmazonServiceException
+                && RetryUtils.isThrottlingException((AmazonServiceException) exception);
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.client;
+
+import com.amazonaws.AmazonClientException;
+
+/**
+ * Thrown by the request handlers of the SDK clients when they stop a request before it is sent, for example because
+ * the deadline of the action is too close. The service was not called, the failure says nothing about its health.
+ */
+public class RequestNotSentException extends AmazonClientException {
+    public RequestNotSentException(String message, Throwable t) {
+        super(message, t);
+    }
+
+    public RequestNotSentException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the retries of a client to a share of its successful requests. Each retry takes tokens from the budget and
+ * each successful response puts some back, up to the capacity. While the service keeps failing the budget empties
+ * and the failed requests are returned to the caller instead of being retried, so the retries can't multiply the
+ * load on a service that is already overloaded.
+ */
+public class RetryBudget {
+    private final int capacity;
+    private final AtomicInteger tokens;
+
+    /**
+     * Creates a full budget
+     *
+     * @param capacity The maximum number of tokens
+     */
+    public RetryBudget(int capacity) {
+        this.capacity = capacity;
+        this.tokens = new AtomicInteger(capacity);
+    }
+
+    /**
+     * Takes tokens for a retry
+     *
+     * @param cost The number of tokens the retry costs
+     * @return false if the budget does not contain enough tokens, nothing is taken then
+     */
+    public boolean tryAcquire(int cost) {
+        while (true) {
+            int available = tokens.get();
+            if (available < cost) {
+                return false;
+            }
+            if (tokens.compareAndSet(available, available - cost)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Puts tokens back in the budget, up to its capacity
+     *
+     * @param amount The number of tokens
+     */
+    public void release(int amount) {
+        while (true) {
+            int available = tokens.get();
+            if (available >= capacity || tokens.compareAndSet(available, Math.min(capacity, available + amount))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tokens left
+     *
+     * @return The available tokens
+     */
+    public int getAvailable() {
+        return tokens.get();
+    }
+}
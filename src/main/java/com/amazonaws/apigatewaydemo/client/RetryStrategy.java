@@ -0,0 +1,235 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.client;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.apigatewaydemo.configuration.ConfigurationHelper;
+import com.amazonaws.apigatewaydemo.configuration.DeadlineConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.RetryConfiguration;
+import com.amazonaws.apigatewaydemo.helper.Deadline;
+import com.amazonaws.apigatewaydemo.metrics.Counter;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
+
+/**
+ * The retry behavior of an SDK client: a retry policy for the ClientConfiguration and a request handler to add to the
+ * client, sharing the state of the client. The retries and throttling errors of the requests are counted in the
+ * metrics of the action that sends them, under the phase given to the strategy.
+ * <p/>
+ * In the Adaptive mode the failed requests are retried with a decorrelated jitter backoff, retries are bounded by a
+ * RetryBudget and the requests go through an AdaptiveRateLimiter that slows the client down while the service
+ * returns throttling errors. The Standard mode keeps the default retry policy of the SDK.
+ */
+public class RetryStrategy {
+    /**
+     * The retry modes, configured in the RetryConfiguration class
+     */
+    public enum RetryMode {
+        Standard,
+        Adaptive
+    }
+
+    /**
+     * The mode used by default, configured in the RetryConfiguration class. An unknown mode falls back to Adaptive
+     * rather than failing the initialization of the DynamoDB and Cognito clients
+     */
+    public static final RetryMode DEFAULT_MODE = ConfigurationHelper.getEnum(RetryMode.class, RetryConfiguration.RETRY_MODE, RetryMode.Adaptive);
+
+    private final Phase phase;
+    private final RetryPolicy baseRetryPolicy;
+    private final RetryBudget budget;
+    private final AdaptiveRateLimiter limiter;
+    // the last exception passed to the retry condition by the thread, so that afterError does not count it twice
+    private final ThreadLocal<AmazonClientException> observed = new ThreadLocal<AmazonClientException>();
+
+    /**
+     * Creates the retry strategy of a client in the default mode
+     *
+     * @param phase     The phase the requests of the client are recorded against, DAO or COGNITO
+     * @param baseDelay The base delay of the backoff between the retries, in milliseconds
+     */
+    public RetryStrategy(Phase phase, long baseDelay) {
+        this(phase, DEFAULT_MODE, baseDelay);
+    }
+
+    /**
+     * Creates the retry strategy of a client
+     *
+     * @param phase     The phase the requests of the client are recorded against, DAO or COGNITO
+     * @param mode      The retry mode
+     * @param baseDelay The base delay of the backoff between the retries in the Adaptive mode, in milliseconds
+     */
+    public RetryStrategy(Phase phase, RetryMode mode, long baseDelay) {
+        this.phase = phase;
+        if (mode == RetryMode.Adaptive) {
+            baseRetryPolicy = new RetryPolicy(
+                    PredefinedRetryPolicies.DEFAULT_RETRY_CONDITION,
+                    new DecorrelatedJitterBackoffStrategy(baseDelay, RetryConfiguration.THROTTLED_BASE_DELAY_MS,
+                            RetryConfiguration.MAX_BACKOFF_MS),
+                    RetryConfiguration.MAX_ERROR_RETRY,
+                    true);
+            budget = new RetryBudget(RetryConfiguration.RETRY_BUDGET_CAPACITY);
+            limiter = new AdaptiveRateLimiter(
+                    RetryConfiguration.RATE_LIMITER_DECREASE_FACTOR,
+                    RetryConfiguration.RATE_LIMITER_INCREASE_PER_SECOND,
+                    RetryConfiguration.RATE_LIMITER_MIN_RATE,
+                    RetryConfiguration.RATE_LIMITER_RESET_MS);
+        } else {
+            baseRetryPolicy = PredefinedRetryPolicies.DEFAULT;
+            budget = null;
+            limiter = null;
+        }
+    }
+
+    /**
+     * Returns the retry policy to set on the ClientConfiguration of the client
+     *
+     * @return The retry policy
+     */
+    public RetryPolicy getRetryPolicy() {
+        return new RetryPolicy(
+                new RetryPolicy.RetryCondition() {
+                    public boolean shouldRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+                                               int retriesAttempted) {
+                        return RetryStrategy.this.shouldRetry(originalRequest, exception, retriesAttempted);
+                    }
+                },
+                new RetryPolicy.BackoffStrategy() {
+                    public long delayBeforeNextRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+                                                     int retriesAttempted) {
+                        return RetryStrategy.this.delayBeforeNextRetry(originalRequest, exception, retriesAttempted);
+                    }
+                },
+                baseRetryPolicy.getMaxErrorRetry(),
+                baseRetryPolicy.isMaxErrorRetryInClientConfigHonored());
+    }
+
+    /**
+     * Returns the request handler to add to the client. It waits for the rate limiter before the request is sent and
+     * reports the outcome of the request to the rate limiter and the retry budget.
+     *
+     * @return The request handler
+     */
+    public RequestHandler2 getRequestHandler() {
+        return new RequestHandler2() {
+            public void beforeRequest(Request<?> request) {
+                observed.remove();
+                acquire(request);
+            }
+
+            public void afterResponse(Request<?> request, Response<?> response) {
+                observed.remove();
+                if (budget != null) {
+                    budget.release(RetryConfiguration.SUCCESS_REFUND);
+                }
+                if (limiter != null) {
+                    limiter.onSuccess();
+                }
+            }
+
+            public void afterError(Request<?> request, Response<?> response, Exception e) {
+                // the last error of a request is not passed to the retry condition when the retries are exhausted
+                if (e instanceof AmazonClientException && e != observed.get()) {
+                    observe((AmazonClientException) e);
+                }
+                observed.remove();
+            }
+        };
+    }
+
+    /**
+     * Returns the retry budget of the client
+     *
+     * @return The budget, null in the Standard mode
+     */
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Returns the rate limiter of the client
+     *
+     * @return The limiter, null in the Standard mode
+     */
+    public AdaptiveRateLimiter getLimiter() {
+        return limiter;
+    }
+
+    private boolean shouldRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception, int retriesAttempted) {
+        observe(exception);
+        if (!baseRetryPolicy.getRetryCondition().shouldRetry(originalRequest, exception, retriesAttempted)) {
+            return false;
+        }
+        if (budget != null && !budget.tryAcquire(RetryConfiguration.RETRY_COST)) {
+            Metrics.count(phase, Counter.RETRY_DENIED);
+            return false;
+        }
+        Metrics.count(phase, Counter.RETRY);
+        return true;
+    }
+
+    private long delayBeforeNextRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception, int retriesAttempted) {
+        long delay = baseRetryPolicy.getBackoffStrategy().delayBeforeNextRetry(originalRequest, exception, retriesAttempted);
+        if (limiter == null) {
+            return delay;
+        }
+        // the retry is a request like the others, it waits for the limiter at least
+        long wait = limiter.reserve(Long.MAX_VALUE);
+        if (wait > 0) {
+            Metrics.count(phase, Counter.RATE_LIMITED);
+        }
+        return Math.max(delay, wait);
+    }
+
+    private void acquire(Request<?> request) {
+        if (limiter == null) {
+            return;
+        }
+
+        long maxWait = Deadline.current().bound(Long.MAX_VALUE) - DeadlineConfiguration.MIN_REQUEST_BUDGET_MS;
+        long wait = limiter.reserve(Math.max(0, maxWait));
+        if (wait < 0) {
+            Metrics.count(phase, Counter.RATE_LIMITED);
+            throw new RequestNotSentException("Client-side rate limit of " + request.getServiceName()
+                    + " leaves no time before the deadline, request not sent");
+        }
+        if (wait == 0) {
+            return;
+        }
+
+        Metrics.count(phase, Counter.RATE_LIMITED);
+        try {
+            Thread.sleep(wait);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestNotSentException("Interrupted while waiting for the client-side rate limit of "
+                    + request.getServiceName(), e);
+        }
+    }
+
+    private void observe(AmazonClientException exception) {
+        observed.set(exception);
+        if (DecorrelatedJitterBackoffStrategy.isThrottling(exception)) {
+            Metrics.count(phase, Counter.THROTTLED);
+            if (limiter != null) {
+                limiter.onThrottle();
+            }
+        }
+    }
+}
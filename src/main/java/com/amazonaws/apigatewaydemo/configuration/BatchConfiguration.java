@@ -0,0 +1,28 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for batch invocations, events that contain an array of actions, and for the batch pet
+ * actions
+ */
+public class BatchConfiguration {
+    // Maximum number of entries accepted in a single batch event
+    public static final int MAX_BATCH_SIZE = 25;
+    // Number of threads used to run the entries of a batch concurrently
+    public static final int THREAD_POOL_SIZE = 8;
+    // Number of entries that can wait for a thread, further entries run on the thread that reads the batch
+    public static final int QUEUE_SIZE = 64;
+    // Maximum number of pets in a single BatchGetPets or BatchCreatePets request
+    public static final int MAX_BATCH_PETS = 500;
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the in-memory caches kept by each Lambda container
+ */
+public class CacheConfiguration {
+    // Set to false to read every pet from the data store
+    public static final boolean PET_CACHE_ENABLED = true;
+    // Maximum number of pets kept in memory, the least recently used pets are evicted first
+    public static final int PET_CACHE_MAX_SIZE = 5000;
+    // How long a pet is served from the cache before it is read again from the data store
+    public static final long PET_CACHE_TTL_MS = 60 * 1000;
+    // How long a lookup for a petId that does not exist is remembered
+    public static final long PET_CACHE_NEGATIVE_TTL_MS = 5 * 1000;
+
+    // Set to false to call Cognito for every login
+    public static final boolean CREDENTIALS_CACHE_ENABLED = true;
+    // Maximum number of identities whose temporary credentials are kept in memory
+    public static final int CREDENTIALS_CACHE_MAX_SIZE = 1000;
+    // Cached credentials are never returned when they expire in less than this
+    public static final long CREDENTIALS_EXPIRATION_MARGIN_MS = 60 * 1000;
+    // Cached credentials are refreshed from Cognito when they are this close to the expiration margin, if the refresh
+    // fails the cached credentials are returned instead
+    public static final long CREDENTIALS_REFRESH_AHEAD_MS = 2 * 60 * 1000;
+}
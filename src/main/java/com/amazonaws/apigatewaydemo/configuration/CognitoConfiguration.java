@@ -23,4 +23,16 @@ public class CognitoConfiguration {
 
     // This should not be changed, it is a default value for Cognito.
     public static final String COGNITO_PROVIDER_NAME = "cognito-identity.amazonaws.com";
+
+    // Validity of the OpenID tokens returned by GetOpenIdTokenForDeveloperIdentity, the Cognito default is 15 minutes
+    public static final long OPENID_TOKEN_DURATION_MS = 15 * 60 * 1000;
+
+    // Circuit breaker in front of the Cognito calls. After CIRCUIT_FAILURE_THRESHOLD consecutive failed calls, server
+    // errors, throttling or requests that could not reach Cognito, the calls fail fast for CIRCUIT_OPEN_MS. Then up to
+    // CIRCUIT_HALF_OPEN_PROBES calls are let through: the circuit closes when one of them succeeds and opens again when
+    // one of them fails. Set the COGNITO_CIRCUIT_FAILURE_THRESHOLD and COGNITO_CIRCUIT_OPEN_MS environment variables to
+    // tune it, a threshold of 0 disables the circuit breaker
+    public static final int CIRCUIT_FAILURE_THRESHOLD = ConfigurationHelper.getInt("COGNITO_CIRCUIT_FAILURE_THRESHOLD", null, 5);
+    public static final int CIRCUIT_OPEN_MS = ConfigurationHelper.getInt("COGNITO_CIRCUIT_OPEN_MS", null, 10000);
+    public static final int CIRCUIT_HALF_OPEN_PROBES = 1;
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Reads the configuration values that can be overridden when the function is deployed. Each value is read from an
+ * environment variable and, when the variable is not set, from a system property. Values that are missing or cannot
+ * be parsed fall back to the default, so that a typo in a setting does not prevent the container from starting.
+ */
+public class ConfigurationHelper {
+    protected ConfigurationHelper() {
+        // static helper, should not be instantiated
+    }
+
+    /**
+     * Returns the value of an environment variable or, when it is not set, of a system property
+     *
+     * @param variable     The name of the environment variable
+     * @param property     The name of the system property, null if the value is only read from the environment
+     * @param defaultValue The value returned when neither is set
+     * @return The value, trimmed, or the default value
+     */
+    public static String getString(String variable, String property, String defaultValue) {
+        String value = System.getenv(variable);
+        if (value == null && property != null) {
+            value = System.getProperty(property);
+        }
+        return value == null || value.trim().equals("") ? defaultValue : value.trim();
+    }
+
+    /**
+     * Returns the value of an environment variable or system property parsed as an int
+     *
+     * @param variable     The name of the environment variable
+     * @param property     The name of the system property, null if the value is only read from the environment
+     * @param defaultValue The value returned when neither is set or the value is not a number
+     * @return The parsed value or the default value
+     */
+    public static int getInt(String variable, String property, int defaultValue) {
+        String value = getString(variable, property, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns the constant of an enum named by a configuration value. The configuration classes keep the value as a
+     * string, the enums are declared by the factories that use them.
+     *
+     * @param type         The enum class
+     * @param value        The configuration value, the name of a constant in any case
+     * @param defaultValue The constant returned when the value is null or does not name a constant
+     * @param <E>          The enum type
+     * @return The matching constant or the default value
+     */
+    public static <E extends Enum<E>> E getEnum(Class<E> type, String value, E defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value.trim())) {
+                return constant;
+            }
+        }
+        return defaultValue;
+    }
+}
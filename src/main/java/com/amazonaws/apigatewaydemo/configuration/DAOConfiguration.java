@@ -0,0 +1,30 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the DAOFactory
+ */
+public class DAOConfiguration {
+    // The DAO implementation returned by default, a value of the DAOFactory.DAOType enum. Set the DAO_TYPE environment
+    // variable, or the dao.type system property, to InMemory to run without DynamoDB tables for local and load tests.
+    // Values that are not in the enum are ignored and DynamoDB is used
+    public static final String DAO_TYPE = ConfigurationHelper.getString("DAO_TYPE", "dao.type", "DynamoDB");
+
+    // Set to false to send a DynamoDB request for each concurrent read of the same pet or user. When enabled, the
+    // reads that arrive while a read for the same key is in flight wait for it and share its result
+    public static final boolean COALESCING_ENABLED = true;
+    // How long a read waits for the read in flight before it fails. The read in flight may be retried by the DynamoDB
+    // client, this should be longer than a few socket timeouts
+    public static final long COALESCING_WAIT_TIMEOUT_MS = 3 * DynamoDBConfiguration.SOCKET_TIMEOUT_MS;
+}
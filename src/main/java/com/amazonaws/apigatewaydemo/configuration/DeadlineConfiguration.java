@@ -0,0 +1,25 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the request deadline, derived from the time Lambda leaves to the invocation
+ */
+public class DeadlineConfiguration {
+    // Time kept at the end of the invocation to write the response and the metrics. The deadline of the request is
+    // the remaining time reported by the Lambda Context minus this margin
+    public static final long RESPONSE_MARGIN_MS = 500;
+    // A DynamoDB or Cognito request, or a retry of one, is not started with less time than this left before the
+    // deadline: it could not complete, the action fails fast with a DeadlineExceededException instead
+    public static final long MIN_REQUEST_BUDGET_MS = 100;
+}
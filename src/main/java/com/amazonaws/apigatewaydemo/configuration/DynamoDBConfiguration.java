@@ -20,6 +20,29 @@ public class DynamoDBConfiguration {
     public static final String USERS_TABLE_NAME = "users";
     // TODO: Specify the name of the Pet table in DynamoDB
     public static final String PET_TABLE_NAME = "pets";
+    // Global secondary index of the Pet table, with the type attribute as its hash key
+    public static final String PET_TYPE_INDEX_NAME = "type-index";
+    // Table for the login throttling buckets, only used when the LOGIN_THROTTLE_STORE is DynamoDB
+    public static final String THROTTLE_TABLE_NAME = "throttle";
+    // Table for the idempotency keys of the CreatePet action
+    public static final String IDEMPOTENCY_TABLE_NAME = "idempotency";
 
     public static final int SCAN_LIMIT = 50;
+
+    // Batch reads and writes are split in chunks of at most the BatchGetItem and BatchWriteItem limits
+    public static final int BATCH_GET_SIZE = 100;
+    public static final int BATCH_WRITE_SIZE = 25;
+    // Attempts for a chunk that fails with a retryable error, and the bounds of the jittered exponential backoff
+    // between the attempts
+    public static final int BATCH_MAX_ATTEMPTS = 3;
+    public static final long BATCH_BACKOFF_BASE_MS = 50;
+    public static final long BATCH_BACKOFF_MAX_MS = 1000;
+
+    // Settings of the DynamoDB client shared by the DAO objects. Batch entries run concurrently, the connection pool
+    // should be at least as large as the BatchConfiguration.THREAD_POOL_SIZE
+    public static final int MAX_CONNECTIONS = 16;
+    public static final int CONNECTION_TIMEOUT_MS = 1000;
+    public static final int SOCKET_TIMEOUT_MS = 5000;
+    public static final long CONNECTION_TTL_MS = 60000;
+    public static final boolean TCP_KEEP_ALIVE = true;
 }
@@ -21,5 +21,20 @@ public class ExceptionMessages {
     public static final String EX_PWD_ENCRYPT = "Failed to encrypt password";
     public static final String EX_PWD_SAVE = "Failed to save password";
     public static final String EX_NO_COGNITO_IDENTITY = "Cannot retrieve Cognito identity";
+    public static final String EX_COGNITO_UNAVAILABLE = "Cognito is unavailable, retry later";
     public static final String EX_DAO_ERROR = "Error loading user";
+    public static final String EX_WRITE_RESPONSE = "Failed to write response";
+    public static final String EX_BATCH_SIZE = "Batch must contain between 1 and " + BatchConfiguration.MAX_BATCH_SIZE + " entries";
+    public static final String EX_UNKNOWN_ACTION = "Unknown action";
+    public static final String EX_LOGIN_IN_BATCH = "Login cannot be sent in a batch";
+    public static final String EX_REGISTER_IN_BATCH = "Register cannot be sent in a batch";
+    public static final String EX_BATCH_PETS_SIZE = "Request must contain between 1 and " + BatchConfiguration.MAX_BATCH_PETS + " pets";
+    public static final String EX_TIMEOUT = "Request timed out";
+    public static final String EX_DEADLINE = "Request deadline exceeded";
+    public static final String EX_INVALID_PAGE_TOKEN = "Invalid page token";
+    public static final String EX_INVALID_FIELDS = "Invalid fields, valid fields are petId, petType, petName and petAge";
+    public static final String EX_USERNAME_TAKEN = "Username is taken";
+    public static final String EX_INVALID_IDEMPOTENCY_KEY = "Idempotency key must contain between 1 and " + IdempotencyConfiguration.KEY_MAX_LENGTH + " characters";
+    public static final String EX_IDEMPOTENCY_KEY_REUSED = "Idempotency key was already used for a different pet";
+    public static final String EX_TOO_MANY_ATTEMPTS = "Too many login attempts, try again later";
 }
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the thread pool actions use to run independent steps concurrently
+ */
+public class ExecutorConfiguration {
+    // Number of threads shared by all the actions in the container, separate from the batch threads
+    public static final int ACTION_THREAD_POOL_SIZE = 8;
+    // Number of tasks that can wait for a thread, further tasks run on the thread that submits them
+    public static final int ACTION_QUEUE_SIZE = 64;
+}
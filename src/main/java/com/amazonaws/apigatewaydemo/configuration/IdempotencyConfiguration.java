@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the idempotency keys of the CreatePet action. The first request with a key creates the
+ * pet and records the key, the requests sent again with the same key before the record expires return the same petId
+ * without creating another pet.
+ */
+public class IdempotencyConfiguration {
+    // Longest idempotency key accepted, clients are expected to send a UUID
+    public static final int KEY_MAX_LENGTH = 255;
+    // How long a key is remembered after the pet is created, requests sent again after that create a new pet
+    public static final long RECORD_TTL_MS = 24 * 60 * 60 * 1000;
+    // Number of times the DynamoDB store tries to record a key whose previous record expired while it was read
+    public static final int DYNAMODB_MAX_ATTEMPTS = 3;
+
+    // Set to false to read every key from the DynamoDB table
+    public static final boolean CACHE_ENABLED = true;
+    // Maximum number of keys kept in memory by each container, the least recently used keys are evicted first
+    public static final int CACHE_MAX_SIZE = 5000;
+    // How long a key is served from the cache, never longer than the record itself
+    public static final long CACHE_TTL_MS = 5 * 60 * 1000;
+    // Maximum number of keys kept by the InMemory store. Keys evicted before they expire are forgotten
+    public static final int IN_MEMORY_MAX_KEYS = 100000;
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the JSON serialization of requests and responses
+ */
+public class JsonConfiguration {
+    // Responses are written in compact form. Set the PRETTY_PRINT_JSON environment variable to true to indent them
+    // while debugging.
+    public static final boolean PRETTY_PRINTING = Boolean.parseBoolean(System.getenv("PRETTY_PRINT_JSON"));
+    public static final String PRETTY_PRINTING_INDENT = "  ";
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the latency and error metrics written to the function log
+ */
+public class MetricsConfiguration {
+    // Set the METRICS_ENABLED environment variable, or the metrics.enabled system property, to false to stop recording
+    // and writing the metrics
+    public static final boolean METRICS_ENABLED = !"false".equalsIgnoreCase(System.getenv("METRICS_ENABLED") != null
+            ? System.getenv("METRICS_ENABLED") : System.getProperty("metrics.enabled"));
+    // Value of the "namespace" property of each metrics log line, used by the metrics pipeline to find the lines
+    public static final String METRICS_NAMESPACE = "SecurePetStore";
+    // Latencies above this are counted in the last histogram bucket, in microseconds
+    public static final long MAX_LATENCY_US = 5 * 60 * 1000 * 1000L;
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the password hashing in the PasswordHelper class. Passwords stored with weaker
+ * parameters than these are hashed again the next time the user logs in, the values can be changed without
+ * migrating the users table.
+ */
+public class PasswordConfiguration {
+    // Key derivation function used for new password hashes
+    public static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    // Number of iterations of the key derivation function. Set the PASSWORD_ITERATIONS environment variable to tune
+    // the cost of a login for the memory, and therefore the CPU, of the Lambda function
+    public static final int ITERATIONS = ConfigurationHelper.getInt("PASSWORD_ITERATIONS", null, 30000);
+    public static final int SALT_LENGTH = 16;
+    public static final int KEY_LENGTH = 256;
+
+    // When the PASSWORD_HASH_TARGET_MS environment variable is set the iterations are calibrated when the container
+    // starts so that a hash takes about that long, instead of using ITERATIONS. The calibrated value is rounded down
+    // to a multiple of CALIBRATION_STEP so that containers on the same hardware agree on it
+    public static final int CALIBRATION_TARGET_MS = ConfigurationHelper.getInt("PASSWORD_HASH_TARGET_MS", null, 0);
+    public static final int CALIBRATION_STEP = 10000;
+    public static final int MIN_ITERATIONS = 10000;
+}
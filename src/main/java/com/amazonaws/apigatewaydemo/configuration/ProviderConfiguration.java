@@ -0,0 +1,23 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the ProviderFactory
+ */
+public class ProviderConfiguration {
+    // The credentials provider returned by default, a value of the ProviderFactory.CredentialsProviderType enum. Set the
+    // CREDENTIALS_PROVIDER environment variable, or the credentials.provider system property, to Local to run without
+    // Cognito for local and load tests. Values that are not in the enum are ignored and Cognito is used
+    public static final String CREDENTIALS_PROVIDER = ConfigurationHelper.getString("CREDENTIALS_PROVIDER", "credentials.provider", "Cognito");
+}
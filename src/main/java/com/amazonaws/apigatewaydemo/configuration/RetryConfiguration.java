@@ -0,0 +1,49 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the retries of the DynamoDB and Cognito clients
+ */
+public class RetryConfiguration {
+    // How the clients retry failed requests, a value of the RetryStrategy.RetryMode enum: Adaptive (default) for the
+    // jittered backoff, retry budget and client-side rate limiter, or Standard for the retry policy of the SDK. Set the
+    // RETRY_MODE environment variable, or the retry.mode system property, to change it. Values that are not in the enum
+    // are ignored and Adaptive is used
+    public static final String RETRY_MODE = ConfigurationHelper.getString("RETRY_MODE", "retry.mode", "Adaptive");
+    // Maximum number of retries of a request. Retries also stop when the retry budget or the deadline is spent
+    public static final int MAX_ERROR_RETRY = 3;
+
+    // Decorrelated jitter backoff: each delay is picked at random between the base delay and 3 times the previous
+    // delay, up to MAX_BACKOFF_MS. Throttling errors start from a longer base delay
+    public static final long DYNAMODB_BASE_DELAY_MS = 25;
+    public static final long COGNITO_BASE_DELAY_MS = 100;
+    public static final long THROTTLED_BASE_DELAY_MS = 250;
+    public static final long MAX_BACKOFF_MS = 2000;
+
+    // Retry budget of each client: a retry takes RETRY_COST tokens and a successful response puts SUCCESS_REFUND back,
+    // up to the capacity. Once the budget is empty failed requests are not retried until successful responses refill
+    // it, so that a failing service does not receive MAX_ERROR_RETRY + 1 times the usual load
+    public static final int RETRY_BUDGET_CAPACITY = 100;
+    public static final int RETRY_COST = 5;
+    public static final int SUCCESS_REFUND = 1;
+
+    // Client-side rate limiter of each client. It starts when a throttling error is received, at DECREASE_FACTOR times
+    // the rate the requests were sent at, and is cut by the same factor for each further throttling error. Each
+    // successful response raises the rate so that it grows by about INCREASE_PER_SECOND requests per second, every
+    // second. The limiter stops once no throttling error was received for RESET_MS
+    public static final double RATE_LIMITER_DECREASE_FACTOR = 0.7;
+    public static final double RATE_LIMITER_INCREASE_PER_SECOND = 2;
+    public static final double RATE_LIMITER_MIN_RATE = 1;
+    public static final long RATE_LIMITER_RESET_MS = 10000;
+}
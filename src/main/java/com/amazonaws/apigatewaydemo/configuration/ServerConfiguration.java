@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the LocalServer, the embedded HTTP front end used to run the actions outside of AWS
+ * Lambda and Amazon API Gateway
+ */
+public class ServerConfiguration {
+    // Port the server listens on. Set the SERVER_PORT environment variable, or the server.port system property, to
+    // override it
+    public static final int PORT = ConfigurationHelper.getInt("SERVER_PORT", "server.port", 8080);
+    // Number of threads running requests concurrently. Set the SERVER_THREADS environment variable, or the
+    // server.threads system property, to override it
+    public static final int THREAD_POOL_SIZE = ConfigurationHelper.getInt("SERVER_THREADS", "server.threads", 64);
+    // Requests waiting for a thread, when the queue is full the connection thread runs the request itself and stops
+    // accepting new connections until it completes
+    public static final int QUEUE_SIZE = 1024;
+    // Connections waiting to be accepted by the server
+    public static final int BACKLOG = 1024;
+    // Time given to each request, returned by the getRemainingTimeInMillis method of the Lambda context. This matches
+    // the integration timeout of API Gateway
+    public static final long REQUEST_TIMEOUT_MS = 29 * 1000;
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+/**
+ * Configuration parameters for the login throttling. Each login attempt takes a token from the bucket of the
+ * username and from the bucket of the source IP address, attempts are rejected before the password is verified when
+ * either bucket is empty.
+ */
+public class ThrottleConfiguration {
+    // Set the LOGIN_THROTTLE_ENABLED environment variable, or the login.throttle.enabled system property, to false to
+    // disable the login throttling, for example in load tests that log the same user in repeatedly
+    public static final boolean LOGIN_THROTTLE_ENABLED = !"false".equalsIgnoreCase(System.getenv("LOGIN_THROTTLE_ENABLED") != null
+            ? System.getenv("LOGIN_THROTTLE_ENABLED") : System.getProperty("login.throttle.enabled"));
+    // Where the buckets are kept, InMemory for each container or DynamoDB to share them between containers. Set the
+    // LOGIN_THROTTLE_STORE environment variable to override it, values that are not in the enum are ignored
+    public static final String LOGIN_THROTTLE_STORE = ConfigurationHelper.getString("LOGIN_THROTTLE_STORE", null, "InMemory");
+
+    // Attempts allowed in a burst for a single username, and how many are given back every minute
+    public static final int USERNAME_CAPACITY = 5;
+    public static final int USERNAME_REFILL_PER_MINUTE = 5;
+    // Attempts allowed in a burst from a single source IP address, and how many are given back every minute
+    public static final int SOURCE_CAPACITY = 30;
+    public static final int SOURCE_REFILL_PER_MINUTE = 60;
+    // Bucket shared by the login attempts that arrive without a source IP address, for example direct invocations of
+    // the function, so that leaving the address out does not bypass the limit
+    public static final String UNKNOWN_SOURCE = "unknown";
+    // Seconds a rejected client is asked to wait, the time the slowest bucket takes to give back an attempt. This is the
+    // value of the Retry-After header of the 429 responses in the Swagger file, update it there as well
+    public static final int RETRY_AFTER_SECONDS = 60 / Math.min(USERNAME_REFILL_PER_MINUTE, SOURCE_REFILL_PER_MINUTE);
+
+    // Maximum number of buckets kept by the in-memory store, the least recently used buckets are dropped first
+    public static final int IN_MEMORY_MAX_KEYS = 10000;
+    // Number of times the DynamoDB store retries a bucket update that lost a race with another container
+    public static final int DYNAMODB_MAX_ATTEMPTS = 3;
+}
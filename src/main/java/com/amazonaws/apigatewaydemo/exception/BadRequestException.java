@@ -25,4 +25,15 @@ public class BadRequestException extends Exception {
     public BadRequestException(String s) {
         super(PREFIX + s);
     }
+
+    /**
+     * Used by the subclasses that are mapped to their own status code and therefore need a different prefix
+     *
+     * @param prefix The prefix matched by the API Gateway
+     * @param s      The error message
+     * @param e      The cause, may be null
+     */
+    protected BadRequestException(String prefix, String s, Exception e) {
+        super(prefix + s, e);
+    }
 }
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.exception;
+
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+
+/**
+ * Thrown when the time Lambda leaves to the invocation is spent before the action completes. The message is distinct
+ * from the other internal errors, "INT_ERROR: Request deadline exceeded", so that it can be told apart in the logs and
+ * in the API Gateway mapping.
+ */
+public class DeadlineExceededException extends InternalErrorException {
+    public DeadlineExceededException(Exception e) {
+        super(ExceptionMessages.EX_DEADLINE, e);
+    }
+
+    public DeadlineExceededException() {
+        super(ExceptionMessages.EX_DEADLINE);
+    }
+}
@@ -27,4 +27,15 @@ public class InternalErrorException extends Exception {
     public InternalErrorException(String s) {
         super(PREFIX + s);
     }
+
+    /**
+     * Used by the subclasses that are mapped to their own status code and therefore need a different prefix
+     *
+     * @param prefix The prefix matched by the API Gateway
+     * @param s      The error message
+     * @param e      The cause, may be null
+     */
+    protected InternalErrorException(String prefix, String s, Exception e) {
+        super(prefix + s, e);
+    }
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.exception;
+
+/**
+ * Thrown by the DAO objects when a page token sent by the client cannot be decoded or does not match the data store.
+ * Actions should report it to the client as a bad request.
+ */
+public class InvalidPageTokenException extends DAOException {
+    public InvalidPageTokenException(String s, Exception e) {
+        super(s, e);
+    }
+
+    public InvalidPageTokenException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.exception;
+
+/**
+ * Thrown by a credentials provider that does not call its identity service because the service is failing, for
+ * example while the circuit breaker of the CognitoCredentialsProvider is open. Actions should report it to the client
+ * as a ServiceUnavailableException so that the request is retried later.
+ */
+public class ProviderUnavailableException extends AuthorizationException {
+    public ProviderUnavailableException(String s, Exception e) {
+        super(s, e);
+    }
+
+    public ProviderUnavailableException(String s) {
+        super(s);
+    }
+}
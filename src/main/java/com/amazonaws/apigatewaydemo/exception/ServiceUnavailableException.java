@@ -0,0 +1,30 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.exception;
+
+/**
+ * Thrown when a service the action depends on is known to be unavailable and the action fails fast instead of waiting
+ * for it. The request can be retried later. The exception sets the "UNAVAILABLE: .*" pattern, mapped to a 503 status
+ * code by the API Gateway, instead of the "INT_ERROR: .*" pattern of the other internal errors.
+ */
+public class ServiceUnavailableException extends InternalErrorException {
+    private static final String PREFIX = "UNAVAILABLE: ";
+
+    public ServiceUnavailableException(String s, Exception e) {
+        super(PREFIX, s, e);
+    }
+
+    public ServiceUnavailableException(String s) {
+        super(PREFIX, s, null);
+    }
+}
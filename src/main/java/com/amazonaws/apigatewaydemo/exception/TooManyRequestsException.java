@@ -0,0 +1,26 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.exception;
+
+/**
+ * Thrown when a client sent more requests than it is allowed to, for example too many login attempts. The request can
+ * be sent again later. The exception sets the "THROTTLED: .*" pattern, mapped to a 429 status code with a Retry-After
+ * header by the API Gateway, instead of the "BAD_REQ: .*" pattern of the other invalid requests.
+ */
+public class TooManyRequestsException extends BadRequestException {
+    private static final String PREFIX = "THROTTLED: ";
+
+    public TooManyRequestsException(String s) {
+        super(PREFIX, s, null);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+import com.amazonaws.apigatewaydemo.configuration.ExecutorConfiguration;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the thread pool actions use to run independent steps, such as a data store call and a Cognito call,
+ * concurrently. The pool is bounded and shared by the whole container. When its queue is full the task runs on the
+ * submitting thread, so an action never fails because the pool is busy.
+ * <p/>
+ * The pool is separate from the one used by the BatchRequestRouter: a batch entry can wait for its own steps without
+ * holding a thread the steps need.
+ */
+public class ActionExecutor {
+    private static final ExecutorService executor = new ThreadPoolExecutor(
+            ExecutorConfiguration.ACTION_THREAD_POOL_SIZE,
+            ExecutorConfiguration.ACTION_THREAD_POOL_SIZE,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(ExecutorConfiguration.ACTION_QUEUE_SIZE),
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "action-worker-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy()) {
+        public void execute(Runnable command) {
+            // steps are recorded against the metrics of the action that submitted them and share its deadline
+            super.execute(Deadline.propagate(Metrics.propagate(command)));
+        }
+    };
+
+    protected ActionExecutor() {
+        // static holder, should not be instantiated
+    }
+
+    /**
+     * Returns the shared executor
+     *
+     * @return The initialized ExecutorService
+     */
+    public static ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Cancels a set of tasks, interrupting the ones that are running. Tasks that already completed are not affected.
+     *
+     * @param tasks The futures of the tasks to cancel
+     */
+    public static void cancelAll(Future<?>... tasks) {
+        for (Future<?> task : tasks) {
+            if (task != null) {
+                task.cancel(true);
+            }
+        }
+    }
+}
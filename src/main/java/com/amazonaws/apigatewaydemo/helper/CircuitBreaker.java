@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+import com.amazonaws.apigatewaydemo.metrics.Counter;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for the calls to a remote service. While the circuit is closed the calls go through and the
+ * consecutive failures are counted. Once they reach the threshold the circuit opens and the calls are rejected without
+ * reaching the service, so that callers fail fast instead of waiting for a service that is down. After the open
+ * period a limited number of probe calls are let through (half-open): the circuit closes when one succeeds and opens
+ * again when one fails.
+ * <p/>
+ * Callers ask for permission with tryAcquire and then report the outcome of the call with onSuccess, onFailure or,
+ * when the call was not sent, release. The transitions and rejected calls are counted in the metrics of the running
+ * action, under the phase of the breaker.
+ */
+public class CircuitBreaker {
+    /**
+     * The states of the circuit
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final Phase phase;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private int probesInFlight;
+
+    /**
+     * Creates a closed circuit breaker
+     *
+     * @param phase            The phase the calls are recorded against in the metrics
+     * @param failureThreshold The number of consecutive failures that opens the circuit
+     * @param openMillis       How long the circuit stays open before probe calls are let through, in milliseconds
+     * @param halfOpenProbes   The number of probe calls allowed at the same time while half-open
+     */
+    public CircuitBreaker(Phase phase, int failureThreshold, long openMillis, int halfOpenProbes) {
+        this.phase = phase;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * Asks for permission to make a call. Each call allowed must be followed by a call to onSuccess, onFailure or
+     * release.
+     *
+     * @return false if the call should fail fast without reaching the service
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            transition(State.HALF_OPEN);
+        }
+
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (probesInFlight < halfOpenProbes) {
+                    probesInFlight++;
+                    return true;
+                }
+                break;
+            default:
+                break;
+        }
+
+        Metrics.count(phase, Counter.CIRCUIT_REJECTED);
+        return false;
+    }
+
+    /**
+     * Reports a successful call, the service answered
+     */
+    public synchronized void onSuccess() {
+        failures = 0;
+        if (state == State.HALF_OPEN) {
+            probesInFlight = 0;
+            transition(State.CLOSED);
+        }
+    }
+
+    /**
+     * Reports a failed call, the service returned an error or could not be reached
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = 0;
+            open();
+        } else if (state == State.CLOSED && ++failures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Reports a call that was allowed but not sent, it does not change the state of the circuit
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    /**
+     * Returns the state of the circuit
+     *
+     * @return The current state
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        failures = 0;
+        openedAt = System.nanoTime();
+        transition(State.OPEN);
+    }
+
+    private void transition(State next) {
+        state = next;
+        switch (next) {
+            case OPEN:
+                Metrics.count(phase, Counter.CIRCUIT_OPENED);
+                break;
+            case HALF_OPEN:
+                Metrics.count(phase, Counter.CIRCUIT_HALF_OPENED);
+                break;
+            default:
+                Metrics.count(phase, Counter.CIRCUIT_CLOSED);
+                break;
+        }
+    }
+}
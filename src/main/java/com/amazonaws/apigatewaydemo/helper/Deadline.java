@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+import com.amazonaws.apigatewaydemo.configuration.DeadlineConfiguration;
+import com.amazonaws.apigatewaydemo.exception.DeadlineExceededException;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time by which a request must be answered. The deadline is created by the RequestRouter from the time
+ * Lambda leaves to the invocation and attached to the thread running the action, like the action metrics, so that
+ * the DAO objects and credentials providers called by the action, and the SDK clients they use, can read it without
+ * it being passed to each method.
+ * <p/>
+ * The DynamoDB and Cognito clients refuse to start a request, or to retry one, once less than
+ * DeadlineConfiguration.MIN_REQUEST_BUDGET_MS is left, and the action then fails with a DeadlineExceededException.
+ */
+public class Deadline {
+    /**
+     * Deadline of the calls made outside of a request, or of a request without a time limit, for example when the
+     * router is called by a test
+     */
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<Deadline>();
+
+    private final long expiresAt;
+    private final boolean bounded;
+
+    private Deadline(long expiresAt, boolean bounded) {
+        this.expiresAt = expiresAt;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Creates the deadline of an invocation: the remaining time of the Lambda function minus the time kept to write
+     * the response, DeadlineConfiguration.RESPONSE_MARGIN_MS
+     *
+     * @param context The Lambda Context object
+     * @return The deadline, NONE if the context does not report a remaining time
+     */
+    public static Deadline fromContext(Context context) {
+        long remaining = context.getRemainingTimeInMillis();
+        if (remaining <= 0) {
+            return NONE;
+        }
+        return after(remaining - DeadlineConfiguration.RESPONSE_MARGIN_MS);
+    }
+
+    /**
+     * Creates a deadline a number of milliseconds from now
+     *
+     * @param millis The time until the deadline, in milliseconds
+     * @return The deadline
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis), true);
+    }
+
+    /**
+     * Returns the time left before the deadline
+     *
+     * @return The remaining time in milliseconds, negative once the deadline has passed, Long.MAX_VALUE for NONE
+     */
+    public long remaining() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(expiresAt - System.nanoTime());
+    }
+
+    /**
+     * Whether a request can still be started, that is whether at least DeadlineConfiguration.MIN_REQUEST_BUDGET_MS
+     * is left before the deadline
+     *
+     * @return true if a request can be started
+     */
+    public boolean hasBudget() {
+        return hasBudget(0);
+    }
+
+    /**
+     * Whether a request can still be started after a delay, for example the backoff before a retry
+     *
+     * @param delayMillis The delay before the request, in milliseconds
+     * @return true if at least DeadlineConfiguration.MIN_REQUEST_BUDGET_MS is left after the delay
+     */
+    public boolean hasBudget(long delayMillis) {
+        return !bounded || remaining() - delayMillis >= DeadlineConfiguration.MIN_REQUEST_BUDGET_MS;
+    }
+
+    /**
+     * Caps a timeout to the time left before the deadline
+     *
+     * @param timeoutMillis The timeout, in milliseconds
+     * @return The smallest of the timeout and the remaining time, never negative
+     */
+    public long bound(long timeoutMillis) {
+        return Math.max(0, Math.min(timeoutMillis, remaining()));
+    }
+
+    /**
+     * Fails fast when a request can no longer be started
+     *
+     * @throws DeadlineExceededException If less than DeadlineConfiguration.MIN_REQUEST_BUDGET_MS is left
+     */
+    public void check() throws DeadlineExceededException {
+        if (!hasBudget()) {
+            throw new DeadlineExceededException();
+        }
+    }
+
+    /**
+     * Returns the deadline attached to the current thread
+     *
+     * @return The deadline of the request being handled, NONE if the thread is not running an action
+     */
+    public static Deadline current() {
+        Deadline deadline = current.get();
+        return deadline == null ? NONE : deadline;
+    }
+
+    /**
+     * Attaches a deadline to the current thread, until the matching call to exit
+     *
+     * @param deadline The deadline of the request
+     * @return The deadline previously attached to the thread, to pass to exit
+     */
+    public static Deadline enter(Deadline deadline) {
+        Deadline previous = current.get();
+        current.set(deadline);
+        return previous;
+    }
+
+    /**
+     * Restores the deadline attached to the current thread before the call to enter
+     *
+     * @param previous The value returned by enter
+     */
+    public static void exit(Deadline previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    /**
+     * Wraps a task so that it runs with the deadline attached to the current thread
+     *
+     * @param task The task to submit to an executor
+     * @return The wrapped task, or the task itself if the current thread has no deadline
+     */
+    public static Runnable propagate(final Runnable task) {
+        final Deadline deadline = current.get();
+        if (deadline == null) {
+            return task;
+        }
+
+        return new Runnable() {
+            public void run() {
+                Deadline previous = enter(deadline);
+                try {
+                    task.run();
+                } finally {
+                    exit(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread-safe cache with a time to live for each entry. When the cache is full the least recently used
+ * entry is evicted. Null values can be stored to remember that a key does not exist (negative caching).
+ * <p/>
+ * The cache keeps counters for hits, misses and evictions, evictions include both entries removed because the cache
+ * was full and entries that expired.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class ExpiringCache<K, V> {
+    private final int maxSize;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a new cache
+     *
+     * @param maxSize The maximum number of entries in the cache
+     */
+    public ExpiringCache(int maxSize) {
+        this.maxSize = maxSize;
+        // access ordered so that the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ExpiringCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up a key in the cache
+     *
+     * @param key The key to look for
+     * @return The cache entry, null if the key is not in the cache or the entry expired. The value of the entry is
+     * null for negative results.
+     */
+    public Entry<V> get(K key) {
+        return get(key, System.currentTimeMillis());
+    }
+
+    /**
+     * Looks up a key in the cache at the given time
+     *
+     * @param key The key to look for
+     * @param now The current time in milliseconds
+     * @return The cache entry, null if the key is not in the cache or the entry expired
+     */
+    public synchronized Entry<V> get(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (entry.isExpired(now)) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Stores a value in the cache
+     *
+     * @param key        The key
+     * @param value      The value, null to cache a negative result
+     * @param timeToLive The time to live of the entry in milliseconds
+     */
+    public void put(K key, V value, long timeToLive) {
+        putUntil(key, value, System.currentTimeMillis() + timeToLive);
+    }
+
+    /**
+     * Stores a value in the cache with an absolute expiration time
+     *
+     * @param key       The key
+     * @param value     The value, null to cache a negative result
+     * @param expiresAt The expiration time of the entry in milliseconds since the epoch
+     */
+    public synchronized void putUntil(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<V>(value, expiresAt));
+    }
+
+    /**
+     * Removes a key from the cache
+     *
+     * @param key The key to be removed
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all entries from the cache
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * A value stored in the cache with its expiration time
+     *
+     * @param <V> The value type
+     */
+    public static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+import com.amazonaws.apigatewaydemo.exception.InvalidPageTokenException;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.util.BinaryUtils;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts the LastEvaluatedKey of a DynamoDB scan or query into an opaque page token that can be sent to the client,
+ * and back into an ExclusiveStartKey. The token is the key attributes as a JSON object, hex encoded so that it can be
+ * passed as a query string parameter without escaping.
+ * <p/>
+ * Only string key attributes are supported, which covers the keys of the tables used by this application.
+ */
+public class PageTokenHelper {
+    protected PageTokenHelper() {
+        // static helper, should not be instantiated
+    }
+
+    /**
+     * Encodes a DynamoDB key into a page token
+     *
+     * @param key The LastEvaluatedKey of a scan or query, null or empty when there are no more results
+     * @return The page token, null if the key is null or empty
+     */
+    public static String encode(Map<String, AttributeValue> key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, AttributeValue> attribute : key.entrySet()) {
+            if (attribute.getValue().getS() == null) {
+                throw new IllegalArgumentException("Key attribute " + attribute.getKey() + " is not a string");
+            }
+            json.addProperty(attribute.getKey(), attribute.getValue().getS());
+        }
+
+        return BinaryUtils.toHex(json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a page token into a DynamoDB key
+     *
+     * @param token The page token generated by the encode method
+     * @return The key to be used as ExclusiveStartKey
+     * @throws InvalidPageTokenException If the token is not a valid page token
+     */
+    public static Map<String, AttributeValue> decode(String token) throws InvalidPageTokenException {
+        if (token.length() % 2 != 0) {
+            throw new InvalidPageTokenException("Page token has an odd length");
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.digit(token.charAt(i), 16) < 0) {
+                throw new InvalidPageTokenException("Page token is not hex encoded");
+            }
+        }
+
+        JsonElement json;
+        try {
+            json = new JsonParser().parse(new String(BinaryUtils.fromHex(token), StandardCharsets.UTF_8));
+        } catch (final JsonParseException e) {
+            throw new InvalidPageTokenException("Cannot decode page token", e);
+        }
+
+        if (!json.isJsonObject() || json.getAsJsonObject().entrySet().isEmpty()) {
+            throw new InvalidPageTokenException("Page token is not a key");
+        }
+
+        Map<String, AttributeValue> key = new HashMap<String, AttributeValue>();
+        for (Map.Entry<String, JsonElement> attribute : json.getAsJsonObject().entrySet()) {
+            if (!attribute.getValue().isJsonPrimitive() || !attribute.getValue().getAsJsonPrimitive().isString()) {
+                throw new InvalidPageTokenException("Page token attribute " + attribute.getKey() + " is not a string");
+            }
+            key.put(attribute.getKey(), new AttributeValue().withS(attribute.getValue().getAsString()));
+        }
+        return key;
+    }
+}
@@ -12,23 +12,42 @@
  */
 package com.amazonaws.apigatewaydemo.helper;
 
+import com.amazonaws.apigatewaydemo.configuration.PasswordConfiguration;
+
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Simple helper to encrypt passwords using a randomly generated salt. Each password uses its own salt and it should
- * be saved in the data store with the user.
+ * be saved in the data store with the user, together with the PasswordSpec it was encrypted with.
+ * <p/>
+ * New passwords are encrypted with the parameters in the PasswordConfiguration class. The methods that don't take a
+ * PasswordSpec use the legacy parameters of the users created before the specification was stored.
  * <p/>
  * See Jeremiah Orr article on DZone for an in-depth explanation and example: https://dzone.com/articles/secure-password-storage-lots
  */
 public class PasswordHelper {
+    // Iterations used to time the key derivation function when calibrating
+    private static final int CALIBRATION_SAMPLE_ITERATIONS = 10000;
+    private static final int CALIBRATION_ROUNDS = 5;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    // SecretKeyFactory instances are not thread-safe, each thread keeps its own instance per algorithm
+    private static final ThreadLocal<Map<String, SecretKeyFactory>> keyFactories = new ThreadLocal<Map<String, SecretKeyFactory>>() {
+        protected Map<String, SecretKeyFactory> initialValue() {
+            return new HashMap<String, SecretKeyFactory>();
+        }
+    };
+
     /**
-     * Verifies a login attempt against a password from the data store
+     * Verifies a login attempt against a password from the data store encrypted with the legacy parameters
      *
      * @param attemptedPassword The unencrypted password used by the user when logging into the service
      * @param encryptedPassword The encrypted password from the data store
@@ -39,17 +58,33 @@ public class PasswordHelper {
      */
     public static boolean authenticate(String attemptedPassword, byte[] encryptedPassword, byte[] salt)
             throws NoSuchAlgorithmException, InvalidKeySpecException {
-        // Encrypt the clear-text password using the same salt that was used to
+        return authenticate(attemptedPassword, encryptedPassword, salt, PasswordSpec.LEGACY);
+    }
+
+    /**
+     * Verifies a login attempt against a password from the data store
+     *
+     * @param attemptedPassword The unencrypted password used by the user when logging into the service
+     * @param encryptedPassword The encrypted password from the data store
+     * @param salt              The salt for the encrypted password from the data store
+     * @param spec              The parameters the password was encrypted with
+     * @return True if the passwords match, false otherwise.
+     * @throws NoSuchAlgorithmException
+     * @throws InvalidKeySpecException
+     */
+    public static boolean authenticate(String attemptedPassword, byte[] encryptedPassword, byte[] salt, PasswordSpec spec)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
+        // Encrypt the clear-text password using the same salt and parameters that were used to
         // encrypt the original password
-        byte[] encryptedAttemptedPassword = getEncryptedPassword(attemptedPassword, salt);
+        byte[] encryptedAttemptedPassword = getEncryptedPassword(attemptedPassword, salt, spec);
 
         // Authentication succeeds if encrypted password that the user entered
-        // is equal to the stored hash
-        return Arrays.equals(encryptedPassword, encryptedAttemptedPassword);
+        // is equal to the stored hash. The comparison time doesn't depend on where the hashes differ
+        return MessageDigest.isEqual(encryptedPassword, encryptedAttemptedPassword);
     }
 
     /**
-     * Encrypts the given password with a salt
+     * Encrypts the given password with a salt using the legacy parameters
      *
      * @param password The password string to be encrypted
      * @param salt     A randomly generated salt for the password encryption
@@ -59,31 +94,134 @@ public class PasswordHelper {
      */
     public static byte[] getEncryptedPassword(String password, byte[] salt)
             throws NoSuchAlgorithmException, InvalidKeySpecException {
-        String algorithm = "PBKDF2WithHmacSHA1";
-        int derivedKeyLength = 160;
-        // The NIST recommends at least 1,000 iterations:
-        // http://csrc.nist.gov/publications/nistpubs/800-132/nist-sp800-132.pdf
-        int iterations = 20000;
-
-        KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, derivedKeyLength);
-
-        SecretKeyFactory f = SecretKeyFactory.getInstance(algorithm);
+        return getEncryptedPassword(password, salt, PasswordSpec.LEGACY);
+    }
 
-        return f.generateSecret(spec).getEncoded();
+    /**
+     * Encrypts the given password with a salt
+     *
+     * @param password The password string to be encrypted
+     * @param salt     A randomly generated salt for the password encryption
+     * @param spec     The algorithm, iterations and key length to use
+     * @return The byte[] containing the encrypted password
+     * @throws NoSuchAlgorithmException
+     * @throws InvalidKeySpecException
+     */
+    public static byte[] getEncryptedPassword(String password, byte[] salt, PasswordSpec spec)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
+        PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), salt, spec.getIterations(), spec.getKeyLength());
+        try {
+            return getKeyFactory(spec.getAlgorithm()).generateSecret(keySpec).getEncoded();
+        } finally {
+            keySpec.clearPassword();
+        }
     }
 
     /**
-     * Generates a random 8 byte salt using the SecureRandom with the SHA1PRNG
+     * Generates a random 8 byte salt for the legacy parameters
      *
      * @return The generated salt
      * @throws NoSuchAlgorithmException
      */
     public static byte[] generateSalt() throws NoSuchAlgorithmException {
-        SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+        return generateSalt(PasswordSpec.LEGACY);
+    }
 
-        byte[] salt = new byte[8];
+    /**
+     * Generates a random salt of the length in the given specification
+     *
+     * @param spec The parameters the salt is generated for
+     * @return The generated salt
+     */
+    public static byte[] generateSalt(PasswordSpec spec) {
+        byte[] salt = new byte[spec.getSaltLength()];
         random.nextBytes(salt);
 
         return salt;
     }
+
+    /**
+     * Returns the parameters used to encrypt new passwords
+     *
+     * @return The current PasswordSpec
+     */
+    public static PasswordSpec getCurrentSpec() {
+        return CurrentSpecHolder.spec;
+    }
+
+    /**
+     * Whether a password encrypted with the given parameters should be encrypted again with the current ones
+     *
+     * @param spec The parameters stored with the user
+     * @return True if the stored parameters are weaker than the current ones
+     */
+    public static boolean needsRehash(PasswordSpec spec) {
+        return spec.isWeakerThan(getCurrentSpec());
+    }
+
+    /**
+     * Measures the key derivation function on the current hardware and returns the number of iterations that takes
+     * about the target time. The result is rounded down to a multiple of the CALIBRATION_STEP and is never lower than
+     * MIN_ITERATIONS, both declared in the PasswordConfiguration class.
+     *
+     * @param algorithm    The key derivation function
+     * @param saltLength   The length of the salt in bytes
+     * @param keyLength    The length of the derived key in bits
+     * @param targetMillis The target time for a single hash in milliseconds
+     * @return The number of iterations
+     * @throws NoSuchAlgorithmException
+     * @throws InvalidKeySpecException
+     */
+    public static int calibrate(String algorithm, int saltLength, int keyLength, long targetMillis)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
+        PasswordSpec sample = new PasswordSpec(algorithm, CALIBRATION_SAMPLE_ITERATIONS, saltLength, keyLength);
+        byte[] salt = generateSalt(sample);
+
+        // the first rounds warm up the JIT, the fastest of the following rounds is the least disturbed measure
+        getEncryptedPassword("calibration", salt, sample);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            getEncryptedPassword("calibration", salt, sample);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        double nanosPerIteration = (double) fastest / CALIBRATION_SAMPLE_ITERATIONS;
+        long iterations = (long) (targetMillis * 1000000L / nanosPerIteration);
+        iterations -= iterations % PasswordConfiguration.CALIBRATION_STEP;
+
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(PasswordConfiguration.MIN_ITERATIONS, iterations));
+    }
+
+    private static SecretKeyFactory getKeyFactory(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, SecretKeyFactory> factories = keyFactories.get();
+        SecretKeyFactory factory = factories.get(algorithm);
+        if (factory == null) {
+            factory = SecretKeyFactory.getInstance(algorithm);
+            factories.put(algorithm, factory);
+        }
+        return factory;
+    }
+
+    /**
+     * Creates the current PasswordSpec the first time it is requested, calibrating the iterations if a target time is
+     * configured
+     */
+    private static class CurrentSpecHolder {
+        private static final PasswordSpec spec = createCurrentSpec();
+
+        private static PasswordSpec createCurrentSpec() {
+            int iterations = PasswordConfiguration.ITERATIONS;
+            if (PasswordConfiguration.CALIBRATION_TARGET_MS > 0) {
+                try {
+                    iterations = calibrate(PasswordConfiguration.ALGORITHM, PasswordConfiguration.SALT_LENGTH,
+                            PasswordConfiguration.KEY_LENGTH, PasswordConfiguration.CALIBRATION_TARGET_MS);
+                } catch (final NoSuchAlgorithmException | InvalidKeySpecException e) {
+                    // the same error is reported by the first hash, keep the configured iterations
+                }
+            }
+            return new PasswordSpec(PasswordConfiguration.ALGORITHM, iterations,
+                    PasswordConfiguration.SALT_LENGTH, PasswordConfiguration.KEY_LENGTH);
+        }
+    }
 }
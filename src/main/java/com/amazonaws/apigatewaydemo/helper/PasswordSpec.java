@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+/**
+ * The parameters a password hash was generated with. The specification is stored with each user as a string in the
+ * format algorithm:iterations:saltLength:keyLength. Users created before the format was introduced have no
+ * specification and use the LEGACY parameters.
+ */
+public class PasswordSpec {
+    public static final PasswordSpec LEGACY = new PasswordSpec("PBKDF2WithHmacSHA1", 20000, 8, 160);
+
+    private static final String SEPARATOR = ":";
+
+    private final String algorithm;
+    private final int iterations;
+    private final int saltLength;
+    private final int keyLength;
+
+    public PasswordSpec(String algorithm, int iterations, int saltLength, int keyLength) {
+        this.algorithm = algorithm;
+        this.iterations = iterations;
+        this.saltLength = saltLength;
+        this.keyLength = keyLength;
+    }
+
+    /**
+     * Parses a specification stored with a user
+     *
+     * @param value The stored specification, null for the legacy parameters
+     * @return The parsed PasswordSpec
+     * @throws IllegalArgumentException If the value is not a valid specification
+     */
+    public static PasswordSpec parse(String value) {
+        if (value == null || value.trim().equals("")) {
+            return LEGACY;
+        }
+
+        String[] parts = value.split(SEPARATOR);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid password specification " + value);
+        }
+        try {
+            return new PasswordSpec(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid password specification " + value, e);
+        }
+    }
+
+    /**
+     * Returns the specification in the format stored with the user
+     *
+     * @return The formatted specification
+     */
+    public String format() {
+        return algorithm + SEPARATOR + iterations + SEPARATOR + saltLength + SEPARATOR + keyLength;
+    }
+
+    /**
+     * Whether a hash generated with this specification is weaker than one generated with another specification. A
+     * different algorithm is always considered weaker so that changing the algorithm rehashes every password.
+     *
+     * @param other The specification to compare with
+     * @return True if the password should be hashed again with the other specification
+     */
+    public boolean isWeakerThan(PasswordSpec other) {
+        return !algorithm.equals(other.algorithm)
+                || iterations < other.iterations
+                || saltLength < other.saltLength
+                || keyLength < other.keyLength;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getSaltLength() {
+        return saltLength;
+    }
+
+    public int getKeyLength() {
+        return keyLength;
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PasswordSpec)) {
+            return false;
+        }
+        PasswordSpec other = (PasswordSpec) o;
+        return algorithm.equals(other.algorithm)
+                && iterations == other.iterations
+                && saltLength == other.saltLength
+                && keyLength == other.keyLength;
+    }
+
+    public int hashCode() {
+        return format().hashCode();
+    }
+
+    public String toString() {
+        return format();
+    }
+}
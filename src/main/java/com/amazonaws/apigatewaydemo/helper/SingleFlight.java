@@ -0,0 +1,170 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces concurrent calls for the same key into a single call. The first caller for a key runs the loader on its
+ * own thread, the callers that arrive while it is in flight wait for it and receive the same value, or the same
+ * exception. Nothing is kept once the call completes, the next caller for the key runs the loader again: values are
+ * only shared by callers that overlap in time.
+ * <p/>
+ * Waiters give up after the configured timeout with a TimeoutException, the call itself is not interrupted and
+ * completes for its own caller.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ * @param <E> The checked exception thrown by the loader
+ */
+public class SingleFlight<K, V, E extends Exception> {
+    /**
+     * Loads the value of a key
+     *
+     * @param <V> The value type
+     * @param <E> The checked exception thrown by the loader
+     */
+    public interface Loader<V, E extends Exception> {
+        V load() throws E;
+    }
+
+    private final ConcurrentMap<K, Call<V>> calls = new ConcurrentHashMap<K, Call<V>>();
+    private final Class<E> exceptionType;
+    private final long waitTimeout;
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    /**
+     * Creates a new SingleFlight
+     *
+     * @param exceptionType The checked exception thrown by the loaders, rethrown to the waiters
+     * @param waitTimeout   How long a caller waits for a call in flight, in milliseconds
+     */
+    public SingleFlight(Class<E> exceptionType, long waitTimeout) {
+        this.exceptionType = exceptionType;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Returns the value of a key, from the call already in flight for the key if there is one
+     *
+     * @param key    The key, must not be null
+     * @param loader The loader to run if no call is in flight for the key
+     * @return The value returned by the loader
+     * @throws E                    The exception thrown by the loader
+     * @throws TimeoutException     If the call in flight did not complete within the wait timeout
+     * @throws InterruptedException If the thread was interrupted while waiting for the call in flight
+     */
+    public V execute(K key, Loader<V, E> loader) throws E, TimeoutException, InterruptedException {
+        return execute(key, loader, waitTimeout);
+    }
+
+    /**
+     * Returns the value of a key, waiting at most the given time for the call in flight for the key if there is one
+     *
+     * @param key         The key, must not be null
+     * @param loader      The loader to run if no call is in flight for the key
+     * @param waitTimeout How long to wait for a call in flight, in milliseconds, instead of the configured timeout
+     * @return The value returned by the loader
+     * @throws E                    The exception thrown by the loader
+     * @throws TimeoutException     If the call in flight did not complete within the wait timeout
+     * @throws InterruptedException If the thread was interrupted while waiting for the call in flight
+     */
+    public V execute(K key, Loader<V, E> loader, long waitTimeout) throws E, TimeoutException, InterruptedException {
+        Call<V> call = new Call<V>();
+        Call<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            shared.incrementAndGet();
+            return await(inFlight, waitTimeout);
+        }
+
+        executions.incrementAndGet();
+        try {
+            V value = loader.load();
+            call.value = value;
+            return value;
+        } catch (final Throwable t) {
+            call.failure = t;
+            throw t;
+        } finally {
+            // removed before the waiters are released, callers arriving from now on start a new call
+            calls.remove(key, call);
+            call.done.countDown();
+        }
+    }
+
+    private V await(Call<V> call, long waitTimeout) throws E, TimeoutException, InterruptedException {
+        if (!call.done.await(waitTimeout, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Call in flight did not complete in " + waitTimeout + "ms");
+        }
+
+        Throwable failure = call.failure;
+        if (failure == null) {
+            return call.value;
+        }
+        if (exceptionType.isInstance(failure)) {
+            throw exceptionType.cast(failure);
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        // the loader can only throw E or unchecked exceptions
+        throw new IllegalStateException(failure);
+    }
+
+    /**
+     * Returns the number of calls in flight
+     *
+     * @return The number of keys being loaded
+     */
+    public int size() {
+        return calls.size();
+    }
+
+    /**
+     * Returns the number of times a loader was run
+     *
+     * @return The number of calls
+     */
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    /**
+     * Returns the number of callers that shared the result of a call in flight instead of running their loader
+     *
+     * @return The number of coalesced callers
+     */
+    public long getShared() {
+        return shared.get();
+    }
+
+    /**
+     * A call in flight. The value and failure are written before the latch is released and read after it, the latch
+     * makes them visible to the waiters
+     */
+    private static class Call<V> {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private V value;
+        private Throwable failure;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.local;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import java.util.UUID;
+
+/**
+ * The Lambda Context of a request handled by the LocalServer. The remaining time counts down from the request timeout
+ * declared in the ServerConfiguration class, log messages are written to the standard output.
+ */
+public class LocalContext implements Context {
+    private static final LambdaLogger STDOUT_LOGGER = new LambdaLogger() {
+        public void log(String message) {
+            System.out.println(message);
+        }
+    };
+
+    private final String requestId = UUID.randomUUID().toString();
+    private final long deadline;
+
+    /**
+     * Creates the context of a new request
+     *
+     * @param timeoutMillis Time given to the request
+     */
+    public LocalContext(long timeoutMillis) {
+        this.deadline = System.currentTimeMillis() + timeoutMillis;
+    }
+
+    public String getAwsRequestId() {
+        return requestId;
+    }
+
+    public String getLogGroupName() {
+        return null;
+    }
+
+    public String getLogStreamName() {
+        return null;
+    }
+
+    public String getFunctionName() {
+        return "local";
+    }
+
+    public CognitoIdentity getIdentity() {
+        return null;
+    }
+
+    public ClientContext getClientContext() {
+        return null;
+    }
+
+    public int getRemainingTimeInMillis() {
+        return (int) Math.max(0, deadline - System.currentTimeMillis());
+    }
+
+    public int getMemoryLimitInMB() {
+        return (int) (Runtime.getRuntime().maxMemory() / (1024 * 1024));
+    }
+
+    public LambdaLogger getLogger() {
+        return STDOUT_LOGGER;
+    }
+}
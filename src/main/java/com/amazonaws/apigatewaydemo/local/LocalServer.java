@@ -0,0 +1,360 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.local;
+
+import com.amazonaws.apigatewaydemo.RequestRouter;
+import com.amazonaws.apigatewaydemo.configuration.CognitoConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ServerConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ThrottleConfiguration;
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.exception.ServiceUnavailableException;
+import com.amazonaws.apigatewaydemo.exception.TooManyRequestsException;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An embedded HTTP server that runs the RequestRouter as a long-lived service, for load tests and local development.
+ * Each request is turned into the same "action" and "body" event the mapping templates in the swagger.yaml file
+ * produce, the router is then invoked on a bounded thread pool:
+ * <p/>
+ * POST /users, POST /login, POST /pets, GET /pets, POST /pets/batch-get, POST /pets/batch-create, GET /pets/{petId}
+ * and POST /batch
+ * <p/>
+ * Errors are mapped to status codes with the same "BAD.*", "THROTTLED.*", "INT.*" and "UNAVAILABLE.*" patterns used by API Gateway. Unless they are
+ * configured otherwise through their environment variables or system properties, the server uses the InMemory DAOs and
+ * the Local credentials provider so that it runs without an AWS account.
+ */
+public class LocalServer {
+    private static final String REGISTER_ACTION = "com.amazonaws.apigatewaydemo.action.RegisterDemoAction";
+    private static final String LOGIN_ACTION = "com.amazonaws.apigatewaydemo.action.LoginDemoAction";
+    private static final String CREATE_PET_ACTION = "com.amazonaws.apigatewaydemo.action.CreatePetDemoAction";
+    private static final String LIST_PETS_ACTION = "com.amazonaws.apigatewaydemo.action.ListPetsDemoAction";
+    private static final String GET_PET_ACTION = "com.amazonaws.apigatewaydemo.action.GetPetDemoAction";
+    private static final String BATCH_GET_PETS_ACTION = "com.amazonaws.apigatewaydemo.action.BatchGetPetsDemoAction";
+    private static final String BATCH_CREATE_PETS_ACTION = "com.amazonaws.apigatewaydemo.action.BatchCreatePetsDemoAction";
+
+    private static final String PETS_PATH = "/pets";
+    private static final int STATUS_OK = 200;
+    private static final int STATUS_BAD_REQUEST = 400;
+    private static final int STATUS_NOT_FOUND = 404;
+    private static final int STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+    private static final int STATUS_INTERNAL_ERROR = 500;
+    private static final int STATUS_UNAVAILABLE = 503;
+    // same value as the Retry-After header of the 503 responses in the Swagger file, the open period of the Cognito
+    // circuit breaker
+    private static final String RETRY_AFTER_SECONDS = Long.toString((CognitoConfiguration.CIRCUIT_OPEN_MS + 999) / 1000);
+
+    private static final Gson gson = new Gson();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Starts the server on the port given as the first argument, or the port declared in the ServerConfiguration class
+     *
+     * @param args The optional port number
+     * @throws IOException If the server cannot listen on the port
+     */
+    public static void main(String[] args) throws IOException {
+        // the defaults must be set before the factories read their configuration
+        setDefault("DAO_TYPE", "dao.type", "InMemory");
+        setDefault("CREDENTIALS_PROVIDER", "credentials.provider", "Local");
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : ServerConfiguration.PORT;
+        LocalServer server = new LocalServer(port, ServerConfiguration.THREAD_POOL_SIZE);
+        server.start();
+        System.out.println("Secure Pet Store listening on port " + server.getPort());
+    }
+
+    /**
+     * Creates a server, requests are not accepted until start is called
+     *
+     * @param port        The port to listen on, 0 to pick a free port
+     * @param threadCount The number of requests handled concurrently
+     * @throws IOException If the server cannot listen on the port
+     */
+    public LocalServer(int port, int threadCount) throws IOException {
+        executor = new ThreadPoolExecutor(
+                threadCount,
+                threadCount,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(ServerConfiguration.QUEUE_SIZE),
+                new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "server-worker-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        server = HttpServer.create(new InetSocketAddress(port), ServerConfiguration.BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    route(exchange);
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts accepting requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits for the running requests for up to the given delay and stops the thread pool
+     *
+     * @param delaySeconds The maximum time to wait for the running requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the port the server listens on
+     *
+     * @return The local port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        JsonObject event;
+        try {
+            if ("/users".equals(path)) {
+                requireMethod(exchange, "POST");
+                event = event(REGISTER_ACTION, readBody(exchange));
+            } else if ("/login".equals(path)) {
+                requireMethod(exchange, "POST");
+                event = event(LOGIN_ACTION, loginBody(exchange));
+            } else if (PETS_PATH.equals(path) && "GET".equals(method)) {
+                event = event(LIST_PETS_ACTION, listPetsBody(exchange));
+            } else if (PETS_PATH.equals(path)) {
+                requireMethod(exchange, "POST");
+                event = event(CREATE_PET_ACTION, readBody(exchange));
+            } else if ((PETS_PATH + "/batch-get").equals(path)) {
+                requireMethod(exchange, "POST");
+                event = event(BATCH_GET_PETS_ACTION, readBody(exchange));
+            } else if ((PETS_PATH + "/batch-create").equals(path)) {
+                requireMethod(exchange, "POST");
+                event = event(BATCH_CREATE_PETS_ACTION, readBody(exchange));
+            } else if (path.startsWith(PETS_PATH + "/") && path.indexOf('/', PETS_PATH.length() + 1) < 0) {
+                requireMethod(exchange, "GET");
+                event = event(GET_PET_ACTION, getPetBody(exchange, path.substring(PETS_PATH.length() + 1)));
+            } else if ("/batch".equals(path)) {
+                requireMethod(exchange, "POST");
+                invoke(exchange, toBytes(readBody(exchange)));
+                return;
+            } else {
+                sendError(exchange, STATUS_NOT_FOUND, "Not found");
+                return;
+            }
+        } catch (final MethodNotAllowedException e) {
+            sendError(exchange, STATUS_METHOD_NOT_ALLOWED, "Method not allowed");
+            return;
+        } catch (final JsonParseException e) {
+            sendError(exchange, STATUS_BAD_REQUEST, new BadRequestException("Invalid JSON in request body").getMessage());
+            return;
+        }
+
+        invoke(exchange, toBytes(event));
+    }
+
+    private static void invoke(HttpExchange exchange, byte[] event) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        LocalContext context = new LocalContext(ServerConfiguration.REQUEST_TIMEOUT_MS);
+        try {
+            RequestRouter.lambdaHandler(new ByteArrayInputStream(event), response, context);
+        } catch (final TooManyRequestsException e) {
+            exchange.getResponseHeaders().set("Retry-After", Integer.toString(ThrottleConfiguration.RETRY_AFTER_SECONDS));
+            sendError(exchange, STATUS_TOO_MANY_REQUESTS, e.getMessage());
+            return;
+        } catch (final BadRequestException e) {
+            sendError(exchange, STATUS_BAD_REQUEST, e.getMessage());
+            return;
+        } catch (final ServiceUnavailableException e) {
+            exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+            sendError(exchange, STATUS_UNAVAILABLE, e.getMessage());
+            return;
+        } catch (final InternalErrorException e) {
+            sendError(exchange, STATUS_INTERNAL_ERROR, e.getMessage());
+            return;
+        } catch (final RuntimeException e) {
+            context.getLogger().log("Unhandled error\n" + e);
+            sendError(exchange, STATUS_INTERNAL_ERROR, new InternalErrorException(String.valueOf(e.getMessage())).getMessage());
+            return;
+        }
+
+        send(exchange, STATUS_OK, response.toByteArray());
+    }
+
+    /**
+     * Equivalent of the login mapping template: only the username and password are taken from the body, the source IP
+     * is the address of the client
+     */
+    private static JsonObject loginBody(HttpExchange exchange) throws IOException {
+        JsonElement request = readBody(exchange);
+        JsonObject body = new JsonObject();
+        body.add("username", property(request, "username"));
+        body.add("password", property(request, "password"));
+        body.addProperty("sourceIp", exchange.getRemoteAddress().getAddress().getHostAddress());
+        return body;
+    }
+
+    /**
+     * Equivalent of the list pets mapping template: the query string parameters are passed as strings, missing
+     * parameters are empty strings
+     */
+    private static JsonObject listPetsBody(HttpExchange exchange) throws UnsupportedEncodingException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        JsonObject body = new JsonObject();
+        body.addProperty("petType", query.containsKey("type") ? query.get("type") : "");
+        body.addProperty("pageToken", query.containsKey("pageToken") ? query.get("pageToken") : "");
+        body.addProperty("limit", query.containsKey("limit") ? query.get("limit") : "");
+        body.addProperty("fields", query.containsKey("fields") ? query.get("fields") : "");
+        return body;
+    }
+
+    /**
+     * Equivalent of the get pet mapping template: the petId comes from the path and the fields from the query string
+     */
+    private static JsonObject getPetBody(HttpExchange exchange, String petId) throws UnsupportedEncodingException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        JsonObject body = new JsonObject();
+        body.addProperty("petId", petId);
+        body.addProperty("fields", query.containsKey("fields") ? query.get("fields") : "");
+        return body;
+    }
+
+    private static JsonObject event(String action, JsonElement body) {
+        JsonObject event = new JsonObject();
+        event.add("action", new JsonPrimitive(action));
+        event.add("body", body);
+        return event;
+    }
+
+    private static JsonElement readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            JsonElement element = new JsonParser().parse(new InputStreamReader(body, StandardCharsets.UTF_8));
+            // like $input.json('$'), an empty body is an empty object
+            return element.isJsonNull() ? new JsonObject() : element;
+        }
+    }
+
+    private static JsonElement property(JsonElement element, String name) {
+        if (element.isJsonObject() && element.getAsJsonObject().has(name)) {
+            return element.getAsJsonObject().get(name);
+        }
+        return JsonNull.INSTANCE;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return parameters;
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) throws MethodNotAllowedException {
+        if (!method.equals(exchange.getRequestMethod())) {
+            throw new MethodNotAllowedException();
+        }
+    }
+
+    private static byte[] toBytes(JsonElement event) {
+        return gson.toJson(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonObject error = new JsonObject();
+        error.addProperty("errorMessage", message);
+        send(exchange, status, toBytes(error));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    private static void setDefault(String variable, String property, String value) {
+        if (System.getenv(variable) == null && System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    /**
+     * Thrown when a path does not accept the method of the request
+     */
+    private static class MethodNotAllowedException extends Exception {
+    }
+}
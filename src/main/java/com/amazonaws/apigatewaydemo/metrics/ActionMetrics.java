@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.metrics;
+
+import com.amazonaws.apigatewaydemo.configuration.MetricsConfiguration;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The latency histograms, error counters and request counters of one action. An instance is shared by all the invocations of the action
+ * in the container, recording into it does not allocate.
+ */
+public class ActionMetrics {
+    private static final Phase[] PHASES = Phase.values();
+    private static final ErrorType[] ERROR_TYPES = ErrorType.values();
+    private static final Counter[] COUNTERS = Counter.values();
+
+    private final String actionName;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[PHASES.length];
+    private final AtomicLongArray errors = new AtomicLongArray(ERROR_TYPES.length);
+    private final AtomicLongArray counters = new AtomicLongArray(PHASES.length * COUNTERS.length);
+
+    ActionMetrics(String actionName) {
+        this.actionName = actionName;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Returns the name of the action in the metrics log lines
+     *
+     * @return The action name
+     */
+    public String getActionName() {
+        return actionName;
+    }
+
+    /**
+     * Records the latency of a phase
+     *
+     * @param phase The phase
+     * @param nanos The latency in nanoseconds, as measured with System.nanoTime()
+     */
+    public void record(Phase phase, long nanos) {
+        if (!MetricsConfiguration.METRICS_ENABLED) {
+            return;
+        }
+        latencies[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Counts an error, exceptions that are not one of the ErrorType values are ignored
+     *
+     * @param error The exception thrown
+     */
+    public void recordError(Throwable error) {
+        if (!MetricsConfiguration.METRICS_ENABLED) {
+            return;
+        }
+        ErrorType type = ErrorType.of(error);
+        if (type != null) {
+            errors.incrementAndGet(type.ordinal());
+        }
+    }
+
+    /**
+     * Counts an event of the requests made during a phase, for example a retry of a DynamoDB request
+     *
+     * @param phase   The phase the request was made in
+     * @param counter The event
+     */
+    public void count(Phase phase, Counter counter) {
+        if (!MetricsConfiguration.METRICS_ENABLED) {
+            return;
+        }
+        counters.incrementAndGet(phase.ordinal() * COUNTERS.length + counter.ordinal());
+    }
+
+    /**
+     * Writes the latencies, errors and counters recorded since the previous call as the properties of a JSON object
+     * and resets them. Phases, error types and counters without values are left out.
+     *
+     * @param writer The JsonWriter, positioned inside an object
+     * @return false if nothing was recorded since the previous call
+     * @throws IOException If the properties cannot be written
+     */
+    boolean drainTo(JsonWriter writer) throws IOException {
+        boolean recorded = false;
+
+        writer.name("latency").beginObject();
+        for (Phase phase : PHASES) {
+            LatencyHistogram.Snapshot snapshot = latencies[phase.ordinal()].drain();
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            recorded = true;
+            writer.name(phase.getMetricName()).beginObject()
+                    .name("count").value(snapshot.getCount())
+                    .name("sum").value(snapshot.getSum())
+                    .name("max").value(snapshot.getMax())
+                    .name("p50").value(snapshot.getPercentile(50))
+                    .name("p90").value(snapshot.getPercentile(90))
+                    .name("p99").value(snapshot.getPercentile(99))
+                    .endObject();
+        }
+        writer.endObject();
+
+        writer.name("errors").beginObject();
+        for (ErrorType type : ERROR_TYPES) {
+            long count = errors.getAndSet(type.ordinal(), 0);
+            if (count > 0) {
+                recorded = true;
+                writer.name(type.getMetricName()).value(count);
+            }
+        }
+        writer.endObject();
+
+        writer.name("counters").beginObject();
+        for (Phase phase : PHASES) {
+            int offset = phase.ordinal() * COUNTERS.length;
+            boolean counted = false;
+            for (Counter counter : COUNTERS) {
+                long count = counters.getAndSet(offset + counter.ordinal(), 0);
+                if (count == 0) {
+                    continue;
+                }
+                if (!counted) {
+                    counted = true;
+                    writer.name(phase.getMetricName()).beginObject();
+                }
+                writer.name(counter.getMetricName()).value(count);
+            }
+            if (counted) {
+                recorded = true;
+                writer.endObject();
+            }
+        }
+        writer.endObject();
+
+        return recorded;
+    }
+}
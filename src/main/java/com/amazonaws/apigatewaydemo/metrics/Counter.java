@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.metrics;
+
+/**
+ * The events counted for the DynamoDB and Cognito requests made by an action, reported for each phase. The circuit
+ * breaker transitions are counted against the action whose call caused them.
+ */
+public enum Counter {
+    /**
+     * A failed request was retried
+     */
+    RETRY("retries"),
+    /**
+     * A request failed with a throttling error
+     */
+    THROTTLED("throttled"),
+    /**
+     * A failed request was not retried because the retry budget of the client was empty
+     */
+    RETRY_DENIED("retriesDenied"),
+    /**
+     * A request was delayed by the client-side rate limiter
+     */
+    RATE_LIMITED("rateLimited"),
+    /**
+     * A call failed fast because the circuit breaker of the service was open
+     */
+    CIRCUIT_REJECTED("circuitRejected"),
+    /**
+     * The circuit breaker of the service opened, after too many failures or a failed probe
+     */
+    CIRCUIT_OPENED("circuitOpened"),
+    /**
+     * The circuit breaker of the service let a probe call through after being open
+     */
+    CIRCUIT_HALF_OPENED("circuitHalfOpened"),
+    /**
+     * The circuit breaker of the service closed after a successful probe
+     */
+    CIRCUIT_CLOSED("circuitClosed");
+
+    private final String metricName;
+
+    Counter(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Returns the name of the counter in the metrics log lines
+     *
+     * @return The metric name
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.metrics;
+
+import java.util.Map;
+
+/**
+ * A component shared by the actions of the container that counts its own events, for example the hits and misses of
+ * a cache. Sources registered with the Metrics class are written to the function log with the action metrics.
+ */
+public interface CounterSource {
+    /**
+     * Returns the current value of each counter
+     *
+     * @return The counters by name, counted since the source was created
+     */
+    Map<String, Long> getCounters();
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.metrics;
+
+import com.amazonaws.apigatewaydemo.exception.AuthorizationException;
+import com.amazonaws.apigatewaydemo.exception.BadRequestException;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.exception.DeadlineExceededException;
+import com.amazonaws.apigatewaydemo.exception.InternalErrorException;
+import com.amazonaws.apigatewaydemo.exception.ServiceUnavailableException;
+import com.amazonaws.apigatewaydemo.exception.TooManyRequestsException;
+
+/**
+ * The exception types counted by the metrics. Subclasses are counted with their parent type, for example an
+ * InvalidPageTokenException is counted as a DAOException. DeadlineExceededException and ServiceUnavailableException
+ * are counted on their own rather than with the other internal errors, and TooManyRequestsException rather than with
+ * the other bad requests.
+ */
+public enum ErrorType {
+    BadRequest(BadRequestException.class),
+    TooManyRequests(TooManyRequestsException.class),
+    DeadlineExceeded(DeadlineExceededException.class),
+    ServiceUnavailable(ServiceUnavailableException.class),
+    InternalError(InternalErrorException.class),
+    DAO(DAOException.class),
+    Authorization(AuthorizationException.class);
+
+    private final Class<? extends Exception> exceptionClass;
+
+    ErrorType(Class<? extends Exception> exceptionClass) {
+        this.exceptionClass = exceptionClass;
+    }
+
+    /**
+     * Returns the name of the error type in the metrics log lines, the simple name of the exception class
+     *
+     * @return The metric name
+     */
+    public String getMetricName() {
+        return exceptionClass.getSimpleName();
+    }
+
+    /**
+     * Returns the error type of an exception
+     *
+     * @param error The exception
+     * @return The error type, null if the exception is not one of the counted types
+     */
+    public static ErrorType of(Throwable error) {
+        if (error instanceof TooManyRequestsException) {
+            return TooManyRequests;
+        } else if (error instanceof BadRequestException) {
+            return BadRequest;
+        } else if (error instanceof DeadlineExceededException) {
+            return DeadlineExceeded;
+        } else if (error instanceof ServiceUnavailableException) {
+            return ServiceUnavailable;
+        } else if (error instanceof InternalErrorException) {
+            return InternalError;
+        } else if (error instanceof DAOException) {
+            return DAO;
+        } else if (error instanceof AuthorizationException) {
+            return Authorization;
+        }
+        return null;
+    }
+}
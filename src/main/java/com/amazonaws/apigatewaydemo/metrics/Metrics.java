@@ -0,0 +1,291 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.metrics;
+
+import com.amazonaws.apigatewaydemo.action.DemoActionAdapter;
+import com.amazonaws.apigatewaydemo.action.StreamingDemoAction;
+import com.amazonaws.apigatewaydemo.configuration.MetricsConfiguration;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the ActionMetrics of the container. The metrics recorded since the previous invocation are written to
+ * the function log once per invocation, as one JSON line per action:
+ * <p/>
+ * {"namespace":"SecurePetStore","requestId":"...","action":"GetPetDemoAction","unit":"us",
+ * "latency":{"total":{"count":1,"sum":812,"max":812,"p50":812,"p90":812,"p99":812},...},"errors":{"DAOException":1},
+ * "counters":{"dao":{"retries":2,"throttled":2}}}
+ * <p/>
+ * The ActionMetrics of the running action is attached to the current thread so that the data store and credentials
+ * provider calls are recorded against it. Tasks submitted to the ActionExecutor inherit it from the submitting thread.
+ * <p/>
+ * The counters of the registered CounterSource components, such as the caches, are written after the actions as one
+ * line per source with the increase of each counter since the previous invocation:
+ * <p/>
+ * {"namespace":"SecurePetStore","requestId":"...","source":"petCache","counters":{"hits":12,"misses":1}}
+ */
+public class Metrics {
+    /**
+     * Name of the metrics for the events that fail before an action is found
+     */
+    public static final String ROUTER_METRICS_NAME = "RequestRouter";
+    /**
+     * Name of the metrics for the batch events as a whole, the entries are recorded against their own actions
+     */
+    public static final String BATCH_METRICS_NAME = "Batch";
+
+    private static final ConcurrentMap<String, ActionMetrics> metricsByName = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<StreamingDemoAction<?>, ActionMetrics> metricsByAction = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, SourceMetrics> sources = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ActionMetrics> current = new ThreadLocal<>();
+
+    protected Metrics() {
+        // static registry, should not be instantiated
+    }
+
+    /**
+     * Returns the metrics of an action, named after the class of the action
+     *
+     * @param action The action instance from the ActionRegistry
+     * @return The shared ActionMetrics of the action
+     */
+    public static ActionMetrics getActionMetrics(StreamingDemoAction<?> action) {
+        ActionMetrics actionMetrics = metricsByAction.get(action);
+        if (actionMetrics == null) {
+            // the class name is only computed once per action instance
+            Class<?> actionClass = action instanceof DemoActionAdapter
+                    ? ((DemoActionAdapter) action).getAction().getClass()
+                    : action.getClass();
+            actionMetrics = getActionMetrics(actionClass.getSimpleName());
+            metricsByAction.putIfAbsent(action, actionMetrics);
+        }
+        return actionMetrics;
+    }
+
+    /**
+     * Returns the metrics registered under a name
+     *
+     * @param name The name of the metrics in the log lines
+     * @return The shared ActionMetrics
+     */
+    public static ActionMetrics getActionMetrics(String name) {
+        ActionMetrics actionMetrics = metricsByName.get(name);
+        if (actionMetrics == null) {
+            actionMetrics = new ActionMetrics(name);
+            ActionMetrics existing = metricsByName.putIfAbsent(name, actionMetrics);
+            if (existing != null) {
+                actionMetrics = existing;
+            }
+        }
+        return actionMetrics;
+    }
+
+    /**
+     * Registers a component whose counters are written to the log with the action metrics
+     *
+     * @param name   The name of the source in the log lines, for example petCache
+     * @param source The component
+     * @param <T>    The type of the component
+     * @return The component, so that it can be registered where it is created
+     */
+    public static <T extends CounterSource> T register(String name, T source) {
+        sources.put(name, new SourceMetrics(name, source));
+        return source;
+    }
+
+    /**
+     * Attaches metrics to the current thread
+     *
+     * @param actionMetrics The metrics of the action running on the thread
+     * @return The metrics previously attached to the thread, to be passed back to exit
+     */
+    public static ActionMetrics enter(ActionMetrics actionMetrics) {
+        ActionMetrics previous = current.get();
+        current.set(actionMetrics);
+        return previous;
+    }
+
+    /**
+     * Restores the metrics attached to the current thread before the call to enter
+     *
+     * @param previous The value returned by enter
+     */
+    public static void exit(ActionMetrics previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    /**
+     * Records a latency against the metrics attached to the current thread. Nothing is recorded when the thread is not
+     * running an action.
+     *
+     * @param phase The phase
+     * @param nanos The latency in nanoseconds, as measured with System.nanoTime()
+     */
+    public static void record(Phase phase, long nanos) {
+        ActionMetrics actionMetrics = current.get();
+        if (actionMetrics != null) {
+            actionMetrics.record(phase, nanos);
+        }
+    }
+
+    /**
+     * Counts an error against the metrics attached to the current thread
+     *
+     * @param error The exception thrown
+     */
+    public static void recordError(Throwable error) {
+        ActionMetrics actionMetrics = current.get();
+        if (actionMetrics != null) {
+            actionMetrics.recordError(error);
+        }
+    }
+
+    /**
+     * Counts an event of a request made by the action running on the current thread. Nothing is counted when the thread
+     * is not running an action.
+     *
+     * @param phase   The phase the request is made in
+     * @param counter The event
+     */
+    public static void count(Phase phase, Counter counter) {
+        ActionMetrics actionMetrics = current.get();
+        if (actionMetrics != null) {
+            actionMetrics.count(phase, counter);
+        }
+    }
+
+    /**
+     * Wraps a task so that it runs with the metrics attached to the current thread
+     *
+     * @param task The task to submit to an executor
+     * @return The wrapped task, or the task itself if the current thread is not running an action
+     */
+    public static Runnable propagate(final Runnable task) {
+        final ActionMetrics actionMetrics = current.get();
+        if (actionMetrics == null) {
+            return task;
+        }
+
+        return new Runnable() {
+            public void run() {
+                ActionMetrics previous = enter(actionMetrics);
+                try {
+                    task.run();
+                } finally {
+                    exit(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes the metrics recorded since the previous call to the log, one line per action and per counter source, and
+     * resets them
+     *
+     * @param logger    The Lambda logger
+     * @param requestId The id of the invocation, included in each line
+     */
+    public static void flush(LambdaLogger logger, String requestId) {
+        if (!MetricsConfiguration.METRICS_ENABLED) {
+            return;
+        }
+
+        for (ActionMetrics actionMetrics : metricsByName.values()) {
+            try {
+                StringWriter line = new StringWriter();
+                JsonWriter writer = new JsonWriter(line);
+                writer.beginObject()
+                        .name("namespace").value(MetricsConfiguration.METRICS_NAMESPACE)
+                        .name("requestId").value(requestId)
+                        .name("action").value(actionMetrics.getActionName())
+                        .name("unit").value("us");
+                boolean recorded = actionMetrics.drainTo(writer);
+                writer.endObject().flush();
+
+                if (recorded) {
+                    logger.log(line.toString());
+                }
+            } catch (final IOException e) {
+                logger.log("Error while writing metrics\n" + e.getMessage());
+            }
+        }
+
+        for (SourceMetrics sourceMetrics : sources.values()) {
+            try {
+                StringWriter line = new StringWriter();
+                JsonWriter writer = new JsonWriter(line);
+                writer.beginObject()
+                        .name("namespace").value(MetricsConfiguration.METRICS_NAMESPACE)
+                        .name("requestId").value(requestId)
+                        .name("source").value(sourceMetrics.name);
+                boolean recorded = sourceMetrics.drainTo(writer);
+                writer.endObject().flush();
+
+                if (recorded) {
+                    logger.log(line.toString());
+                }
+            } catch (final IOException e) {
+                logger.log("Error while writing metrics\n" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A registered CounterSource with the values of its counters at the previous flush
+     */
+    private static class SourceMetrics {
+        private final String name;
+        private final CounterSource source;
+        private final Map<String, Long> previous = new HashMap<>();
+
+        private SourceMetrics(String name, CounterSource source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        /**
+         * Writes the increase of each counter since the previous call, counters that did not change are left out
+         *
+         * @param writer The JsonWriter, positioned inside an object
+         * @return false if no counter changed since the previous call
+         * @throws IOException If the counters cannot be written
+         */
+        private synchronized boolean drainTo(JsonWriter writer) throws IOException {
+            boolean recorded = false;
+
+            writer.name("counters").beginObject();
+            for (Map.Entry<String, Long> counter : source.getCounters().entrySet()) {
+                Long last = previous.put(counter.getKey(), counter.getValue());
+                long increase = counter.getValue() - (last == null ? 0 : last);
+                if (increase > 0) {
+                    recorded = true;
+                    writer.name(counter.getKey()).value(increase);
+                }
+            }
+            writer.endObject();
+
+            return recorded;
+        }
+    }
+}
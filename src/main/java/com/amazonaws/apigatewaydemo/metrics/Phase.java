@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.metrics;
+
+/**
+ * The phases of an invocation that have their own latency histogram
+ */
+public enum Phase {
+    /**
+     * The whole invocation, from the first byte of the event to the end of the response
+     */
+    TOTAL("total"),
+    /**
+     * Reading the event and binding the body to the request object
+     */
+    PARSE("parse"),
+    /**
+     * Running the action and writing its response
+     */
+    HANDLE("handle"),
+    /**
+     * Each call to the data store made by the action
+     */
+    DAO("dao"),
+    /**
+     * Each call to the credentials provider made by the action
+     */
+    COGNITO("cognito");
+
+    private final String metricName;
+
+    Phase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Returns the name of the phase in the metrics log lines
+     *
+     * @return The metric name
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
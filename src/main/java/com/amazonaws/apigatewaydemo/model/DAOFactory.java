@@ -12,9 +12,26 @@
  */
 package com.amazonaws.apigatewaydemo.model;
 
+import com.amazonaws.apigatewaydemo.configuration.CacheConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ConfigurationHelper;
+import com.amazonaws.apigatewaydemo.configuration.DAOConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.IdempotencyConfiguration;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+import com.amazonaws.apigatewaydemo.model.idempotency.CachingIdempotencyDAO;
+import com.amazonaws.apigatewaydemo.model.idempotency.DDBIdempotencyDAO;
+import com.amazonaws.apigatewaydemo.model.idempotency.IdempotencyDAO;
+import com.amazonaws.apigatewaydemo.model.idempotency.InMemoryIdempotencyDAO;
+import com.amazonaws.apigatewaydemo.model.idempotency.TimedIdempotencyDAO;
+import com.amazonaws.apigatewaydemo.model.pet.CachingPetDAO;
+import com.amazonaws.apigatewaydemo.model.pet.CoalescingPetDAO;
 import com.amazonaws.apigatewaydemo.model.pet.DDBPetDAO;
+import com.amazonaws.apigatewaydemo.model.pet.InMemoryPetDAO;
 import com.amazonaws.apigatewaydemo.model.pet.PetDAO;
+import com.amazonaws.apigatewaydemo.model.pet.TimedPetDAO;
+import com.amazonaws.apigatewaydemo.model.user.CoalescingUserDAO;
 import com.amazonaws.apigatewaydemo.model.user.DDBUserDAO;
+import com.amazonaws.apigatewaydemo.model.user.InMemoryUserDAO;
+import com.amazonaws.apigatewaydemo.model.user.TimedUserDAO;
 import com.amazonaws.apigatewaydemo.model.user.UserDAO;
 
 /**
@@ -22,19 +39,27 @@ import com.amazonaws.apigatewaydemo.model.user.UserDAO;
  */
 public class DAOFactory {
     /**
-     * Contains the implementations of the DAO objects. By default we only have a DynamoDB implementation
+     * Contains the implementations of the DAO objects. The DynamoDB implementation is the default, the InMemory
+     * implementation keeps the data in the JVM for local and load tests
      */
     public enum DAOType {
-        DynamoDB
+        DynamoDB,
+        InMemory
     }
 
+    /**
+     * The implementation returned by default, configured in the DAOConfiguration class. An unknown type falls back to
+     * DynamoDB rather than failing the initialization of the factory, and of every action in the container
+     */
+    public static final DAOType DEFAULT_TYPE = ConfigurationHelper.getEnum(DAOType.class, DAOConfiguration.DAO_TYPE, DAOType.DynamoDB);
+
     /**
      * Returns the default UserDAO object
      *
      * @return The default implementation of the UserDAO object - by default this is the DynamoDB implementation
      */
     public static UserDAO getUserDAO() {
-        return getUserDAO(DAOType.DynamoDB);
+        return getUserDAO(DEFAULT_TYPE);
     }
 
     /**
@@ -47,7 +72,10 @@ public class DAOFactory {
         UserDAO dao = null;
         switch (daoType) {
             case DynamoDB:
-                dao = DDBUserDAO.getInstance();
+                dao = DynamoDBUserDAOHolder.instance;
+                break;
+            case InMemory:
+                dao = InMemoryUserDAOHolder.instance;
                 break;
         }
 
@@ -57,10 +85,11 @@ public class DAOFactory {
     /**
      * Returns the default PetDAO implementation
      *
-     * @return The DynamoDB PetDAO implementation
+     * @return The default PetDAO implementation. The DynamoDB implementation is behind the per-container cache if it
+     * is enabled in the CacheConfiguration class
      */
     public static PetDAO getPetDAO() {
-        return getPetDAO(DAOType.DynamoDB);
+        return getPetDAO(DEFAULT_TYPE);
     }
 
     /**
@@ -73,10 +102,81 @@ public class DAOFactory {
         PetDAO dao = null;
         switch (daoType) {
             case DynamoDB:
-                dao = DDBPetDAO.getInstance();
+                dao = DynamoDBPetDAOHolder.instance;
+                break;
+            case InMemory:
+                dao = InMemoryPetDAOHolder.instance;
+                break;
+        }
+
+        return dao;
+    }
+
+    /**
+     * Returns the default IdempotencyDAO implementation
+     *
+     * @return The default IdempotencyDAO implementation. The DynamoDB implementation is behind the per-container cache
+     * if it is enabled in the IdempotencyConfiguration class
+     */
+    public static IdempotencyDAO getIdempotencyDAO() {
+        return getIdempotencyDAO(DEFAULT_TYPE);
+    }
+
+    /**
+     * Returns an IdempotencyDAO implementation
+     *
+     * @param daoType The implementation type
+     * @return The requested DAO implementation
+     */
+    public static IdempotencyDAO getIdempotencyDAO(DAOType daoType) {
+        IdempotencyDAO dao = null;
+        switch (daoType) {
+            case DynamoDB:
+                dao = DynamoDBIdempotencyDAOHolder.instance;
+                break;
+            case InMemory:
+                dao = InMemoryIdempotencyDAOHolder.instance;
                 break;
         }
 
         return dao;
     }
+
+    /**
+     * Lazily creates the DynamoDB PetDAO and its cache the first time they are requested. Calls are timed as the
+     * actions see them, cache hits included. Cache misses for the same pet are coalesced into a single read. The
+     * counters of the cache and of the coalescing are registered with the Metrics
+     */
+    private static class DynamoDBPetDAOHolder {
+        private static final PetDAO store = DAOConfiguration.COALESCING_ENABLED
+                ? Metrics.register("petCoalescing", new CoalescingPetDAO(DDBPetDAO.getInstance()))
+                : DDBPetDAO.getInstance();
+        private static final PetDAO instance = new TimedPetDAO(CacheConfiguration.PET_CACHE_ENABLED
+                ? Metrics.register("petCache", new CachingPetDAO(store))
+                : store);
+    }
+
+    private static class InMemoryPetDAOHolder {
+        private static final PetDAO instance = new TimedPetDAO(InMemoryPetDAO.getInstance());
+    }
+
+    private static class DynamoDBUserDAOHolder {
+        private static final UserDAO instance = new TimedUserDAO(DAOConfiguration.COALESCING_ENABLED
+                ? Metrics.register("userCoalescing", new CoalescingUserDAO(DDBUserDAO.getInstance()))
+                : DDBUserDAO.getInstance());
+    }
+
+    private static class InMemoryUserDAOHolder {
+        private static final UserDAO instance = new TimedUserDAO(InMemoryUserDAO.getInstance());
+    }
+
+    private static class DynamoDBIdempotencyDAOHolder {
+        private static final IdempotencyDAO instance = new TimedIdempotencyDAO(IdempotencyConfiguration.CACHE_ENABLED
+                ? Metrics.register("idempotencyCache", new CachingIdempotencyDAO(DDBIdempotencyDAO.getInstance()))
+                : DDBIdempotencyDAO.getInstance());
+    }
+
+    private static class InMemoryIdempotencyDAOHolder {
+        private static final IdempotencyDAO instance = new TimedIdempotencyDAO(InMemoryIdempotencyDAO.getInstance());
+    }
 }
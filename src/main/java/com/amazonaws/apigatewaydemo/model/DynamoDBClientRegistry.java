@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.apigatewaydemo.client.DeadlineRequestHandler;
+import com.amazonaws.apigatewaydemo.client.DeadlineRetryPolicy;
+import com.amazonaws.apigatewaydemo.client.RetryStrategy;
+import com.amazonaws.apigatewaydemo.configuration.DynamoDBConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.RetryConfiguration;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the DynamoDB client and mappers shared by all the DynamoDB DAO objects in the container. The client is created
+ * once, with the connection pool and timeouts declared in the DynamoDBConfiguration class, and a single DynamoDBMapper
+ * is kept for each mapper configuration. Both the client and the mappers are thread-safe.
+ * <p/>
+ * The client does not start a request, or a retry, that could not complete before the deadline of the action, see
+ * DeadlineRequestHandler and DeadlineRetryPolicy. Failed requests are retried by the RetryStrategy configured in the
+ * RetryConfiguration class.
+ * <p/>
+ * Credentials for the client come from the environment variables pre-configured by Lambda. These are tied to the
+ * Lambda function execution role.
+ */
+public class DynamoDBClientRegistry {
+    private static final RetryStrategy retryStrategy = new RetryStrategy(Phase.DAO, RetryConfiguration.DYNAMODB_BASE_DELAY_MS);
+
+    private static final AmazonDynamoDBClient client = createClient();
+
+    private static final ConcurrentMap<DynamoDBMapperConfig, DynamoDBMapper> mappers = new ConcurrentHashMap<DynamoDBMapperConfig, DynamoDBMapper>();
+
+    private static final DynamoDBMapper defaultMapper = getMapper(DynamoDBMapperConfig.DEFAULT);
+
+    protected DynamoDBClientRegistry() {
+        // static registry, should not be instantiated
+    }
+
+    /**
+     * Returns the shared DynamoDB client
+     *
+     * @return The initialized client
+     */
+    public static AmazonDynamoDBClient getClient() {
+        return client;
+    }
+
+    /**
+     * Returns the retry strategy of the shared client
+     *
+     * @return The RetryStrategy holding the retry budget and rate limiter of the client
+     */
+    public static RetryStrategy getRetryStrategy() {
+        return retryStrategy;
+    }
+
+    /**
+     * Returns the shared DynamoDBMapper with the default configuration
+     *
+     * @return An initialized DynamoDBMapper
+     */
+    public static DynamoDBMapper getMapper() {
+        return defaultMapper;
+    }
+
+    /**
+     * Returns the shared DynamoDBMapper for a mapper configuration. Mappers are cached by configuration instance, the
+     * configuration should therefore be a constant rather than created for each call.
+     *
+     * @param config The mapper configuration
+     * @return An initialized DynamoDBMapper using the shared client
+     */
+    public static DynamoDBMapper getMapper(DynamoDBMapperConfig config) {
+        DynamoDBMapper mapper = mappers.get(config);
+        if (mapper != null) {
+            return mapper;
+        }
+
+        mapper = new DynamoDBMapper(client, config);
+        DynamoDBMapper existing = mappers.putIfAbsent(config, mapper);
+        return existing == null ? mapper : existing;
+    }
+
+    private static AmazonDynamoDBClient createClient() {
+        AmazonDynamoDBClient dynamoClient = new AmazonDynamoDBClient(createClientConfiguration());
+        dynamoClient.addRequestHandler(new DeadlineRequestHandler());
+        dynamoClient.addRequestHandler(retryStrategy.getRequestHandler());
+        return dynamoClient;
+    }
+
+    private static ClientConfiguration createClientConfiguration() {
+        ClientConfiguration configuration = new ClientConfiguration();
+        configuration.setMaxConnections(DynamoDBConfiguration.MAX_CONNECTIONS);
+        configuration.setConnectionTimeout(DynamoDBConfiguration.CONNECTION_TIMEOUT_MS);
+        configuration.setSocketTimeout(DynamoDBConfiguration.SOCKET_TIMEOUT_MS);
+        configuration.setConnectionTTL(DynamoDBConfiguration.CONNECTION_TTL_MS);
+        configuration.setUseTcpKeepAlive(DynamoDBConfiguration.TCP_KEEP_ALIVE);
+        configuration.setRetryPolicy(DeadlineRetryPolicy.wrap(retryStrategy.getRetryPolicy()));
+        return configuration;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.action;
+
+import java.util.List;
+
+/**
+ * Bean for the batch create pets request, each pet has the same properties as a pet creation request
+ */
+public class BatchCreatePetsRequest {
+    private List<CreatePetRequest> pets;
+
+    public List<CreatePetRequest> getPets() {
+        return pets;
+    }
+
+    public void setPets(List<CreatePetRequest> pets) {
+        this.pets = pets;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.action;
+
+import com.amazonaws.apigatewaydemo.model.pet.Pet;
+
+/**
+ * Bean for the result of a single pet in a batch get or batch create response
+ */
+public class BatchPetResult {
+    /**
+     * The outcome for the pet. Unprocessed pets were not read or written within the retries and can be sent again in
+     * a new request.
+     */
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        CREATED,
+        UNPROCESSED
+    }
+
+    private String petId;
+    private Status status;
+    private Pet pet;
+
+    public String getPetId() {
+        return petId;
+    }
+
+    public void setPetId(String petId) {
+        this.petId = petId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Pet getPet() {
+        return pet;
+    }
+
+    public void setPet(Pet pet) {
+        this.pet = pet;
+    }
+}
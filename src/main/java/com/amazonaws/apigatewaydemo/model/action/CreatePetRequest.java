@@ -19,6 +19,7 @@ public class CreatePetRequest {
     private String petType;
     private String petName;
     private int petAge;
+    private String idempotencyKey;
 
     public String getPetType() {
         return petType;
@@ -43,4 +44,12 @@ public class CreatePetRequest {
     public void setPetAge(int petAge) {
         this.petAge = petAge;
     }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
 }
@@ -13,10 +13,12 @@
 package com.amazonaws.apigatewaydemo.model.action;
 
 /**
- * Bean for the get pet by id request.
+ * Bean for the get pet by id request. The optional fields property is a comma separated list of the Pet properties to
+ * return.
  */
 public class GetPetRequest {
     private String petId;
+    private String fields;
 
     public String getPetId() {
         return petId;
@@ -25,4 +27,12 @@ public class GetPetRequest {
     public void setPetId(String petId) {
         this.petId = petId;
     }
+
+    public String getFields() {
+        return fields;
+    }
+
+    public void setFields(String fields) {
+        this.fields = fields;
+    }
 }
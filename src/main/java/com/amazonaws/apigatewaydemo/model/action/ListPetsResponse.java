@@ -23,6 +23,7 @@ public class ListPetsResponse {
     private int count;
     private int pageLimit;
     private List<Pet> pets;
+    private String nextPageToken;
 
     public int getCount() {
         return count;
@@ -47,4 +48,12 @@ public class ListPetsResponse {
     public void setPets(List<Pet> pets) {
         this.pets = pets;
     }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public void setNextPageToken(String nextPageToken) {
+        this.nextPageToken = nextPageToken;
+    }
 }
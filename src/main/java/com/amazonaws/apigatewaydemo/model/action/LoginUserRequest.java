@@ -18,6 +18,7 @@ package com.amazonaws.apigatewaydemo.model.action;
 public class LoginUserRequest {
     private String username;
     private String password;
+    private String sourceIp;
 
     public String getUsername() {
         return username;
@@ -34,4 +35,17 @@ public class LoginUserRequest {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    /**
+     * The IP address the request was sent from. This is set by the mapping template in API Gateway, not by the client
+     *
+     * @return The source IP address, null if the request did not come through API Gateway
+     */
+    public String getSourceIp() {
+        return sourceIp;
+    }
+
+    public void setSourceIp(String sourceIp) {
+        this.sourceIp = sourceIp;
+    }
 }
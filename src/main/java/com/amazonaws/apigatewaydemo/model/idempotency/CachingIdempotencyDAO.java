@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.idempotency;
+
+import com.amazonaws.apigatewaydemo.configuration.IdempotencyConfiguration;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.helper.ExpiringCache;
+import com.amazonaws.apigatewaydemo.metrics.CounterSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache in front of another IdempotencyDAO implementation, so that a request sent again to the same container is
+ * answered without reading the data store. Records are never modified once written, they are kept for the CACHE_TTL_MS
+ * declared in the IdempotencyConfiguration class, and never past their own expiration. Keys that were not found are
+ * not cached, they are about to be recorded.
+ */
+public class CachingIdempotencyDAO implements IdempotencyDAO, CounterSource {
+    private final IdempotencyDAO delegate;
+    private final ExpiringCache<String, IdempotencyRecord> cache;
+
+    /**
+     * Creates a new cache in front of the given DAO
+     *
+     * @param delegate The IdempotencyDAO that reads and writes the data store
+     */
+    public CachingIdempotencyDAO(IdempotencyDAO delegate) {
+        this.delegate = delegate;
+        this.cache = new ExpiringCache<String, IdempotencyRecord>(IdempotencyConfiguration.CACHE_MAX_SIZE);
+    }
+
+    public IdempotencyRecord getRecord(String idempotencyKey, long now) throws DAOException {
+        ExpiringCache.Entry<IdempotencyRecord> entry = cache.get(idempotencyKey, now);
+        if (entry != null) {
+            return entry.getValue();
+        }
+
+        IdempotencyRecord record = delegate.getRecord(idempotencyKey, now);
+        cache(record, now);
+        return record;
+    }
+
+    /**
+     * Records the key through the underlying DAO and caches the record that won, whether it is the new record or the
+     * one that existed already
+     *
+     * @param record The record to be written
+     * @param now    The current time in milliseconds
+     * @return Null if the record was written, otherwise the existing record of the key
+     * @throws DAOException
+     */
+    public IdempotencyRecord putRecordIfAbsent(IdempotencyRecord record, long now) throws DAOException {
+        IdempotencyRecord existing = delegate.putRecordIfAbsent(record, now);
+        cache(existing == null ? record : existing, now);
+        return existing;
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the cache, written to the function log by the Metrics class
+     *
+     * @return The counters by name
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<String, Long>();
+        counters.put("hits", getHits());
+        counters.put("misses", getMisses());
+        counters.put("evictions", getEvictions());
+        return counters;
+    }
+
+    /**
+     * Returns the number of lookups served from the cache
+     *
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    /**
+     * Returns the number of lookups that had to go to the underlying DAO
+     *
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Returns the number of entries removed because the cache was full or because they expired
+     *
+     * @return The number of evictions
+     */
+    public long getEvictions() {
+        return cache.getEvictions();
+    }
+
+    private void cache(IdempotencyRecord record, long now) {
+        if (record != null) {
+            cache.putUntil(record.getIdempotencyKey(), record,
+                    Math.min(record.getExpiresAt(), now + IdempotencyConfiguration.CACHE_TTL_MS));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.idempotency;
+
+import com.amazonaws.apigatewaydemo.configuration.DynamoDBConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.IdempotencyConfiguration;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.model.DynamoDBClientRegistry;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ConditionalOperator;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the idempotency keys in a DynamoDB table so that a request sent again to another container is recognized. The
+ * table should be created with a Hash Key of type string called idempotencyKey, and the expiresAt attribute, in
+ * seconds since the epoch, should be set as the table's time to live attribute so that DynamoDB removes the expired
+ * keys.
+ * <p/>
+ * DynamoDB removes expired items some time after they expire, records are checked against their expiration time when
+ * they are read. A key is recorded with a conditional put that only succeeds when the key has no record or its
+ * record expired, so only one of the concurrent requests with the same key creates a pet.
+ * <p/>
+ * This class is a singleton and should only be accessed through the static getInstance method. The constructor is
+ * defined as protected.
+ */
+public class DDBIdempotencyDAO implements IdempotencyDAO {
+    private static final String KEY_ATTRIBUTE = "idempotencyKey";
+    private static final String PET_ID_ATTRIBUTE = "petId";
+    private static final String REQUEST_HASH_ATTRIBUTE = "requestHash";
+    private static final String EXPIRES_AT_ATTRIBUTE = "expiresAt";
+
+    private static DDBIdempotencyDAO instance = null;
+
+    /**
+     * Returns the initialized default instance of the IdempotencyDAO
+     *
+     * @return An initialized IdempotencyDAO instance
+     */
+    public static synchronized DDBIdempotencyDAO getInstance() {
+        if (instance == null) {
+            instance = new DDBIdempotencyDAO();
+        }
+
+        return instance;
+    }
+
+    protected DDBIdempotencyDAO() {
+        // constructor is protected so that it can't be called from the outside
+    }
+
+    /**
+     * Reads the record of a key with an eventually consistent read. A record written a moment ago by another container
+     * may not be returned yet, in which case the conditional put in putRecordIfAbsent still prevents a second pet.
+     *
+     * @param idempotencyKey The key to look for
+     * @param now            The current time in milliseconds
+     * @return The record, null if the key was never recorded or its record expired
+     * @throws DAOException
+     */
+    public IdempotencyRecord getRecord(String idempotencyKey, long now) throws DAOException {
+        return getRecord(idempotencyKey, now, false);
+    }
+
+    /**
+     * Records a key with a conditional put. When another request recorded the key first its record is read with a
+     * consistent read and returned. If that record expired in the meantime the put is attempted again, up to
+     * DYNAMODB_MAX_ATTEMPTS times.
+     *
+     * @param record The record to be written
+     * @param now    The current time in milliseconds
+     * @return Null if the record was written, otherwise the existing record of the key
+     * @throws DAOException If the key could not be recorded
+     */
+    public IdempotencyRecord putRecordIfAbsent(IdempotencyRecord record, long now) throws DAOException {
+        if (record.getIdempotencyKey() == null || record.getPetId() == null) {
+            throw new DAOException("Cannot record null idempotency key or petId");
+        }
+
+        Map<String, AttributeValue> item = new HashMap<String, AttributeValue>();
+        item.put(KEY_ATTRIBUTE, new AttributeValue().withS(record.getIdempotencyKey()));
+        item.put(PET_ID_ATTRIBUTE, new AttributeValue().withS(record.getPetId()));
+        item.put(REQUEST_HASH_ATTRIBUTE, new AttributeValue().withS(record.getRequestHash()));
+        item.put(EXPIRES_AT_ATTRIBUTE, new AttributeValue().withN(Long.toString(toEpochSeconds(record.getExpiresAt()))));
+
+        for (int attempt = 0; attempt < IdempotencyConfiguration.DYNAMODB_MAX_ATTEMPTS; attempt++) {
+            // the key was never recorded, or its record expired but was not removed by DynamoDB yet
+            Map<String, ExpectedAttributeValue> expected = new HashMap<String, ExpectedAttributeValue>();
+            expected.put(KEY_ATTRIBUTE, new ExpectedAttributeValue(false));
+            expected.put(EXPIRES_AT_ATTRIBUTE, new ExpectedAttributeValue()
+                    .withComparisonOperator(ComparisonOperator.LE)
+                    .withAttributeValueList(new AttributeValue().withN(Long.toString(now / 1000))));
+
+            try {
+                DynamoDBClientRegistry.getClient().putItem(new PutItemRequest()
+                        .withTableName(DynamoDBConfiguration.IDEMPOTENCY_TABLE_NAME)
+                        .withItem(item)
+                        .withExpected(expected)
+                        .withConditionalOperator(ConditionalOperator.OR));
+                return null;
+            } catch (final ConditionalCheckFailedException e) {
+                IdempotencyRecord existing = getRecord(record.getIdempotencyKey(), now, true);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+        }
+
+        throw new DAOException("Could not record idempotency key " + record.getIdempotencyKey());
+    }
+
+    private IdempotencyRecord getRecord(String idempotencyKey, long now, boolean consistentRead) throws DAOException {
+        if (idempotencyKey == null) {
+            throw new DAOException("Cannot lookup null idempotency key");
+        }
+
+        Map<String, AttributeValue> item = DynamoDBClientRegistry.getClient().getItem(new GetItemRequest()
+                .withTableName(DynamoDBConfiguration.IDEMPOTENCY_TABLE_NAME)
+                .withKey(toKey(idempotencyKey))
+                .withConsistentRead(consistentRead)).getItem();
+        if (item == null) {
+            return null;
+        }
+
+        IdempotencyRecord record = new IdempotencyRecord(idempotencyKey,
+                item.get(PET_ID_ATTRIBUTE).getS(),
+                item.get(REQUEST_HASH_ATTRIBUTE).getS(),
+                Long.parseLong(item.get(EXPIRES_AT_ATTRIBUTE).getN()) * 1000);
+
+        return record.isExpired(now) ? null : record;
+    }
+
+    private static Map<String, AttributeValue> toKey(String idempotencyKey) {
+        return Collections.singletonMap(KEY_ATTRIBUTE, new AttributeValue().withS(idempotencyKey));
+    }
+
+    private static long toEpochSeconds(long millis) {
+        // rounded up so that the record is never removed before it expires
+        return (millis + 999) / 1000;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.idempotency;
+
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+
+/**
+ * This interface defines where the idempotency keys of the CreatePet action are recorded. Implementations must record
+ * a key atomically, the same key may be sent by concurrent requests handled by different containers.
+ */
+public interface IdempotencyDAO {
+    /**
+     * Looks up the record of a key
+     *
+     * @param idempotencyKey The key to look for
+     * @param now            The current time in milliseconds
+     * @return The record, null if the key was never recorded or its record expired
+     * @throws DAOException Whenever an error occurs while accessing the data store
+     */
+    IdempotencyRecord getRecord(String idempotencyKey, long now) throws DAOException;
+
+    /**
+     * Records a key unless a record that has not expired already exists for it
+     *
+     * @param record The record to be written
+     * @param now    The current time in milliseconds
+     * @return Null if the record was written, otherwise the existing record of the key
+     * @throws DAOException Whenever an error occurs while accessing the data store
+     */
+    IdempotencyRecord putRecordIfAbsent(IdempotencyRecord record, long now) throws DAOException;
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.idempotency;
+
+/**
+ * An idempotency key recorded by the CreatePet action, with the petId created for it and a hash of the request so
+ * that a key sent again for a different pet can be rejected. Records are never modified once written.
+ */
+public class IdempotencyRecord {
+    private final String idempotencyKey;
+    private final String petId;
+    private final String requestHash;
+    private final long expiresAt;
+
+    /**
+     * Creates a new record
+     *
+     * @param idempotencyKey The key sent by the client
+     * @param petId          The petId of the pet created for the key
+     * @param requestHash    The hash of the request the key was first sent with
+     * @param expiresAt      The time at which the key is forgotten, in milliseconds since the epoch
+     */
+    public IdempotencyRecord(String idempotencyKey, String petId, String requestHash, long expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.petId = petId;
+        this.requestHash = requestHash;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getPetId() {
+        return petId;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
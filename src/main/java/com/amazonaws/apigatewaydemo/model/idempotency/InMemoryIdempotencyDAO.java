@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.idempotency;
+
+import com.amazonaws.apigatewaydemo.configuration.IdempotencyConfiguration;
+import com.amazonaws.apigatewaydemo.helper.ExpiringCache;
+
+/**
+ * In-memory implementation of the IdempotencyDAO interface, used for local and load tests in place of the DynamoDB
+ * table. Records are dropped when they expire, the number of records is bounded by the IN_MEMORY_MAX_KEYS declared in
+ * the IdempotencyConfiguration class and the least recently used ones are dropped first.
+ * <p/>
+ * The data lives as long as the container or JVM. This class is a singleton and should be accessed through the
+ * DAOFactory.
+ */
+public class InMemoryIdempotencyDAO implements IdempotencyDAO {
+    private static InMemoryIdempotencyDAO instance = null;
+
+    private final ExpiringCache<String, IdempotencyRecord> records =
+            new ExpiringCache<String, IdempotencyRecord>(IdempotencyConfiguration.IN_MEMORY_MAX_KEYS);
+
+    /**
+     * Returns the initialized default instance of the InMemoryIdempotencyDAO
+     *
+     * @return An initialized InMemoryIdempotencyDAO instance
+     */
+    public static synchronized InMemoryIdempotencyDAO getInstance() {
+        if (instance == null) {
+            instance = new InMemoryIdempotencyDAO();
+        }
+
+        return instance;
+    }
+
+    protected InMemoryIdempotencyDAO() {
+        // constructor is protected so that it can't be called from the outside
+    }
+
+    public IdempotencyRecord getRecord(String idempotencyKey, long now) {
+        ExpiringCache.Entry<IdempotencyRecord> entry = records.get(idempotencyKey, now);
+        return entry == null ? null : entry.getValue();
+    }
+
+    public IdempotencyRecord putRecordIfAbsent(IdempotencyRecord record, long now) {
+        synchronized (records) {
+            ExpiringCache.Entry<IdempotencyRecord> entry = records.get(record.getIdempotencyKey(), now);
+            if (entry != null) {
+                return entry.getValue();
+            }
+            records.putUntil(record.getIdempotencyKey(), record, record.getExpiresAt());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.idempotency;
+
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+
+/**
+ * Records the latency and the errors of each call to another IdempotencyDAO implementation against the metrics of the
+ * running action
+ */
+public class TimedIdempotencyDAO implements IdempotencyDAO {
+    private final IdempotencyDAO delegate;
+
+    /**
+     * Creates a new timer in front of the given DAO
+     *
+     * @param delegate The IdempotencyDAO used by the actions
+     */
+    public TimedIdempotencyDAO(IdempotencyDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    public IdempotencyRecord getRecord(String idempotencyKey, long now) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getRecord(idempotencyKey, now);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+
+    public IdempotencyRecord putRecordIfAbsent(IdempotencyRecord record, long now) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.putRecordIfAbsent(record, now);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+}
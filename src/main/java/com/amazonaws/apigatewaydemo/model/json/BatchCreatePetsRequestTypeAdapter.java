@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.BatchCreatePetsRequest;
+import com.amazonaws.apigatewaydemo.model.action.CreatePetRequest;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TypeAdapter for the BatchCreatePetsRequest bean
+ */
+public class BatchCreatePetsRequestTypeAdapter extends ModelTypeAdapter<BatchCreatePetsRequest> {
+    private static final CreatePetRequestTypeAdapter petAdapter = new CreatePetRequestTypeAdapter();
+
+    protected BatchCreatePetsRequest newInstance() {
+        return new BatchCreatePetsRequest();
+    }
+
+    protected void writeProperties(JsonWriter out, BatchCreatePetsRequest value) throws IOException {
+        if (value.getPets() != null) {
+            out.name("pets").beginArray();
+            for (CreatePetRequest pet : value.getPets()) {
+                petAdapter.write(out, pet);
+            }
+            out.endArray();
+        }
+    }
+
+    protected boolean readProperty(JsonReader in, String name, BatchCreatePetsRequest value) throws IOException {
+        switch (name) {
+            case "pets":
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return true;
+                }
+                List<CreatePetRequest> pets = new ArrayList<CreatePetRequest>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    pets.add(petAdapter.read(in));
+                }
+                in.endArray();
+                value.setPets(pets);
+                return true;
+            default:
+                return false;
+        }
+    }
+}
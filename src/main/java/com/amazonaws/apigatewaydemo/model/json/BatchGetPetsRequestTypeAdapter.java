@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.BatchGetPetsRequest;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TypeAdapter for the BatchGetPetsRequest bean
+ */
+public class BatchGetPetsRequestTypeAdapter extends ModelTypeAdapter<BatchGetPetsRequest> {
+    protected BatchGetPetsRequest newInstance() {
+        return new BatchGetPetsRequest();
+    }
+
+    protected void writeProperties(JsonWriter out, BatchGetPetsRequest value) throws IOException {
+        if (value.getPetIds() != null) {
+            out.name("petIds").beginArray();
+            for (String petId : value.getPetIds()) {
+                out.value(petId);
+            }
+            out.endArray();
+        }
+    }
+
+    protected boolean readProperty(JsonReader in, String name, BatchGetPetsRequest value) throws IOException {
+        switch (name) {
+            case "petIds":
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return true;
+                }
+                List<String> petIds = new ArrayList<String>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    petIds.add(nextString(in));
+                }
+                in.endArray();
+                value.setPetIds(petIds);
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.BatchPetResult;
+import com.amazonaws.apigatewaydemo.model.action.BatchPetsResponse;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TypeAdapter for the BatchPetsResponse bean, the BatchPetResult objects are written inline
+ */
+public class BatchPetsResponseTypeAdapter extends ModelTypeAdapter<BatchPetsResponse> {
+    private static final PetTypeAdapter petAdapter = new PetTypeAdapter();
+
+    protected BatchPetsResponse newInstance() {
+        return new BatchPetsResponse();
+    }
+
+    protected void writeProperties(JsonWriter out, BatchPetsResponse value) throws IOException {
+        out.name("count").value(value.getCount());
+        out.name("unprocessedCount").value(value.getUnprocessedCount());
+        if (value.getResults() != null) {
+            out.name("results").beginArray();
+            for (BatchPetResult result : value.getResults()) {
+                out.beginObject();
+                out.name("petId").value(result.getPetId());
+                if (result.getStatus() != null) {
+                    out.name("status").value(result.getStatus().name());
+                }
+                if (result.getPet() != null) {
+                    out.name("pet");
+                    petAdapter.write(out, result.getPet());
+                }
+                out.endObject();
+            }
+            out.endArray();
+        }
+    }
+
+    protected boolean readProperty(JsonReader in, String name, BatchPetsResponse value) throws IOException {
+        switch (name) {
+            case "count":
+                value.setCount(nextInt(in));
+                return true;
+            case "unprocessedCount":
+                value.setUnprocessedCount(nextInt(in));
+                return true;
+            case "results":
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return true;
+                }
+                List<BatchPetResult> results = new ArrayList<BatchPetResult>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    results.add(readResult(in));
+                }
+                in.endArray();
+                value.setResults(results);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static BatchPetResult readResult(JsonReader in) throws IOException {
+        BatchPetResult result = new BatchPetResult();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "petId":
+                    result.setPetId(nextString(in));
+                    break;
+                case "status":
+                    String status = nextString(in);
+                    try {
+                        result.setStatus(status == null ? null : BatchPetResult.Status.valueOf(status));
+                    } catch (final IllegalArgumentException e) {
+                        throw new JsonSyntaxException("Unknown batch pet status " + status, e);
+                    }
+                    break;
+                case "pet":
+                    result.setPet(petAdapter.read(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return result;
+    }
+}
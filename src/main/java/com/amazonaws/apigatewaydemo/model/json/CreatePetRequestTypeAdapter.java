@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.CreatePetRequest;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * TypeAdapter for the CreatePetRequest bean
+ */
+public class CreatePetRequestTypeAdapter extends ModelTypeAdapter<CreatePetRequest> {
+    protected CreatePetRequest newInstance() {
+        return new CreatePetRequest();
+    }
+
+    protected void writeProperties(JsonWriter out, CreatePetRequest value) throws IOException {
+        out.name("petType").value(value.getPetType());
+        out.name("petName").value(value.getPetName());
+        out.name("petAge").value(value.getPetAge());
+        out.name("idempotencyKey").value(value.getIdempotencyKey());
+    }
+
+    protected boolean readProperty(JsonReader in, String name, CreatePetRequest value) throws IOException {
+        switch (name) {
+            case "petType":
+                value.setPetType(nextString(in));
+                return true;
+            case "petName":
+                value.setPetName(nextString(in));
+                return true;
+            case "petAge":
+                value.setPetAge(nextInt(in));
+                return true;
+            case "idempotencyKey":
+                value.setIdempotencyKey(nextString(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.CreatePetResponse;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * TypeAdapter for the CreatePetResponse bean
+ */
+public class CreatePetResponseTypeAdapter extends ModelTypeAdapter<CreatePetResponse> {
+    protected CreatePetResponse newInstance() {
+        return new CreatePetResponse();
+    }
+
+    protected void writeProperties(JsonWriter out, CreatePetResponse value) throws IOException {
+        out.name("petId").value(value.getPetId());
+    }
+
+    protected boolean readProperty(JsonReader in, String name, CreatePetResponse value) throws IOException {
+        switch (name) {
+            case "petId":
+                value.setPetId(nextString(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
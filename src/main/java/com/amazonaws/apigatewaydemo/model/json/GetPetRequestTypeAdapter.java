@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.GetPetRequest;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * TypeAdapter for the GetPetRequest bean
+ */
+public class GetPetRequestTypeAdapter extends ModelTypeAdapter<GetPetRequest> {
+    protected GetPetRequest newInstance() {
+        return new GetPetRequest();
+    }
+
+    protected void writeProperties(JsonWriter out, GetPetRequest value) throws IOException {
+        out.name("petId").value(value.getPetId());
+        out.name("fields").value(value.getFields());
+    }
+
+    protected boolean readProperty(JsonReader in, String name, GetPetRequest value) throws IOException {
+        switch (name) {
+            case "petId":
+                value.setPetId(nextString(in));
+                return true;
+            case "fields":
+                value.setFields(nextString(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.configuration.JsonConfiguration;
+import com.amazonaws.apigatewaydemo.model.action.BatchCreatePetsRequest;
+import com.amazonaws.apigatewaydemo.model.action.BatchGetPetsRequest;
+import com.amazonaws.apigatewaydemo.model.action.BatchPetsResponse;
+import com.amazonaws.apigatewaydemo.model.action.CreatePetRequest;
+import com.amazonaws.apigatewaydemo.model.action.CreatePetResponse;
+import com.amazonaws.apigatewaydemo.model.action.GetPetRequest;
+import com.amazonaws.apigatewaydemo.model.action.ListPetsRequest;
+import com.amazonaws.apigatewaydemo.model.action.ListPetsResponse;
+import com.amazonaws.apigatewaydemo.model.action.LoginUserRequest;
+import com.amazonaws.apigatewaydemo.model.action.LoginUserResponse;
+import com.amazonaws.apigatewaydemo.model.action.RegisterUserRequest;
+import com.amazonaws.apigatewaydemo.model.action.RegisterUserResponse;
+import com.amazonaws.apigatewaydemo.model.pet.Pet;
+import com.amazonaws.apigatewaydemo.model.user.User;
+import com.amazonaws.apigatewaydemo.model.user.UserCredentials;
+import com.amazonaws.apigatewaydemo.model.user.UserIdentity;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.Writer;
+
+/**
+ * Factory for the Gson object shared by the RequestRouter and the actions. The Gson object is created once per
+ * container with a TypeAdapter registered for each model bean. Gson objects are thread-safe and can be used by
+ * concurrent invocations.
+ * <p/>
+ * Output is compact by default, pretty printing can be enabled for debugging through the JsonConfiguration class.
+ */
+public class GsonFactory {
+    private static final Gson gson = createGson();
+
+    protected GsonFactory() {
+        // static factory, should not be instantiated
+    }
+
+    /**
+     * Returns the shared Gson object
+     *
+     * @return An initialized Gson object
+     */
+    public static Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Creates a JsonWriter with the configured output format
+     *
+     * @param writer The Writer the JSON is written to
+     * @return A new JsonWriter
+     */
+    public static JsonWriter newJsonWriter(Writer writer) {
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        if (JsonConfiguration.PRETTY_PRINTING) {
+            jsonWriter.setIndent(JsonConfiguration.PRETTY_PRINTING_INDENT);
+        }
+        return jsonWriter;
+    }
+
+    private static Gson createGson() {
+        GsonBuilder builder = new GsonBuilder()
+                .registerTypeAdapter(BatchCreatePetsRequest.class, new BatchCreatePetsRequestTypeAdapter())
+                .registerTypeAdapter(BatchGetPetsRequest.class, new BatchGetPetsRequestTypeAdapter())
+                .registerTypeAdapter(BatchPetsResponse.class, new BatchPetsResponseTypeAdapter())
+                .registerTypeAdapter(CreatePetRequest.class, new CreatePetRequestTypeAdapter())
+                .registerTypeAdapter(CreatePetResponse.class, new CreatePetResponseTypeAdapter())
+                .registerTypeAdapter(GetPetRequest.class, new GetPetRequestTypeAdapter())
+                .registerTypeAdapter(ListPetsRequest.class, new ListPetsRequestTypeAdapter())
+                .registerTypeAdapter(ListPetsResponse.class, new ListPetsResponseTypeAdapter())
+                .registerTypeAdapter(LoginUserRequest.class, new LoginUserRequestTypeAdapter())
+                .registerTypeAdapter(LoginUserResponse.class, new LoginUserResponseTypeAdapter())
+                .registerTypeAdapter(RegisterUserRequest.class, new RegisterUserRequestTypeAdapter())
+                .registerTypeAdapter(RegisterUserResponse.class, new RegisterUserResponseTypeAdapter())
+                .registerTypeAdapter(Pet.class, new PetTypeAdapter())
+                .registerTypeAdapter(User.class, new UserTypeAdapter())
+                .registerTypeAdapter(UserCredentials.class, new UserCredentialsTypeAdapter())
+                .registerTypeAdapter(UserIdentity.class, new UserIdentityTypeAdapter());
+
+        if (JsonConfiguration.PRETTY_PRINTING) {
+            builder.setPrettyPrinting();
+        }
+
+        Gson created = builder.create();
+
+        // resolve the adapters now so that the first invocation doesn't pay for the lookup
+        created.getAdapter(BatchCreatePetsRequest.class);
+        created.getAdapter(BatchGetPetsRequest.class);
+        created.getAdapter(BatchPetsResponse.class);
+        created.getAdapter(CreatePetRequest.class);
+        created.getAdapter(CreatePetResponse.class);
+        created.getAdapter(GetPetRequest.class);
+        created.getAdapter(ListPetsRequest.class);
+        created.getAdapter(ListPetsResponse.class);
+        created.getAdapter(LoginUserRequest.class);
+        created.getAdapter(LoginUserResponse.class);
+        created.getAdapter(RegisterUserRequest.class);
+        created.getAdapter(RegisterUserResponse.class);
+        created.getAdapter(Pet.class);
+        created.getAdapter(User.class);
+        created.getAdapter(UserCredentials.class);
+        created.getAdapter(UserIdentity.class);
+
+        return created;
+    }
+}
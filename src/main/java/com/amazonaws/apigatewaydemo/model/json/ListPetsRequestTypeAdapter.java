@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.ListPetsRequest;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * TypeAdapter for the ListPetsRequest bean
+ */
+public class ListPetsRequestTypeAdapter extends ModelTypeAdapter<ListPetsRequest> {
+    protected ListPetsRequest newInstance() {
+        return new ListPetsRequest();
+    }
+
+    protected void writeProperties(JsonWriter out, ListPetsRequest value) throws IOException {
+        out.name("petType").value(value.getPetType());
+        out.name("pageToken").value(value.getPageToken());
+        out.name("limit").value(value.getLimit());
+        out.name("fields").value(value.getFields());
+    }
+
+    protected boolean readProperty(JsonReader in, String name, ListPetsRequest value) throws IOException {
+        switch (name) {
+            case "petType":
+                value.setPetType(nextString(in));
+                return true;
+            case "pageToken":
+                value.setPageToken(nextString(in));
+                return true;
+            case "limit":
+                value.setLimit(nextInt(in));
+                return true;
+            case "fields":
+                value.setFields(nextString(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.ListPetsResponse;
+import com.amazonaws.apigatewaydemo.model.pet.Pet;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TypeAdapter for the ListPetsResponse bean
+ */
+public class ListPetsResponseTypeAdapter extends ModelTypeAdapter<ListPetsResponse> {
+    private static final PetTypeAdapter petAdapter = new PetTypeAdapter();
+
+    protected ListPetsResponse newInstance() {
+        return new ListPetsResponse();
+    }
+
+    protected void writeProperties(JsonWriter out, ListPetsResponse value) throws IOException {
+        out.name("count").value(value.getCount());
+        out.name("pageLimit").value(value.getPageLimit());
+        if (value.getPets() != null) {
+            out.name("pets").beginArray();
+            for (Pet pet : value.getPets()) {
+                petAdapter.write(out, pet);
+            }
+            out.endArray();
+        }
+        if (value.getNextPageToken() != null) {
+            out.name("nextPageToken").value(value.getNextPageToken());
+        }
+    }
+
+    protected boolean readProperty(JsonReader in, String name, ListPetsResponse value) throws IOException {
+        switch (name) {
+            case "count":
+                value.setCount(nextInt(in));
+                return true;
+            case "pageLimit":
+                value.setPageLimit(nextInt(in));
+                return true;
+            case "pets":
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return true;
+                }
+                List<Pet> pets = new ArrayList<Pet>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    pets.add(petAdapter.read(in));
+                }
+                in.endArray();
+                value.setPets(pets);
+                return true;
+            case "nextPageToken":
+                value.setNextPageToken(nextString(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.LoginUserResponse;
+import com.amazonaws.apigatewaydemo.model.user.UserCredentials;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * TypeAdapter for the LoginUserResponse bean
+ */
+public class LoginUserResponseTypeAdapter extends ModelTypeAdapter<LoginUserResponse> {
+    private static final UserCredentialsTypeAdapter userCredentialsAdapter = new UserCredentialsTypeAdapter();
+
+    protected LoginUserResponse newInstance() {
+        return new LoginUserResponse();
+    }
+
+    protected void writeProperties(JsonWriter out, LoginUserResponse value) throws IOException {
+        out.name("identityId").value(value.getIdentityId());
+        out.name("token").value(value.getToken());
+        out.name("credentials");
+        userCredentialsAdapter.write(out, value.getCredentials());
+    }
+
+    protected boolean readProperty(JsonReader in, String name, LoginUserResponse value) throws IOException {
+        switch (name) {
+            case "identityId":
+                value.setIdentityId(nextString(in));
+                return true;
+            case "token":
+                value.setToken(nextString(in));
+                return true;
+            case "credentials":
+                value.setCredentials(userCredentialsAdapter.read(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Base class for the hand-written TypeAdapter implementations of the model beans. The adapters read and write the
+ * beans property by property, Gson does not need to discover the fields through reflection. Properties with a null
+ * value are omitted, unknown properties are skipped when reading.
+ *
+ * @param <T> The model bean
+ */
+public abstract class ModelTypeAdapter<T> extends TypeAdapter<T> {
+    public void write(JsonWriter out, T value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        writeProperties(out, value);
+        out.endObject();
+    }
+
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        T value = newInstance();
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!readProperty(in, in.nextName(), value)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return value;
+    }
+
+    /**
+     * Creates an empty instance of the bean
+     *
+     * @return The new bean
+     */
+    protected abstract T newInstance();
+
+    /**
+     * Writes the properties of the bean, the enclosing object is opened and closed by the caller
+     *
+     * @param out   The JsonWriter
+     * @param value The bean to be written
+     * @throws IOException
+     */
+    protected abstract void writeProperties(JsonWriter out, T value) throws IOException;
+
+    /**
+     * Reads the value of a property into the bean
+     *
+     * @param in    The JsonReader positioned on the property value
+     * @param name  The name of the property
+     * @param value The bean being read
+     * @return True if the property was read, false if the value should be skipped
+     * @throws IOException
+     */
+    protected abstract boolean readProperty(JsonReader in, String name, T value) throws IOException;
+
+    protected static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    protected static int nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        try {
+            if (in.peek() == JsonToken.STRING) {
+                // mapping templates send missing query string parameters as empty strings
+                String value = in.nextString();
+                return value.isEmpty() ? 0 : Integer.parseInt(value);
+            }
+            return in.nextInt();
+        } catch (final NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    protected static long nextLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        try {
+            return in.nextLong();
+        } catch (final NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+}
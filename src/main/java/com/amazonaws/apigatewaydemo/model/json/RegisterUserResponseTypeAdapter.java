@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.action.RegisterUserResponse;
+import com.amazonaws.apigatewaydemo.model.user.UserCredentials;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * TypeAdapter for the RegisterUserResponse bean
+ */
+public class RegisterUserResponseTypeAdapter extends ModelTypeAdapter<RegisterUserResponse> {
+    private static final UserCredentialsTypeAdapter userCredentialsAdapter = new UserCredentialsTypeAdapter();
+
+    protected RegisterUserResponse newInstance() {
+        return new RegisterUserResponse();
+    }
+
+    protected void writeProperties(JsonWriter out, RegisterUserResponse value) throws IOException {
+        out.name("username").value(value.getUsername());
+        out.name("identityId").value(value.getIdentityId());
+        out.name("token").value(value.getToken());
+        out.name("credentials");
+        userCredentialsAdapter.write(out, value.getCredentials());
+    }
+
+    protected boolean readProperty(JsonReader in, String name, RegisterUserResponse value) throws IOException {
+        switch (name) {
+            case "username":
+                value.setUsername(nextString(in));
+                return true;
+            case "identityId":
+                value.setIdentityId(nextString(in));
+                return true;
+            case "token":
+                value.setToken(nextString(in));
+                return true;
+            case "credentials":
+                value.setCredentials(userCredentialsAdapter.read(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
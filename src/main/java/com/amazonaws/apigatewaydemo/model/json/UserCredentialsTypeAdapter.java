@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.user.UserCredentials;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * TypeAdapter for the UserCredentials bean
+ */
+public class UserCredentialsTypeAdapter extends ModelTypeAdapter<UserCredentials> {
+    protected UserCredentials newInstance() {
+        return new UserCredentials();
+    }
+
+    protected void writeProperties(JsonWriter out, UserCredentials value) throws IOException {
+        out.name("accessKey").value(value.getAccessKey());
+        out.name("secretKey").value(value.getSecretKey());
+        out.name("sessionToken").value(value.getSessionToken());
+        out.name("expiration").value(value.getExpiration());
+    }
+
+    protected boolean readProperty(JsonReader in, String name, UserCredentials value) throws IOException {
+        switch (name) {
+            case "accessKey":
+                value.setAccessKey(nextString(in));
+                return true;
+            case "secretKey":
+                value.setSecretKey(nextString(in));
+                return true;
+            case "sessionToken":
+                value.setSessionToken(nextString(in));
+                return true;
+            case "expiration":
+                value.setExpiration(nextLong(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
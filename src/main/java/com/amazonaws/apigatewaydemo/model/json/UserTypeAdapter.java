@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.json;
+
+import com.amazonaws.apigatewaydemo.model.user.User;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * TypeAdapter for the User bean. Only the username and the identity are serialized, the encrypted password and its
+ * salt never leave the data store.
+ */
+public class UserTypeAdapter extends ModelTypeAdapter<User> {
+    private static final UserIdentityTypeAdapter userIdentityAdapter = new UserIdentityTypeAdapter();
+
+    protected User newInstance() {
+        return new User();
+    }
+
+    protected void writeProperties(JsonWriter out, User value) throws IOException {
+        out.name("username").value(value.getUsername());
+        out.name("identity");
+        userIdentityAdapter.write(out, value.getIdentity());
+    }
+
+    protected boolean readProperty(JsonReader in, String name, User value) throws IOException {
+        switch (name) {
+            case "username":
+                value.setUsername(nextString(in));
+                return true;
+            case "identity":
+                value.setIdentity(userIdentityAdapter.read(in));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.pet;
+
+import com.amazonaws.apigatewaydemo.configuration.CacheConfiguration;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.helper.ExpiringCache;
+import com.amazonaws.apigatewaydemo.metrics.CounterSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-through cache in front of another PetDAO implementation. Pets loaded by id are kept in memory for the
+ * lifetime of the Lambda container, with the size and time to live declared in the CacheConfiguration class. Lookups
+ * for pets that do not exist are also cached, for a shorter time. Creating a pet invalidates its cache entry.
+ * <p/>
+ * The cache is per container, a pet updated through another container may be served stale until its entry expires.
+ */
+public class CachingPetDAO implements PetDAO, CounterSource {
+    private final PetDAO delegate;
+    private final ExpiringCache<String, Pet> cache;
+
+    /**
+     * Creates a new cache in front of the given DAO
+     *
+     * @param delegate The PetDAO that reads and writes the data store
+     */
+    public CachingPetDAO(PetDAO delegate) {
+        this.delegate = delegate;
+        this.cache = new ExpiringCache<String, Pet>(CacheConfiguration.PET_CACHE_MAX_SIZE);
+    }
+
+    /**
+     * Creates the pet through the underlying DAO and invalidates its cache entry
+     *
+     * @param pet The pet object to be created
+     * @return The generated petId
+     * @throws DAOException
+     */
+    public String createPet(Pet pet) throws DAOException {
+        String petId = delegate.createPet(pet);
+        if (petId != null) {
+            cache.invalidate(petId);
+        }
+        return petId;
+    }
+
+    /**
+     * Creates the pets through the underlying DAO and invalidates the cache entries of the pets that were written
+     *
+     * @param pets The pet objects to be created
+     * @return The pets that were written and the petIds of the pets that could not be written
+     * @throws DAOException
+     */
+    public PetBatch createPets(List<Pet> pets) throws DAOException {
+        PetBatch batch = delegate.createPets(pets);
+        for (Pet pet : batch.getPets()) {
+            cache.invalidate(pet.getPetId());
+        }
+        return batch;
+    }
+
+    /**
+     * Returns the pet from the cache, or loads it from the underlying DAO and caches the result. The cache holds whole
+     * pets so that any set of fields can be served from it: on a miss all the fields are loaded and the requested ones
+     * are copied from the result.
+     *
+     * @param petId  The petId to look for
+     * @param fields The fields to return, null for all the fields
+     * @return An initialized Pet object, null if the Pet could not be found
+     * @throws DAOException
+     */
+    public Pet getPetById(String petId, Set<PetField> fields) throws DAOException {
+        if (petId == null) {
+            return delegate.getPetById(petId, fields);
+        }
+
+        Pet pet;
+        ExpiringCache.Entry<Pet> entry = cache.get(petId);
+        if (entry != null) {
+            pet = entry.getValue();
+        } else {
+            pet = delegate.getPetById(petId, null);
+            cache.put(petId, pet, pet == null ? CacheConfiguration.PET_CACHE_NEGATIVE_TTL_MS : CacheConfiguration.PET_CACHE_TTL_MS);
+        }
+
+        return fields == null ? pet : PetField.project(pet, fields);
+    }
+
+    /**
+     * Returns the cached pets and reads the others from the underlying DAO in a single batch. The pets read are
+     * cached, as are the petIds that were not found. Unprocessed petIds are not cached.
+     *
+     * @param petIds The petIds to look for
+     * @return The pets that were found and the petIds that could not be read
+     * @throws DAOException
+     */
+    public PetBatch getPetsByIds(List<String> petIds) throws DAOException {
+        List<Pet> found = new ArrayList<Pet>(petIds.size());
+        Set<String> misses = new LinkedHashSet<String>();
+        for (String petId : new LinkedHashSet<String>(petIds)) {
+            ExpiringCache.Entry<Pet> entry = petId == null ? null : cache.get(petId);
+            if (entry == null) {
+                misses.add(petId);
+            } else if (entry.getValue() != null) {
+                found.add(entry.getValue());
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return new PetBatch(found, Collections.<String>emptyList());
+        }
+
+        PetBatch batch = delegate.getPetsByIds(new ArrayList<String>(misses));
+        misses.removeAll(batch.getUnprocessedPetIds());
+        for (Pet pet : batch.getPets()) {
+            cache.put(pet.getPetId(), pet, CacheConfiguration.PET_CACHE_TTL_MS);
+            misses.remove(pet.getPetId());
+            found.add(pet);
+        }
+        for (String petId : misses) {
+            cache.put(petId, null, CacheConfiguration.PET_CACHE_NEGATIVE_TTL_MS);
+        }
+
+        return new PetBatch(found, batch.getUnprocessedPetIds());
+    }
+
+    public PetPage getPets(int limit, String pageToken, Set<PetField> fields) throws DAOException {
+        return delegate.getPets(limit, pageToken, fields);
+    }
+
+    public PetPage getPetsByType(String petType, int limit, String pageToken, Set<PetField> fields) throws DAOException {
+        return delegate.getPetsByType(petType, limit, pageToken, fields);
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the cache, written to the function log by the Metrics class
+     *
+     * @return The counters by name
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<String, Long>();
+        counters.put("hits", getHits());
+        counters.put("misses", getMisses());
+        counters.put("evictions", getEvictions());
+        return counters;
+    }
+
+    /**
+     * Returns the number of lookups served from the cache
+     *
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    /**
+     * Returns the number of lookups that had to go to the underlying DAO
+     *
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Returns the number of entries removed because the cache was full or because they expired
+     *
+     * @return The number of evictions
+     */
+    public long getEvictions() {
+        return cache.getEvictions();
+    }
+}
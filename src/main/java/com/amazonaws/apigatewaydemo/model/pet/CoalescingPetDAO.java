@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.pet;
+
+import com.amazonaws.apigatewaydemo.configuration.DAOConfiguration;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.helper.Deadline;
+import com.amazonaws.apigatewaydemo.helper.SingleFlight;
+import com.amazonaws.apigatewaydemo.metrics.CounterSource;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PetDAO decorator that coalesces concurrent reads of the same pet. While a getPetById call is in flight, the calls
+ * for the same petId and fields wait for it and return the same Pet object, or fail with the same exception, instead
+ * of sending their own request. The other methods are passed to the underlying DAO.
+ * <p/>
+ * Callers receive a shared Pet instance and should not modify it.
+ */
+public class CoalescingPetDAO implements PetDAO, CounterSource {
+    private final PetDAO delegate;
+    private final SingleFlight<Map.Entry<String, Set<PetField>>, Pet, DAOException> flights;
+
+    /**
+     * Creates a new coalescing layer in front of the given DAO
+     *
+     * @param delegate The PetDAO that reads the data store
+     */
+    public CoalescingPetDAO(PetDAO delegate) {
+        this.delegate = delegate;
+        this.flights = new SingleFlight<Map.Entry<String, Set<PetField>>, Pet, DAOException>(
+                DAOException.class, DAOConfiguration.COALESCING_WAIT_TIMEOUT_MS);
+    }
+
+    public String createPet(Pet pet) throws DAOException {
+        return delegate.createPet(pet);
+    }
+
+    public PetBatch createPets(List<Pet> pets) throws DAOException {
+        return delegate.createPets(pets);
+    }
+
+    /**
+     * Returns the pet from the read in flight for the same petId and fields, or reads it from the underlying DAO
+     *
+     * @param petId  The petId to look for
+     * @param fields The fields to return, null for all the fields
+     * @return An initialized Pet object, null if the Pet could not be found
+     * @throws DAOException If the read fails, or if the read in flight does not complete within the wait
+     *                      timeout or before the deadline of the request
+     */
+    public Pet getPetById(final String petId, final Set<PetField> fields) throws DAOException {
+        try {
+            return flights.execute(new AbstractMap.SimpleImmutableEntry<String, Set<PetField>>(petId, fields),
+                    new SingleFlight.Loader<Pet, DAOException>() {
+                        public Pet load() throws DAOException {
+                            return delegate.getPetById(petId, fields);
+                        }
+                    }, Deadline.current().bound(DAOConfiguration.COALESCING_WAIT_TIMEOUT_MS));
+        } catch (final TimeoutException e) {
+            throw new DAOException("Timed out waiting for pet " + petId, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DAOException("Interrupted while waiting for pet " + petId, e);
+        }
+    }
+
+    public PetBatch getPetsByIds(List<String> petIds) throws DAOException {
+        return delegate.getPetsByIds(petIds);
+    }
+
+    public PetPage getPets(int limit, String pageToken, Set<PetField> fields) throws DAOException {
+        return delegate.getPets(limit, pageToken, fields);
+    }
+
+    public PetPage getPetsByType(String petType, int limit, String pageToken, Set<PetField> fields) throws DAOException {
+        return delegate.getPetsByType(petType, limit, pageToken, fields);
+    }
+
+    /**
+     * Returns the number of reads sent and of reads coalesced, written to the function log by the Metrics class
+     *
+     * @return The counters by name
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<String, Long>();
+        counters.put("reads", getExecutions());
+        counters.put("coalesced", getShared());
+        return counters;
+    }
+
+    /**
+     * Returns the number of reads sent to the underlying DAO
+     *
+     * @return The number of reads
+     */
+    public long getExecutions() {
+        return flights.getExecutions();
+    }
+
+    /**
+     * Returns the number of reads that shared the result of a read in flight
+     *
+     * @return The number of coalesced reads
+     */
+    public long getShared() {
+        return flights.getShared();
+    }
+}
@@ -14,12 +14,37 @@ package com.amazonaws.apigatewaydemo.model.pet;
 
 import com.amazonaws.apigatewaydemo.configuration.DynamoDBConfiguration;
 import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.exception.InvalidPageTokenException;
+import com.amazonaws.apigatewaydemo.helper.Deadline;
+import com.amazonaws.apigatewaydemo.helper.PageTokenHelper;
+import com.amazonaws.apigatewaydemo.model.DynamoDBClientRegistry;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The DynamoDB implementation of the PetDAO object. This class expects the Pet bean to be annotated with the required
@@ -33,9 +58,8 @@ import java.util.List;
 public class DDBPetDAO implements PetDAO {
     private static DDBPetDAO instance = null;
 
-    // credentials for the client come from the environment variables pre-configured by Lambda. These are tied to the
-    // Lambda function execution role.
-    private static AmazonDynamoDBClient ddbClient = new AmazonDynamoDBClient();
+    // new pets are written with a single PutItem request instead of the default UpdateItem, also when the petId is set
+    private static final DynamoDBMapperConfig CREATE_CONFIG = new DynamoDBMapperConfig(DynamoDBMapperConfig.SaveBehavior.CLOBBER);
 
     /**
      * Returns the initialized default instance of the PetDAO
@@ -55,7 +79,8 @@ public class DDBPetDAO implements PetDAO {
     }
 
     /**
-     * Creates a new Pet
+     * Creates a new Pet. The petId is generated by the mapper unless it is already set, in which case an existing pet
+     * with the same petId is replaced.
      *
      * @param pet The pet object to be created
      * @return The id for the newly created Pet object
@@ -66,47 +91,325 @@ public class DDBPetDAO implements PetDAO {
             throw new DAOException("Cannot lookup null or empty pet");
         }
 
-        getMapper().save(pet);
+        DynamoDBClientRegistry.getMapper(CREATE_CONFIG).save(pet);
 
         return pet.getPetId();
     }
 
     /**
-     * Gets a Pet by its id
+     * Creates a list of pets with BatchWriteItem requests of up to BATCH_WRITE_SIZE pets. The mapper retries the items
+     * left unprocessed by DynamoDB, a chunk that fails with a throttling or server error is written again after a
+     * backoff, up to BATCH_MAX_ATTEMPTS times. The pets of a chunk that still fails are returned as unprocessed. Note
+     * that the mapper also pauses for two seconds after a throttled request before it returns.
+     * <p/>
+     * Any other error, such as a validation error, a missing table or permission, or a request the client refused to
+     * send before the deadline, would fail again and is thrown as a DAOException instead. The pets of the chunks
+     * written before the error are not reported and stay in the table.
      *
-     * @param petId The petId to look for
+     * @param pets The pet objects to be created
+     * @return The pets that were written and the petIds of the pets that could not be written
+     * @throws DAOException If a chunk fails with an error that is not worth retrying
+     */
+    public PetBatch createPets(List<Pet> pets) throws DAOException {
+        for (Pet pet : pets) {
+            if (pet.getPetType() == null || pet.getPetType().trim().equals("")) {
+                throw new DAOException("Cannot lookup null or empty pet");
+            }
+            // the mapper would generate the key too, but the caller needs it to match the unprocessed petIds
+            if (pet.getPetId() == null) {
+                pet.setPetId(UUID.randomUUID().toString());
+            }
+        }
+
+        List<Pet> written = new ArrayList<Pet>(pets.size());
+        List<String> unprocessed = new ArrayList<String>();
+
+        for (int from = 0; from < pets.size(); from += DynamoDBConfiguration.BATCH_WRITE_SIZE) {
+            Map<String, Pet> pending = new LinkedHashMap<String, Pet>();
+            for (Pet pet : pets.subList(from, Math.min(from + DynamoDBConfiguration.BATCH_WRITE_SIZE, pets.size()))) {
+                pending.put(pet.getPetId(), pet);
+            }
+
+            for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                List<DynamoDBMapper.FailedBatch> failures = getMapper().batchSave(new ArrayList<Pet>(pending.values()));
+
+                Map<String, Pet> failed = new LinkedHashMap<String, Pet>();
+                for (DynamoDBMapper.FailedBatch failure : failures) {
+                    if (!isRetryable(failure.getException())) {
+                        throw new DAOException("Cannot write pets: " + failure.getException().getMessage(),
+                                failure.getException());
+                    }
+                    for (List<WriteRequest> requests : failure.getUnprocessedItems().values()) {
+                        for (WriteRequest request : requests) {
+                            String petId = request.getPutRequest().getItem().get(PetField.petId.getAttributeName()).getS();
+                            failed.put(petId, pending.get(petId));
+                        }
+                    }
+                }
+
+                for (Pet pet : pending.values()) {
+                    if (!failed.containsKey(pet.getPetId())) {
+                        written.add(pet);
+                    }
+                }
+                pending = failed;
+
+                if (!pending.isEmpty() && (attempt == DynamoDBConfiguration.BATCH_MAX_ATTEMPTS || !backoff(attempt))) {
+                    unprocessed.addAll(pending.keySet());
+                    break;
+                }
+            }
+        }
+
+        return new PetBatch(written, unprocessed);
+    }
+
+    /**
+     * Gets a Pet by its id. When only some of the fields are requested the item is read with a GetItem request and a
+     * projection expression, the mapper does not support projections on single item reads.
+     *
+     * @param petId  The petId to look for
+     * @param fields The fields to read, null for all the fields
      * @return An initialized Pet object, null if the Pet could not be found
      * @throws DAOException
      */
-    public Pet getPetById(String petId) throws DAOException {
+    public Pet getPetById(String petId, Set<PetField> fields) throws DAOException {
         if (petId == null || petId.trim().equals("")) {
             throw new DAOException("Cannot lookup null or empty petId");
         }
 
-        return getMapper().load(Pet.class, petId);
+        if (fields == null) {
+            return getMapper().load(Pet.class, petId);
+        }
+
+        GetItemRequest request = new GetItemRequest()
+                .withTableName(DynamoDBConfiguration.PET_TABLE_NAME)
+                .withKey(Collections.singletonMap(PetField.petId.getAttributeName(), new AttributeValue().withS(petId)))
+                .withProjectionExpression(PetField.toProjectionExpression(fields))
+                .withExpressionAttributeNames(PetField.toExpressionAttributeNames(fields));
+
+        Map<String, AttributeValue> item = getClient().getItem(request).getItem();
+        return item == null ? null : getMapper().marshallIntoObject(Pet.class, item);
+    }
+
+    /**
+     * Gets a list of pets with BatchGetItem requests of up to BATCH_GET_SIZE keys. The keys left unprocessed by
+     * DynamoDB are requested again after a backoff, together with the keys of a request that failed with a throttling
+     * or server error. A chunk gives up after BATCH_MAX_ATTEMPTS requests that read nothing, its remaining petIds are
+     * returned as unprocessed. The requests are sent with the low level client rather than the batchLoad method of the
+     * mapper, which drops the items already read when it gives up on the unprocessed keys.
+     * <p/>
+     * Any other error, such as a validation error, a missing table or permission, or a request the client refused to
+     * send before the deadline, would fail again and is thrown as a DAOException instead.
+     *
+     * @param petIds The petIds to look for
+     * @return The pets that were found and the petIds that could not be read
+     * @throws DAOException If a request fails with an error that is not worth retrying
+     */
+    public PetBatch getPetsByIds(List<String> petIds) throws DAOException {
+        List<String> keys = new ArrayList<String>(new LinkedHashSet<String>(petIds));
+        for (String petId : keys) {
+            if (petId == null || petId.trim().equals("")) {
+                throw new DAOException("Cannot lookup null or empty petId");
+            }
+        }
+
+        List<Pet> found = new ArrayList<Pet>(keys.size());
+        List<String> unprocessed = new ArrayList<String>();
+
+        for (int from = 0; from < keys.size(); from += DynamoDBConfiguration.BATCH_GET_SIZE) {
+            List<Map<String, AttributeValue>> pending = new ArrayList<Map<String, AttributeValue>>();
+            for (String petId : keys.subList(from, Math.min(from + DynamoDBConfiguration.BATCH_GET_SIZE, keys.size()))) {
+                pending.add(Collections.singletonMap(PetField.petId.getAttributeName(), new AttributeValue().withS(petId)));
+            }
+
+            int failures = 0;
+            while (!pending.isEmpty()) {
+                BatchGetItemRequest request = new BatchGetItemRequest().withRequestItems(Collections.singletonMap(
+                        DynamoDBConfiguration.PET_TABLE_NAME, new KeysAndAttributes().withKeys(pending)));
+
+                try {
+                    BatchGetItemResult result = getClient().batchGetItem(request);
+                    List<Map<String, AttributeValue>> items = result.getResponses().get(DynamoDBConfiguration.PET_TABLE_NAME);
+                    KeysAndAttributes remaining = result.getUnprocessedKeys().get(DynamoDBConfiguration.PET_TABLE_NAME);
+                    if (items != null) {
+                        for (Map<String, AttributeValue> item : items) {
+                            found.add(getMapper().marshallIntoObject(Pet.class, item));
+                        }
+                    }
+                    int before = pending.size();
+                    pending = remaining == null ? Collections.<Map<String, AttributeValue>>emptyList() : remaining.getKeys();
+                    if (pending.size() < before) {
+                        // partial progress, only the requests that read nothing count as failed attempts
+                        failures = 0;
+                    }
+                } catch (final AmazonClientException e) {
+                    if (!isRetryable(e)) {
+                        throw new DAOException("Cannot read pets: " + e.getMessage(), e);
+                    }
+                }
+
+                if (!pending.isEmpty()
+                        && (++failures == DynamoDBConfiguration.BATCH_MAX_ATTEMPTS || !backoff(failures))) {
+                    for (Map<String, AttributeValue> key : pending) {
+                        unprocessed.add(key.get(PetField.petId.getAttributeName()).getS());
+                    }
+                    break;
+                }
+            }
+        }
+
+        return new PetBatch(found, unprocessed);
     }
 
     /**
-     * Returns a list of pets in the DynamoDB table.
+     * Returns a page of pets in the DynamoDB table. The method reads a single scan page, the page token is the
+     * LastEvaluatedKey of the previous page and is used as ExclusiveStartKey for this one.
      *
-     * @param limit The maximum numbers of results for the scan
-     * @return A List of Pet objects
+     * @param limit     The maximum numbers of items evaluated by the scan
+     * @param pageToken The token of the previous page, null to start from the beginning of the table
+     * @param fields    The fields to read, null for all the fields
+     * @return A page of Pet objects
+     * @throws DAOException
      */
-    public List<Pet> getPets(int limit) {
+    public PetPage getPets(int limit, String pageToken, Set<PetField> fields) throws DAOException {
         if (limit <= 0 || limit > DynamoDBConfiguration.SCAN_LIMIT)
             limit = DynamoDBConfiguration.SCAN_LIMIT;
 
         DynamoDBScanExpression expression = new DynamoDBScanExpression();
         expression.setLimit(limit);
-        return getMapper().scan(Pet.class, expression);
+        if (pageToken != null) {
+            expression.setExclusiveStartKey(PageTokenHelper.decode(pageToken));
+        }
+        if (fields != null) {
+            expression.setProjectionExpression(PetField.toProjectionExpression(fields));
+            expression.setExpressionAttributeNames(PetField.toExpressionAttributeNames(fields));
+        }
+
+        ScanResultPage<Pet> page;
+        try {
+            page = getMapper().scanPage(Pet.class, expression);
+        } catch (final AmazonServiceException e) {
+            // a token that decodes but doesn't match the table key is rejected by DynamoDB as a validation error
+            if (pageToken != null && "ValidationException".equals(e.getErrorCode())) {
+                throw new InvalidPageTokenException("Page token does not match the pets table", e);
+            }
+            throw e;
+        }
+
+        return new PetPage(page.getResults(), PageTokenHelper.encode(page.getLastEvaluatedKey()));
+    }
+
+    /**
+     * Returns a page of the pets of a type. The method reads a single query page from the type index of the table,
+     * only the items of the type are read. Reads from a global secondary index are eventually consistent: a pet that
+     * was just created may not be returned yet.
+     *
+     * @param petType   The type of the pets to return
+     * @param limit     The maximum numbers of items read by the query
+     * @param pageToken The token of the previous page for the same type, null to start from the first pet of the type
+     * @param fields    The fields to read, null for all the fields
+     * @return A page of Pet objects
+     * @throws DAOException
+     */
+    public PetPage getPetsByType(String petType, int limit, String pageToken, Set<PetField> fields) throws DAOException {
+        if (petType == null || petType.trim().equals("")) {
+            throw new DAOException("Cannot lookup null or empty pet type");
+        }
+
+        if (limit <= 0 || limit > DynamoDBConfiguration.SCAN_LIMIT)
+            limit = DynamoDBConfiguration.SCAN_LIMIT;
+
+        Pet hashKey = new Pet();
+        hashKey.setPetType(petType);
+
+        DynamoDBQueryExpression<Pet> expression = new DynamoDBQueryExpression<Pet>()
+                .withIndexName(DynamoDBConfiguration.PET_TYPE_INDEX_NAME)
+                .withConsistentRead(false)
+                .withHashKeyValues(hashKey)
+                .withLimit(limit);
+        if (pageToken != null) {
+            expression.setExclusiveStartKey(PageTokenHelper.decode(pageToken));
+        }
+        if (fields != null) {
+            expression.setProjectionExpression(PetField.toProjectionExpression(fields));
+            expression.setExpressionAttributeNames(PetField.toExpressionAttributeNames(fields));
+        }
+
+        QueryResultPage<Pet> page;
+        try {
+            page = getMapper().queryPage(Pet.class, expression);
+        } catch (final AmazonServiceException e) {
+            // tokens of the table scan or of another type don't match the index key
+            if (pageToken != null && "ValidationException".equals(e.getErrorCode())) {
+                throw new InvalidPageTokenException("Page token does not match the pet type index", e);
+            }
+            throw e;
+        }
+
+        return new PetPage(page.getResults(), PageTokenHelper.encode(page.getLastEvaluatedKey()));
+    }
+
+    /**
+     * Whether a failed batch request is worth sending again. Only throttling and server errors are: client side errors
+     * such as validation errors fail the same way every time, and a request that was not sent or got no response
+     * was already given up by the client and its retry policy.
+     *
+     * @param e The exception of the failed request, null when DynamoDB only left items unprocessed
+     * @return True if the request can be retried
+     */
+    private static boolean isRetryable(Exception e) {
+        if (e == null) {
+            return true;
+        }
+        if (e instanceof AmazonServiceException) {
+            AmazonServiceException serviceException = (AmazonServiceException) e;
+            return serviceException.getErrorType() == AmazonServiceException.ErrorType.Service
+                    || RetryUtils.isThrottlingException(serviceException);
+        }
+        return false;
+    }
+
+    /**
+     * Waits before the next attempt of a batch request. The delay is picked at random up to an exponentially growing
+     * bound, so that the concurrent invocations that were throttled together don't retry together.
+     *
+     * @param attempt The number of attempts made so far
+     * @return False if the thread was interrupted, or if the deadline of the request would not leave time for the next
+     * attempt, and the request should not be retried
+     */
+    private static boolean backoff(int attempt) {
+        long bound = Math.min(DynamoDBConfiguration.BATCH_BACKOFF_MAX_MS,
+                DynamoDBConfiguration.BATCH_BACKOFF_BASE_MS << Math.min(attempt, 20));
+        long delay = ThreadLocalRandom.current().nextLong(bound + 1);
+        if (!Deadline.current().hasBudget(delay)) {
+            // the next attempt would not be sent
+            return false;
+        }
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the DynamoDB client shared by the DAO objects, for the requests the mapper can't make
+     *
+     * @return An initialized DynamoDB client
+     */
+    protected AmazonDynamoDB getClient() {
+        return DynamoDBClientRegistry.getClient();
     }
 
     /**
-     * Returns a DynamoDBMapper object initialized with the default DynamoDB client
+     * Returns the DynamoDBMapper shared by the DAO objects, see DynamoDBClientRegistry
      *
      * @return An initialized DynamoDBMapper
      */
     protected DynamoDBMapper getMapper() {
-        return new DynamoDBMapper(ddbClient);
+        return DynamoDBClientRegistry.getMapper();
     }
 }
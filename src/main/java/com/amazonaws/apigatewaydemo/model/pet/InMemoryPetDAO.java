@@ -0,0 +1,241 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.pet;
+
+import com.amazonaws.apigatewaydemo.configuration.DynamoDBConfiguration;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.exception.InvalidPageTokenException;
+import com.amazonaws.apigatewaydemo.helper.PageTokenHelper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory implementation of the PetDAO interface, used for local and load tests in place of the DynamoDB tables.
+ * Pets are kept in a concurrent map sorted by petId, so that pages are returned in a stable order. The DAO stores and
+ * returns copies of the Pet objects, like the DynamoDB implementation it never shares an instance with the caller.
+ * <p/>
+ * The data lives as long as the container or JVM. This class is a singleton and should be accessed through the
+ * DAOFactory.
+ */
+public class InMemoryPetDAO implements PetDAO {
+    private static final String KEY_ATTRIBUTE = "petId";
+    private static final String TYPE_ATTRIBUTE = "type";
+
+    private static InMemoryPetDAO instance = null;
+
+    private final ConcurrentNavigableMap<String, Pet> pets = new ConcurrentSkipListMap<String, Pet>();
+
+    /**
+     * Returns the initialized default instance of the InMemoryPetDAO
+     *
+     * @return An initialized InMemoryPetDAO instance
+     */
+    public static synchronized InMemoryPetDAO getInstance() {
+        if (instance == null) {
+            instance = new InMemoryPetDAO();
+        }
+
+        return instance;
+    }
+
+    protected InMemoryPetDAO() {
+        // constructor is protected so that it can't be called from the outside
+    }
+
+    /**
+     * Creates a new Pet. Like the DynamoDB auto generated key, a random petId is assigned to the pet if it doesn't
+     * have one.
+     *
+     * @param pet The pet object to be created
+     * @return The id for the newly created Pet object
+     * @throws DAOException
+     */
+    public String createPet(Pet pet) throws DAOException {
+        if (pet.getPetType() == null || pet.getPetType().trim().equals("")) {
+            throw new DAOException("Cannot lookup null or empty pet");
+        }
+
+        if (pet.getPetId() == null) {
+            pet.setPetId(UUID.randomUUID().toString());
+        }
+        pets.put(pet.getPetId(), PetField.project(pet, null));
+
+        return pet.getPetId();
+    }
+
+    /**
+     * Creates a list of pets, all the pets are always written
+     *
+     * @param pets The pet objects to be created
+     * @return The pets that were written, no petId is unprocessed
+     * @throws DAOException
+     */
+    public PetBatch createPets(List<Pet> pets) throws DAOException {
+        for (Pet pet : pets) {
+            if (pet.getPetType() == null || pet.getPetType().trim().equals("")) {
+                throw new DAOException("Cannot lookup null or empty pet");
+            }
+        }
+
+        for (Pet pet : pets) {
+            createPet(pet);
+        }
+
+        return new PetBatch(new ArrayList<Pet>(pets), Collections.<String>emptyList());
+    }
+
+    /**
+     * Gets a Pet by its id
+     *
+     * @param petId  The petId to look for
+     * @param fields The fields to return, null for all the fields
+     * @return An initialized Pet object, null if the Pet could not be found
+     * @throws DAOException
+     */
+    public Pet getPetById(String petId, Set<PetField> fields) throws DAOException {
+        if (petId == null || petId.trim().equals("")) {
+            throw new DAOException("Cannot lookup null or empty petId");
+        }
+
+        return PetField.project(pets.get(petId), fields);
+    }
+
+    /**
+     * Gets a list of pets by their ids
+     *
+     * @param petIds The petIds to look for
+     * @return The pets that were found, no petId is unprocessed
+     * @throws DAOException
+     */
+    public PetBatch getPetsByIds(List<String> petIds) throws DAOException {
+        List<Pet> found = new ArrayList<Pet>(petIds.size());
+        for (String petId : new LinkedHashSet<String>(petIds)) {
+            Pet pet = getPetById(petId, null);
+            if (pet != null) {
+                found.add(pet);
+            }
+        }
+
+        return new PetBatch(found, Collections.<String>emptyList());
+    }
+
+    /**
+     * Returns a page of pets in petId order. The page token has the same format as the DynamoDB implementation.
+     *
+     * @param limit     The maximum number of pets in the page
+     * @param pageToken The token of the previous page, null to start from the first pet
+     * @param fields    The fields to return, null for all the fields
+     * @return A page of Pet objects
+     * @throws DAOException
+     */
+    public PetPage getPets(int limit, String pageToken, Set<PetField> fields) throws DAOException {
+        if (limit <= 0 || limit > DynamoDBConfiguration.SCAN_LIMIT)
+            limit = DynamoDBConfiguration.SCAN_LIMIT;
+
+        Map<String, Pet> remaining = pets;
+        if (pageToken != null) {
+            AttributeValue lastKey = PageTokenHelper.decode(pageToken).get(KEY_ATTRIBUTE);
+            if (lastKey == null) {
+                throw new InvalidPageTokenException("Page token does not match the pets table");
+            }
+            remaining = pets.tailMap(lastKey.getS(), false);
+        }
+
+        List<Pet> page = new ArrayList<Pet>(Math.min(limit, remaining.size()));
+        Iterator<Pet> iterator = remaining.values().iterator();
+        while (iterator.hasNext() && page.size() < limit) {
+            page.add(PetField.project(iterator.next(), fields));
+        }
+
+        String nextPageToken = null;
+        if (iterator.hasNext()) {
+            String lastPetId = page.get(page.size() - 1).getPetId();
+            nextPageToken = PageTokenHelper.encode(
+                    Collections.singletonMap(KEY_ATTRIBUTE, new AttributeValue().withS(lastPetId)));
+        }
+
+        return new PetPage(page, nextPageToken);
+    }
+
+    /**
+     * Returns a page of the pets of a type in petId order. The pets of the other types are skipped, the page token has
+     * the same format as the DynamoDB implementation and includes the type.
+     *
+     * @param petType   The type of the pets to return
+     * @param limit     The maximum number of pets in the page
+     * @param pageToken The token of the previous page for the same type, null to start from the first pet of the type
+     * @param fields    The fields to return, null for all the fields
+     * @return A page of Pet objects
+     * @throws DAOException
+     */
+    public PetPage getPetsByType(String petType, int limit, String pageToken, Set<PetField> fields) throws DAOException {
+        if (petType == null || petType.trim().equals("")) {
+            throw new DAOException("Cannot lookup null or empty pet type");
+        }
+
+        if (limit <= 0 || limit > DynamoDBConfiguration.SCAN_LIMIT)
+            limit = DynamoDBConfiguration.SCAN_LIMIT;
+
+        Map<String, Pet> remaining = pets;
+        if (pageToken != null) {
+            Map<String, AttributeValue> lastKey = PageTokenHelper.decode(pageToken);
+            AttributeValue lastPetId = lastKey.get(KEY_ATTRIBUTE);
+            AttributeValue lastType = lastKey.get(TYPE_ATTRIBUTE);
+            if (lastPetId == null || lastType == null || !petType.equals(lastType.getS())) {
+                throw new InvalidPageTokenException("Page token does not match the pet type index");
+            }
+            remaining = pets.tailMap(lastPetId.getS(), false);
+        }
+
+        List<Pet> page = new ArrayList<Pet>();
+        boolean more = false;
+        for (Pet pet : remaining.values()) {
+            if (!petType.equals(pet.getPetType())) {
+                continue;
+            }
+            if (page.size() == limit) {
+                more = true;
+                break;
+            }
+            page.add(PetField.project(pet, fields));
+        }
+
+        String nextPageToken = null;
+        if (more) {
+            Map<String, AttributeValue> lastKey = new HashMap<String, AttributeValue>();
+            lastKey.put(KEY_ATTRIBUTE, new AttributeValue().withS(page.get(page.size() - 1).getPetId()));
+            lastKey.put(TYPE_ATTRIBUTE, new AttributeValue().withS(petType));
+            nextPageToken = PageTokenHelper.encode(lastKey);
+        }
+
+        return new PetPage(page, nextPageToken);
+    }
+
+    /**
+     * Removes all the pets, for tests that need to start from an empty store
+     */
+    public void clear() {
+        pets.clear();
+    }
+}
@@ -16,6 +16,7 @@ import com.amazonaws.apigatewaydemo.configuration.DynamoDBConfiguration;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAutoGeneratedKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 
 /**
@@ -26,7 +27,7 @@ public class Pet {
     private String petId;
     private String petType;
     private String petName;
-    private int petAge;
+    private Integer petAge;
 
     @DynamoDBAutoGeneratedKey
     @DynamoDBHashKey(attributeName = "petId")
@@ -38,7 +39,7 @@ public class Pet {
         this.petId = petId;
     }
 
-    @DynamoDBAttribute(attributeName = "type")
+    @DynamoDBIndexHashKey(attributeName = "type", globalSecondaryIndexName = DynamoDBConfiguration.PET_TYPE_INDEX_NAME)
     public String getPetType() {
         return petType;
     }
@@ -57,11 +58,11 @@ public class Pet {
     }
 
     @DynamoDBAttribute(attributeName = "age")
-    public int getPetAge() {
+    public Integer getPetAge() {
         return petAge;
     }
 
-    public void setPetAge(int petAge) {
+    public void setPetAge(Integer petAge) {
         this.petAge = petAge;
     }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.pet;
+
+import java.util.List;
+
+/**
+ * The result of a batch read or write returned by the PetDAO. The pets are the ones that were read or written, the
+ * unprocessed petIds are the ones the data store did not process within the retries. A petId that was read and is in
+ * neither list does not exist.
+ */
+public class PetBatch {
+    private final List<Pet> pets;
+    private final List<String> unprocessedPetIds;
+
+    public PetBatch(List<Pet> pets, List<String> unprocessedPetIds) {
+        this.pets = pets;
+        this.unprocessedPetIds = unprocessedPetIds;
+    }
+
+    public List<Pet> getPets() {
+        return pets;
+    }
+
+    public List<String> getUnprocessedPetIds() {
+        return unprocessedPetIds;
+    }
+}
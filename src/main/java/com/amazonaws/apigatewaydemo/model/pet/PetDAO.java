@@ -13,8 +13,10 @@
 package com.amazonaws.apigatewaydemo.model.pet;
 
 import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.exception.InvalidPageTokenException;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * This interface defines the methods required for an implementation of the PetDAO object
@@ -29,14 +31,62 @@ public interface PetDAO {
      */
     String createPet(Pet pet) throws DAOException;
 
+    /**
+     * Creates a list of pets in the data store with as few requests as possible. A petId is assigned to each pet
+     * before it is written, so that the caller can match the unprocessed petIds to its pets. Only the pets that could
+     * not be written because of a transient error, such as throttling, are returned as unprocessed.
+     *
+     * @param pets The pet objects to be created
+     * @return The pets that were written and the petIds of the pets that could not be written
+     * @throws DAOException Whenever an error that is not transient occurs while accessing the data store
+     */
+    PetBatch createPets(List<Pet> pets) throws DAOException;
+
     /**
      * Retrieves a Pet object by its id
      *
-     * @param petId The petId to look for
+     * @param petId  The petId to look for
+     * @param fields The fields to read, see PetField. Null to read all the fields
      * @return An initialized and populated Pet object. If the pet couldn't be found return null
      * @throws DAOException Whenever a data store access error occurs
      */
-    Pet getPetById(String petId) throws DAOException;
+    Pet getPetById(String petId, Set<PetField> fields) throws DAOException;
+
+    /**
+     * Retrieves a list of Pet objects by their ids with as few requests as possible. Only the petIds that could not be
+     * read because of a transient error, such as throttling, are returned as unprocessed.
+     *
+     * @param petIds The petIds to look for, duplicates are read once
+     * @return The pets that were found, in no particular order, and the petIds that could not be read
+     * @throws DAOException Whenever a data store access error that is not transient occurs
+     */
+    PetBatch getPetsByIds(List<String> petIds) throws DAOException;
 
-    List<Pet> getPets(int limit);
+    /**
+     * Returns a page of pets from the data store. Each call reads a single page from the data store, callers continue
+     * from where the previous page ended by passing its next page token.
+     *
+     * @param limit     The maximum number of pets to read for the page
+     * @param pageToken The next page token returned with the previous page, null to start from the beginning
+     * @param fields    The fields to read, see PetField. Null to read all the fields
+     * @return The page of pets. The page may contain fewer pets than the limit even when more pets are available
+     * @throws InvalidPageTokenException If the page token is not valid
+     * @throws DAOException              Whenever a data store access error occurs
+     */
+    PetPage getPets(int limit, String pageToken, Set<PetField> fields) throws DAOException;
+
+    /**
+     * Returns a page of the pets of a type. Only the pets of the type are read from the data store, pages are
+     * requested the same way as with getPets.
+     *
+     * @param petType   The type of the pets to return
+     * @param limit     The maximum number of pets to read for the page
+     * @param pageToken The next page token returned with the previous page for the same type, null to start from the
+     *                  beginning
+     * @param fields    The fields to read, see PetField. Null to read all the fields
+     * @return The page of pets
+     * @throws InvalidPageTokenException If the page token is not valid
+     * @throws DAOException              Whenever a data store access error occurs
+     */
+    PetPage getPetsByType(String petType, int limit, String pageToken, Set<PetField> fields) throws DAOException;
 }
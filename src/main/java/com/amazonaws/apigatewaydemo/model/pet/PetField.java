@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.pet;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The properties of a Pet that a client can ask for, named after the JSON properties of the Pet, with the name of
+ * their DynamoDB attribute. A set of fields is used to read only part of the pets: the other properties of the
+ * returned Pet objects are null and are left out of the response.
+ */
+public enum PetField {
+    petId("petId"),
+    petType("type"),
+    petName("name"),
+    petAge("age");
+
+    private final String attributeName;
+
+    PetField(String attributeName) {
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * Returns the name of the DynamoDB attribute of the field
+     *
+     * @return The attribute name
+     */
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    /**
+     * Parses a comma separated list of fields, such as "petId,petName". The petId is always included so that the
+     * client can identify the pets.
+     *
+     * @param fields The list of fields, null or empty for all the fields
+     * @return The set of fields, null for all the fields
+     * @throws IllegalArgumentException If the list contains an unknown field
+     */
+    public static Set<PetField> parse(String fields) {
+        if (fields == null || fields.trim().equals("")) {
+            return null;
+        }
+
+        Set<PetField> parsed = EnumSet.of(petId);
+        for (String field : fields.split(",")) {
+            if (!field.trim().equals("")) {
+                parsed.add(PetField.valueOf(field.trim()));
+            }
+        }
+        return parsed.size() == values().length ? null : Collections.unmodifiableSet(parsed);
+    }
+
+    /**
+     * Builds the ProjectionExpression that reads a set of fields. Each attribute is referenced through an expression
+     * attribute name, as "name" and "type" are reserved words in DynamoDB.
+     *
+     * @param fields The fields to read
+     * @return The projection expression, such as "#petId, #name"
+     */
+    public static String toProjectionExpression(Set<PetField> fields) {
+        StringBuilder expression = new StringBuilder();
+        for (PetField field : fields) {
+            if (expression.length() > 0) {
+                expression.append(", ");
+            }
+            expression.append('#').append(field.attributeName);
+        }
+        return expression.toString();
+    }
+
+    /**
+     * Returns the expression attribute names used by the projection expression of a set of fields
+     *
+     * @param fields The fields to read
+     * @return The map of placeholders to attribute names
+     */
+    public static Map<String, String> toExpressionAttributeNames(Set<PetField> fields) {
+        Map<String, String> names = new HashMap<String, String>();
+        for (PetField field : fields) {
+            names.put("#" + field.attributeName, field.attributeName);
+        }
+        return names;
+    }
+
+    /**
+     * Copies the fields of a pet
+     *
+     * @param pet    The pet to copy, may be null
+     * @param fields The fields to copy, null for all the fields
+     * @return A new Pet object with only the given fields set, null if the pet is null
+     */
+    public static Pet project(Pet pet, Set<PetField> fields) {
+        if (pet == null) {
+            return null;
+        }
+
+        Pet copy = new Pet();
+        if (fields == null || fields.contains(petId)) {
+            copy.setPetId(pet.getPetId());
+        }
+        if (fields == null || fields.contains(petType)) {
+            copy.setPetType(pet.getPetType());
+        }
+        if (fields == null || fields.contains(petName)) {
+            copy.setPetName(pet.getPetName());
+        }
+        if (fields == null || fields.contains(petAge)) {
+            copy.setPetAge(pet.getPetAge());
+        }
+        return copy;
+    }
+}
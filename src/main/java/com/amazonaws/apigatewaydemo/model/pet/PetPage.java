@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.pet;
+
+import java.util.List;
+
+/**
+ * A page of pets returned by the PetDAO. The next page token is opaque to the caller and is null when there are no
+ * more pets to read.
+ */
+public class PetPage {
+    private final List<Pet> pets;
+    private final String nextPageToken;
+
+    public PetPage(List<Pet> pets, String nextPageToken) {
+        this.pets = pets;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<Pet> getPets() {
+        return pets;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.pet;
+
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records the latency and the errors of each call to another PetDAO implementation against the metrics of the
+ * running action
+ */
+public class TimedPetDAO implements PetDAO {
+    private final PetDAO delegate;
+
+    /**
+     * Creates a new timer in front of the given DAO
+     *
+     * @param delegate The PetDAO used by the actions
+     */
+    public TimedPetDAO(PetDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    public String createPet(Pet pet) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.createPet(pet);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+
+    public PetBatch createPets(List<Pet> pets) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.createPets(pets);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+
+    public Pet getPetById(String petId, Set<PetField> fields) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPetById(petId, fields);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+
+    public PetBatch getPetsByIds(List<String> petIds) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPetsByIds(petIds);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+
+    public PetPage getPets(int limit, String pageToken, Set<PetField> fields) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPets(limit, pageToken, fields);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+
+    public PetPage getPetsByType(String petType, int limit, String pageToken, Set<PetField> fields) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPetsByType(petType, limit, pageToken, fields);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.user;
+
+import com.amazonaws.apigatewaydemo.configuration.DAOConfiguration;
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.helper.Deadline;
+import com.amazonaws.apigatewaydemo.helper.SingleFlight;
+import com.amazonaws.apigatewaydemo.metrics.CounterSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * UserDAO decorator that coalesces concurrent reads of the same user. While a getUserByName call is in flight, the
+ * calls for the same username wait for it and return the same User object, or fail with the same exception, instead
+ * of sending their own request. Writes are passed to the underlying DAO.
+ * <p/>
+ * Callers receive a shared User instance and should not modify it, password updates are written through a new User
+ * object.
+ */
+public class CoalescingUserDAO implements UserDAO, CounterSource {
+    private final UserDAO delegate;
+    private final SingleFlight<String, User, DAOException> flights;
+
+    /**
+     * Creates a new coalescing layer in front of the given DAO
+     *
+     * @param delegate The UserDAO that reads and writes the data store
+     */
+    public CoalescingUserDAO(UserDAO delegate) {
+        this.delegate = delegate;
+        this.flights = new SingleFlight<String, User, DAOException>(
+                DAOException.class, DAOConfiguration.COALESCING_WAIT_TIMEOUT_MS);
+    }
+
+    /**
+     * Returns the user from the read in flight for the same username, or reads it from the underlying DAO
+     *
+     * @param username The username to search for
+     * @return A populated User object if the user was found, null otherwise
+     * @throws DAOException If the read fails, or if the read in flight does not complete within the wait
+     *                      timeout or before the deadline of the request
+     */
+    public User getUserByName(final String username) throws DAOException {
+        if (username == null) {
+            return delegate.getUserByName(username);
+        }
+
+        try {
+            return flights.execute(username, new SingleFlight.Loader<User, DAOException>() {
+                public User load() throws DAOException {
+                    return delegate.getUserByName(username);
+                }
+            }, Deadline.current().bound(DAOConfiguration.COALESCING_WAIT_TIMEOUT_MS));
+        } catch (final TimeoutException e) {
+            throw new DAOException("Timed out waiting for user " + username, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DAOException("Interrupted while waiting for user " + username, e);
+        }
+    }
+
+    public String createUser(User user) throws DAOException {
+        return delegate.createUser(user);
+    }
+
+    public void updateUser(User user) throws DAOException {
+        delegate.updateUser(user);
+    }
+
+    /**
+     * Returns the number of reads sent and of reads coalesced, written to the function log by the Metrics class
+     *
+     * @return The counters by name
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<String, Long>();
+        counters.put("reads", getExecutions());
+        counters.put("coalesced", getShared());
+        return counters;
+    }
+
+    /**
+     * Returns the number of reads sent to the underlying DAO
+     *
+     * @return The number of reads
+     */
+    public long getExecutions() {
+        return flights.getExecutions();
+    }
+
+    /**
+     * Returns the number of reads that shared the result of a read in flight
+     *
+     * @return The number of coalesced reads
+     */
+    public long getShared() {
+        return flights.getShared();
+    }
+}
@@ -13,9 +13,15 @@
 package com.amazonaws.apigatewaydemo.model.user;
 
 import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.exception.UsernameTakenException;
+import com.amazonaws.apigatewaydemo.model.DynamoDBClientRegistry;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
 
 /**
  * DynamoDB implementation of the UserDAO interface. This class reads the configuration from the DyanmoDBConfiguration
@@ -27,9 +33,10 @@ import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 public class DDBUserDAO implements UserDAO {
     private static DDBUserDAO instance = null;
 
-    // credentials for the client come from the environment variables pre-configured by Lambda. These are tied to the
-    // Lambda function execution role.
-    private static AmazonDynamoDBClient ddbClient = new AmazonDynamoDBClient();
+    // new users are written with a PutItem request instead of the default UpdateItem
+    private static final DynamoDBMapperConfig CREATE_CONFIG = new DynamoDBMapperConfig(DynamoDBMapperConfig.SaveBehavior.CLOBBER);
+    // updates only write the attributes that are set
+    private static final DynamoDBMapperConfig UPDATE_CONFIG = new DynamoDBMapperConfig(DynamoDBMapperConfig.SaveBehavior.UPDATE_SKIP_NULL_ATTRIBUTES);
 
     /**
      * Returns an initialized instance of the DDBUserDAO object. DAO objects should be retrieved through the DAOFactory
@@ -65,10 +72,12 @@ public class DDBUserDAO implements UserDAO {
     }
 
     /**
-     * Inserts a new row in the DynamoDB users table.
+     * Inserts a new row in the DynamoDB users table. The row is written with a single conditional put that fails if
+     * the username already exists.
      *
      * @param user The new user information
      * @return The username that was just inserted in DynamoDB
+     * @throws UsernameTakenException If the username already exists in the table
      * @throws DAOException
      */
     public String createUser(User user) throws DAOException {
@@ -76,21 +85,44 @@ public class DDBUserDAO implements UserDAO {
             throw new DAOException("Cannot create user with empty username");
         }
 
-        if (getUserByName(user.getUsername()) != null) {
-            throw new DAOException("Username must be unique");
+        DynamoDBSaveExpression expression = new DynamoDBSaveExpression()
+                .withExpectedEntry("username", new ExpectedAttributeValue(false));
+        try {
+            DynamoDBClientRegistry.getMapper(CREATE_CONFIG).save(user, expression);
+        } catch (final ConditionalCheckFailedException e) {
+            throw new UsernameTakenException("Username must be unique", e);
         }
 
-        getMapper().save(user);
-
         return user.getUsername();
     }
 
     /**
-     * Returns a DynamoDBMapper object initialized with the default DynamoDB client
+     * Updates an existing row in the DynamoDB users table. Attributes that are null in the User object are left
+     * unchanged and the write fails if the username does not exist.
+     *
+     * @param user The user information
+     * @throws DAOException
+     */
+    public void updateUser(User user) throws DAOException {
+        if (user.getUsername() == null || user.getUsername().trim().equals("")) {
+            throw new DAOException("Cannot update user with empty username");
+        }
+
+        DynamoDBSaveExpression expression = new DynamoDBSaveExpression()
+                .withExpectedEntry("username", new ExpectedAttributeValue(new AttributeValue().withS(user.getUsername())));
+        try {
+            DynamoDBClientRegistry.getMapper(UPDATE_CONFIG).save(user, expression);
+        } catch (final ConditionalCheckFailedException e) {
+            throw new DAOException("User does not exist", e);
+        }
+    }
+
+    /**
+     * Returns the DynamoDBMapper shared by the DAO objects, see DynamoDBClientRegistry
      *
      * @return An initialized DynamoDBMapper
      */
     protected DynamoDBMapper getMapper() {
-        return new DynamoDBMapper(ddbClient);
+        return DynamoDBClientRegistry.getMapper();
     }
 }
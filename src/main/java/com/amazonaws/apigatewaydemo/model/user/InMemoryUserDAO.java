@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.user;
+
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.exception.UsernameTakenException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory implementation of the UserDAO interface, used for local and load tests in place of the DynamoDB tables.
+ * Users are kept in a concurrent map keyed by username: creating a user is an atomic putIfAbsent, so usernames are
+ * unique like with the conditional write of the DynamoDB implementation. The DAO stores and returns copies of the
+ * User objects.
+ * <p/>
+ * The data lives as long as the container or JVM. This class is a singleton and should be accessed through the
+ * DAOFactory.
+ */
+public class InMemoryUserDAO implements UserDAO {
+    private static InMemoryUserDAO instance = null;
+
+    private final ConcurrentMap<String, User> users = new ConcurrentHashMap<String, User>();
+
+    /**
+     * Returns an initialized instance of the InMemoryUserDAO object. DAO objects should be retrieved through the
+     * DAOFactory class
+     *
+     * @return An initialized instance of the InMemoryUserDAO object
+     */
+    public static synchronized InMemoryUserDAO getInstance() {
+        if (instance == null) {
+            instance = new InMemoryUserDAO();
+        }
+
+        return instance;
+    }
+
+    protected InMemoryUserDAO() {
+        // prevents instantiation
+    }
+
+    /**
+     * Finds a user by its username
+     *
+     * @param username The username to search for
+     * @return A populated User object, null if the user was not found
+     * @throws DAOException
+     */
+    public User getUserByName(String username) throws DAOException {
+        if (username == null || username.trim().equals("")) {
+            throw new DAOException("Cannot lookup null or empty user");
+        }
+
+        User user = users.get(username);
+        return user == null ? null : copy(user, null);
+    }
+
+    /**
+     * Stores a new user if the username is not already in use
+     *
+     * @param user The new user information
+     * @return The username of the new user
+     * @throws UsernameTakenException If the username already exists
+     * @throws DAOException
+     */
+    public String createUser(User user) throws DAOException {
+        if (user.getUsername() == null || user.getUsername().trim().equals("")) {
+            throw new DAOException("Cannot create user with empty username");
+        }
+
+        if (users.putIfAbsent(user.getUsername(), copy(user, null)) != null) {
+            throw new UsernameTakenException("Username must be unique");
+        }
+
+        return user.getUsername();
+    }
+
+    /**
+     * Updates an existing user. Attributes that are null in the User object are left unchanged.
+     *
+     * @param user The user information
+     * @throws DAOException If the user does not exist
+     */
+    public void updateUser(User user) throws DAOException {
+        if (user.getUsername() == null || user.getUsername().trim().equals("")) {
+            throw new DAOException("Cannot update user with empty username");
+        }
+
+        while (true) {
+            User existing = users.get(user.getUsername());
+            if (existing == null) {
+                throw new DAOException("User does not exist");
+            }
+            if (users.replace(user.getUsername(), existing, copy(user, existing))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes all the users, for tests that need to start from an empty store
+     */
+    public void clear() {
+        users.clear();
+    }
+
+    /**
+     * Copies a user, taking the attributes that are null from a base user
+     *
+     * @param user The user to copy
+     * @param base The user providing the missing attributes, null for a plain copy
+     * @return The new User object
+     */
+    private static User copy(User user, User base) {
+        User copy = new User();
+        copy.setUsername(user.getUsername());
+        copy.setPassword(copy(user.getPassword() != null || base == null ? user.getPassword() : base.getPassword()));
+        copy.setSalt(copy(user.getSalt() != null || base == null ? user.getSalt() : base.getSalt()));
+        copy.setPasswordSpec(user.getPasswordSpec() != null || base == null ? user.getPasswordSpec() : base.getPasswordSpec());
+        String identityId = user.getCognitoIdentityId() != null || base == null ? user.getCognitoIdentityId() : base.getCognitoIdentityId();
+        if (identityId != null) {
+            copy.setCognitoIdentityId(identityId);
+        }
+        return copy;
+    }
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        if (buffer == null) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+}
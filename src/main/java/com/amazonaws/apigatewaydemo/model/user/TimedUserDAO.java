@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.model.user;
+
+import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+
+/**
+ * Records the latency and the errors of each call to another UserDAO implementation against the metrics of the
+ * running action
+ */
+public class TimedUserDAO implements UserDAO {
+    private final UserDAO delegate;
+
+    /**
+     * Creates a new timer in front of the given DAO
+     *
+     * @param delegate The UserDAO used by the actions
+     */
+    public TimedUserDAO(UserDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    public User getUserByName(String username) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getUserByName(username);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+
+    public String createUser(User user) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.createUser(user);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+
+    public void updateUser(User user) throws DAOException {
+        long start = System.nanoTime();
+        try {
+            delegate.updateUser(user);
+        } catch (final DAOException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.DAO, System.nanoTime() - start);
+        }
+    }
+}
@@ -25,6 +25,7 @@ public class User {
     private String username;
     private ByteBuffer password;
     private ByteBuffer salt;
+    private String passwordSpec;
     private UserIdentity identity;
 
     public User() {
@@ -58,6 +59,21 @@ public class User {
         this.salt = salt;
     }
 
+    /**
+     * The parameters the password was encrypted with, see PasswordSpec. Null for users created before the parameters
+     * were stored, their passwords use the legacy parameters.
+     *
+     * @return The formatted PasswordSpec
+     */
+    @DynamoDBAttribute(attributeName = "passwordSpec")
+    public String getPasswordSpec() {
+        return passwordSpec;
+    }
+
+    public void setPasswordSpec(String passwordSpec) {
+        this.passwordSpec = passwordSpec;
+    }
+
     @DynamoDBAttribute(attributeName = "identityId")
     public String getCognitoIdentityId() {
         if (this.identity == null) {
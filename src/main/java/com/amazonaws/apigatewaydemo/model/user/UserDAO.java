@@ -13,6 +13,7 @@
 package com.amazonaws.apigatewaydemo.model.user;
 
 import com.amazonaws.apigatewaydemo.exception.DAOException;
+import com.amazonaws.apigatewaydemo.exception.UsernameTakenException;
 
 /**
  * This interface defines the methods required for an implementation of the UserDAO object
@@ -28,11 +29,21 @@ public interface UserDAO {
     User getUserByName(String username) throws DAOException;
 
     /**
-     * Creates a new user in the data store
+     * Creates a new user in the data store. The user is only created if the username is not already in use, the check
+     * and the write must be a single atomic operation.
      *
      * @param user The new user information
      * @return The username of the user that was created
+     * @throws UsernameTakenException If a user with the same username already exists
      * @throws DAOException
      */
     String createUser(User user) throws DAOException;
+
+    /**
+     * Updates an existing user in the data store, for example after the password was encrypted again
+     *
+     * @param user The user information, the username identifies the user to update
+     * @throws DAOException If the user does not exist or the data store cannot be accessed
+     */
+    void updateUser(User user) throws DAOException;
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.provider;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.apigatewaydemo.configuration.CacheConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.CognitoConfiguration;
+import com.amazonaws.apigatewaydemo.exception.AuthorizationException;
+import com.amazonaws.apigatewaydemo.helper.ExpiringCache;
+import com.amazonaws.apigatewaydemo.metrics.CounterSource;
+import com.amazonaws.apigatewaydemo.model.user.User;
+import com.amazonaws.apigatewaydemo.model.user.UserCredentials;
+import com.amazonaws.apigatewaydemo.model.user.UserIdentity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the identity and temporary credentials returned by another CredentialsProvider, keyed by the Cognito identity
+ * id of the user. A user that logs in again while the cached credentials are still valid gets them back without any
+ * call to Cognito.
+ * <p/>
+ * Entries expire CREDENTIALS_EXPIRATION_MARGIN_MS before the credentials, or before the OpenID token returned with
+ * them, whichever comes first. During the CREDENTIALS_REFRESH_AHEAD_MS before that the credentials are requested
+ * again; if the request fails the cached credentials are returned. Users without an identity id, such as new users
+ * being registered, always go to the underlying provider.
+ */
+public class CachingCredentialsProvider implements CredentialsProvider, CounterSource {
+    private final CredentialsProvider delegate;
+    private final ExpiringCache<String, CachedCredentials> cache;
+
+    /**
+     * Creates a new cache in front of the given provider
+     *
+     * @param delegate The CredentialsProvider that calls Cognito
+     */
+    public CachingCredentialsProvider(CredentialsProvider delegate) {
+        this.delegate = delegate;
+        this.cache = new ExpiringCache<String, CachedCredentials>(CacheConfiguration.CREDENTIALS_CACHE_MAX_SIZE);
+    }
+
+    /**
+     * Returns the cached credentials if they were issued for the OpenID token in the user identity, otherwise requests
+     * new credentials from the underlying provider and caches them.
+     *
+     * @param user The end user object. The identity property in the User object needs to be populated with a valid
+     *             identityId and openID Token
+     * @return A valid set of temporary AWS credentials
+     * @throws AuthorizationException
+     */
+    public UserCredentials getUserCredentials(User user) throws AuthorizationException {
+        String identityId = getIdentityId(user);
+        if (identityId == null || user.getIdentity().getOpenIdToken() == null) {
+            return delegate.getUserCredentials(user);
+        }
+
+        ExpiringCache.Entry<CachedCredentials> entry = cache.get(identityId);
+        if (entry != null && user.getIdentity().getOpenIdToken().equals(entry.getValue().identity.getOpenIdToken())) {
+            return entry.getValue().credentials;
+        }
+
+        // the identity was just requested from Cognito, its token is valid for the configured duration from now
+        long tokenExpiration = System.currentTimeMillis() + CognitoConfiguration.OPENID_TOKEN_DURATION_MS;
+
+        UserCredentials credentials = delegate.getUserCredentials(user);
+        long expiresAt = Math.min(credentials.getExpiration(), tokenExpiration)
+                - CacheConfiguration.CREDENTIALS_EXPIRATION_MARGIN_MS;
+        if (expiresAt > System.currentTimeMillis()) {
+            cache.putUntil(identityId, new CachedCredentials(user.getIdentity(), credentials), expiresAt);
+        }
+
+        return credentials;
+    }
+
+    /**
+     * Returns the cached identity of the user unless it is due for a refresh, otherwise requests a new OpenID token from
+     * the underlying provider.
+     *
+     * @param user The user that is logging in or registering
+     * @return A populated UserIdentity object
+     * @throws AuthorizationException
+     */
+    public UserIdentity getUserIdentity(User user) throws AuthorizationException {
+        String identityId = getIdentityId(user);
+        if (identityId == null) {
+            return delegate.getUserIdentity(user);
+        }
+
+        long now = System.currentTimeMillis();
+        ExpiringCache.Entry<CachedCredentials> entry = cache.get(identityId, now);
+        if (entry != null && now < entry.getExpiresAt() - CacheConfiguration.CREDENTIALS_REFRESH_AHEAD_MS) {
+            return entry.getValue().identity;
+        }
+
+        try {
+            return delegate.getUserIdentity(user);
+        } catch (final AuthorizationException | AmazonClientException e) {
+            if (entry != null) {
+                // the cached credentials are still valid, use them until the next refresh attempt
+                return entry.getValue().identity;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Removes the cached credentials of an identity
+     *
+     * @param identityId The Cognito identity id
+     */
+    public void invalidate(String identityId) {
+        cache.invalidate(identityId);
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the cache, written to the function log by the Metrics class
+     *
+     * @return The counters by name
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<String, Long>();
+        counters.put("hits", getHits());
+        counters.put("misses", getMisses());
+        counters.put("evictions", getEvictions());
+        return counters;
+    }
+
+    /**
+     * Returns the number of lookups served from the cache
+     *
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    /**
+     * Returns the number of lookups that had to go to the underlying provider
+     *
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Returns the number of entries removed because the cache was full or because they expired
+     *
+     * @return The number of evictions
+     */
+    public long getEvictions() {
+        return cache.getEvictions();
+    }
+
+    private static String getIdentityId(User user) {
+        if (user == null || user.getIdentity() == null) {
+            return null;
+        }
+
+        String identityId = user.getCognitoIdentityId();
+        if (identityId == null || identityId.trim().equals("")) {
+            return null;
+        }
+        return identityId;
+    }
+
+    private static class CachedCredentials {
+        private final UserIdentity identity;
+        private final UserCredentials credentials;
+
+        private CachedCredentials(UserIdentity identity, UserCredentials credentials) {
+            this.identity = identity;
+            this.credentials = credentials;
+        }
+    }
+}
@@ -12,8 +12,19 @@
  */
 package com.amazonaws.apigatewaydemo.provider;
 
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.apigatewaydemo.client.DeadlineRequestHandler;
+import com.amazonaws.apigatewaydemo.client.DeadlineRetryPolicy;
+import com.amazonaws.apigatewaydemo.client.RequestNotSentException;
+import com.amazonaws.apigatewaydemo.client.RetryStrategy;
 import com.amazonaws.apigatewaydemo.configuration.CognitoConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ExceptionMessages;
+import com.amazonaws.apigatewaydemo.configuration.RetryConfiguration;
 import com.amazonaws.apigatewaydemo.exception.AuthorizationException;
+import com.amazonaws.apigatewaydemo.exception.ProviderUnavailableException;
+import com.amazonaws.apigatewaydemo.helper.CircuitBreaker;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
 import com.amazonaws.apigatewaydemo.model.user.UserCredentials;
 import com.amazonaws.apigatewaydemo.model.user.UserIdentity;
 import com.amazonaws.apigatewaydemo.model.user.User;
@@ -22,15 +33,28 @@ import com.amazonaws.services.cognitoidentity.model.GetCredentialsForIdentityReq
 import com.amazonaws.services.cognitoidentity.model.GetCredentialsForIdentityResult;
 import com.amazonaws.services.cognitoidentity.model.GetOpenIdTokenForDeveloperIdentityRequest;
 import com.amazonaws.services.cognitoidentity.model.GetOpenIdTokenForDeveloperIdentityResult;
+import com.amazonaws.retry.RetryUtils;
 
 /**
  * Cognito implementation of the CredentialsProvider interface. The configuration for the Cognito credentials provider
- * is in the CognitoConfiguration class in the com.amazonaws.apigatewaydemo.configuration package
+ * is in the CognitoConfiguration class in the com.amazonaws.apigatewaydemo.configuration package. Like the DynamoDB
+ * client, the Cognito client does not start a request, or a retry, that could not complete before the deadline of
+ * the action, and it retries failed requests with its own RetryStrategy.
+ * <p/>
+ * The calls go through a CircuitBreaker configured in the CognitoConfiguration class. While Cognito keeps failing the
+ * calls fail fast with a ProviderUnavailableException rather than holding the function until they time out.
  */
 public class CognitoCredentialsProvider implements CredentialsProvider {
     private static CognitoCredentialsProvider instance = null;
 
-    private static AmazonCognitoIdentityClient identityClient = new AmazonCognitoIdentityClient();
+    private static final RetryStrategy retryStrategy = new RetryStrategy(Phase.COGNITO, RetryConfiguration.COGNITO_BASE_DELAY_MS);
+
+    private static AmazonCognitoIdentityClient identityClient = createClient();
+
+    private static final CircuitBreaker circuitBreaker = CognitoConfiguration.CIRCUIT_FAILURE_THRESHOLD > 0
+            ? new CircuitBreaker(Phase.COGNITO, CognitoConfiguration.CIRCUIT_FAILURE_THRESHOLD,
+            CognitoConfiguration.CIRCUIT_OPEN_MS, CognitoConfiguration.CIRCUIT_HALF_OPEN_PROBES)
+            : null;
 
     /**
      * Gets the initialized instance of the CognitoCredentialsProvider. This provider should be accessed through the
@@ -49,13 +73,24 @@ public class CognitoCredentialsProvider implements CredentialsProvider {
         // protected constructor that should not be called outside the class
     }
 
+    private static AmazonCognitoIdentityClient createClient() {
+        ClientConfiguration configuration = new ClientConfiguration();
+        configuration.setRetryPolicy(DeadlineRetryPolicy.wrap(retryStrategy.getRetryPolicy()));
+
+        AmazonCognitoIdentityClient client = new AmazonCognitoIdentityClient(configuration);
+        client.addRequestHandler(new DeadlineRequestHandler());
+        client.addRequestHandler(retryStrategy.getRequestHandler());
+        return client;
+    }
+
     /**
      * Retreives a set of AWS temporary credentials from Amazon Cognito using Developer Authenticated Identities.
      *
      * @param user The end user object. The identity property in the User object needs to be populated with a valid
      *             identityId and openID Token
      * @return A valid set of temporary AWS credentials
-     * @throws AuthorizationException
+     * @throws AuthorizationException       If the user does not have an identity
+     * @throws ProviderUnavailableException If the circuit breaker is open
      */
     public UserCredentials getUserCredentials(User user) throws AuthorizationException {
         if (user == null || user.getCognitoIdentityId() == null || user.getCognitoIdentityId().trim().equals("")) {
@@ -69,7 +104,15 @@ public class CognitoCredentialsProvider implements CredentialsProvider {
                 user.getIdentity().getOpenIdToken()
         );
 
-        GetCredentialsForIdentityResult resp = identityClient.getCredentialsForIdentity(credsRequest);
+        acquire();
+        GetCredentialsForIdentityResult resp;
+        try {
+            resp = identityClient.getCredentialsForIdentity(credsRequest);
+            onSuccess();
+        } catch (final RuntimeException e) {
+            onFailure(e);
+            throw e;
+        }
         if (resp == null) {
             throw new AuthorizationException("Empty GetCredentialsForIdentity response");
         }
@@ -90,7 +133,8 @@ public class CognitoCredentialsProvider implements CredentialsProvider {
      *
      * @param user The user that is logging in or registering
      * @return A populated UserIdentity object.
-     * @throws AuthorizationException
+     * @throws AuthorizationException       If the user is not valid
+     * @throws ProviderUnavailableException If the circuit breaker is open
      */
     public UserIdentity getUserIdentity(User user) throws AuthorizationException {
         if (user == null || user.getUsername() == null || user.getUsername().trim().equals("")) {
@@ -108,7 +152,15 @@ public class CognitoCredentialsProvider implements CredentialsProvider {
                 user.getUsername()
         );
 
-        GetOpenIdTokenForDeveloperIdentityResult resp = identityClient.getOpenIdTokenForDeveloperIdentity(oidcRequest);
+        acquire();
+        GetOpenIdTokenForDeveloperIdentityResult resp;
+        try {
+            resp = identityClient.getOpenIdTokenForDeveloperIdentity(oidcRequest);
+            onSuccess();
+        } catch (final RuntimeException e) {
+            onFailure(e);
+            throw e;
+        }
 
         if (resp == null) {
             throw new AuthorizationException("Empty GetOpenIdTokenForDeveloperIdentity response");
@@ -119,4 +171,47 @@ public class CognitoCredentialsProvider implements CredentialsProvider {
         identity.setOpenIdToken(resp.getToken());
         return identity;
     }
+
+    /**
+     * Returns the state of the circuit breaker
+     *
+     * @return The state, CLOSED when the circuit breaker is disabled
+     */
+    public static CircuitBreaker.State getCircuitState() {
+        return circuitBreaker == null ? CircuitBreaker.State.CLOSED : circuitBreaker.getState();
+    }
+
+    private static void acquire() throws ProviderUnavailableException {
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            throw new ProviderUnavailableException(ExceptionMessages.EX_COGNITO_UNAVAILABLE);
+        }
+    }
+
+    private static void onSuccess() {
+        if (circuitBreaker != null) {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    /**
+     * Reports a failed Cognito call to the circuit breaker. Errors caused by the request, such as an unknown identity,
+     * show that Cognito is answering and count as successes, requests that were not sent don't count at all.
+     *
+     * @param e The exception thrown by the client
+     */
+    private static void onFailure(RuntimeException e) {
+        if (circuitBreaker == null) {
+            return;
+        }
+
+        if (e instanceof RequestNotSentException) {
+            circuitBreaker.release();
+        } else if (e instanceof AmazonServiceException
+                && ((AmazonServiceException) e).getErrorType() != AmazonServiceException.ErrorType.Service
+                && !RetryUtils.isThrottlingException((AmazonServiceException) e)) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
 }
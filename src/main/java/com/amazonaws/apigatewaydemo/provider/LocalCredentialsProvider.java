@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.provider;
+
+import com.amazonaws.apigatewaydemo.exception.AuthorizationException;
+import com.amazonaws.apigatewaydemo.model.user.User;
+import com.amazonaws.apigatewaydemo.model.user.UserCredentials;
+import com.amazonaws.apigatewaydemo.model.user.UserIdentity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * A CredentialsProvider that never leaves the JVM, used with the InMemory DAOs for local and load tests. The identity
+ * id is derived from the username so that a user keeps the same identity, tokens and credentials are random values
+ * that are not valid AWS credentials.
+ */
+public class LocalCredentialsProvider implements CredentialsProvider {
+    private static final String IDENTITY_PREFIX = "local:";
+    private static final long CREDENTIALS_DURATION_MS = 60 * 60 * 1000;
+
+    private static LocalCredentialsProvider instance = null;
+
+    /**
+     * Gets the initialized instance of the LocalCredentialsProvider. This provider should be accessed through the
+     * ProviderFactory and used through the CredentialsProvider interface.
+     *
+     * @return The singleton instance of the LocalCredentialsProvider object
+     */
+    public static synchronized LocalCredentialsProvider getInstance() {
+        if (instance == null) {
+            instance = new LocalCredentialsProvider();
+        }
+        return instance;
+    }
+
+    protected LocalCredentialsProvider() {
+        // protected constructor that should not be called outside the class
+    }
+
+    /**
+     * Returns a set of fake temporary credentials valid for one hour
+     *
+     * @param user The end user object, with a populated identity
+     * @return A populated UserCredentials object
+     * @throws AuthorizationException
+     */
+    public UserCredentials getUserCredentials(User user) throws AuthorizationException {
+        if (user == null || user.getCognitoIdentityId() == null || user.getCognitoIdentityId().trim().equals("")) {
+            throw new AuthorizationException("Invalid user");
+        }
+
+        UserCredentials creds = new UserCredentials();
+        creds.setAccessKey("LOCAL" + randomToken().substring(0, 15).toUpperCase());
+        creds.setSecretKey(randomToken());
+        creds.setSessionToken(randomToken());
+        creds.setExpiration(System.currentTimeMillis() + CREDENTIALS_DURATION_MS);
+
+        return creds;
+    }
+
+    /**
+     * Returns an identity derived from the username and a random token
+     *
+     * @param user The user that is logging in or registering
+     * @return A populated UserIdentity object
+     * @throws AuthorizationException
+     */
+    public UserIdentity getUserIdentity(User user) throws AuthorizationException {
+        if (user == null || user.getUsername() == null || user.getUsername().trim().equals("")) {
+            throw new AuthorizationException("Invalid user");
+        }
+
+        UserIdentity identity = new UserIdentity();
+        identity.setIdentityId(IDENTITY_PREFIX
+                + UUID.nameUUIDFromBytes(user.getUsername().getBytes(StandardCharsets.UTF_8)));
+        identity.setOpenIdToken(randomToken());
+        return identity;
+    }
+
+    private static String randomToken() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -12,6 +12,11 @@
  */
 package com.amazonaws.apigatewaydemo.provider;
 
+import com.amazonaws.apigatewaydemo.configuration.CacheConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ConfigurationHelper;
+import com.amazonaws.apigatewaydemo.configuration.ProviderConfiguration;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+
 /**
  * Factory object to create providers
  */
@@ -20,16 +25,25 @@ public class ProviderFactory {
      * List of available credentials providers
      */
     public enum CredentialsProviderType {
-        Cognito
+        Cognito,
+        Local
     }
 
+    /**
+     * The provider returned by default, configured in the ProviderConfiguration class. An unknown type falls back to
+     * Cognito rather than failing the initialization of the factory
+     */
+    public static final CredentialsProviderType DEFAULT_TYPE = ConfigurationHelper.getEnum(CredentialsProviderType.class,
+            ProviderConfiguration.CREDENTIALS_PROVIDER, CredentialsProviderType.Cognito);
+
     /**
      * Gets the default CredentialsProvider implementation
      *
-     * @return An initialized CognitoCredentialsProvider
+     * @return By default an initialized CognitoCredentialsProvider, behind the per-container credentials cache if it is enabled in
+     * the CacheConfiguration class
      */
     public static CredentialsProvider getCredentialsProvider() {
-        return getCredentialsProvider(CredentialsProviderType.Cognito);
+        return getCredentialsProvider(DEFAULT_TYPE);
     }
 
     /**
@@ -42,10 +56,31 @@ public class ProviderFactory {
         CredentialsProvider provider = null;
         switch (type) {
             case Cognito:
-                provider = CognitoCredentialsProvider.getInstance();
+                provider = CognitoProviderHolder.instance;
+                break;
+            case Local:
+                provider = LocalProviderHolder.instance;
                 break;
         }
 
         return provider;
     }
+
+    /**
+     * Lazily creates the Cognito provider and its credentials cache the first time they are requested. Calls are timed
+     * as the actions see them, cache hits included. The counters of the cache are registered with the Metrics
+     */
+    private static class CognitoProviderHolder {
+        private static final CredentialsProvider instance = new TimedCredentialsProvider(
+                CacheConfiguration.CREDENTIALS_CACHE_ENABLED
+                        ? Metrics.register("credentialsCache", new CachingCredentialsProvider(CognitoCredentialsProvider.getInstance()))
+                        : CognitoCredentialsProvider.getInstance());
+    }
+
+    /**
+     * Lazily creates the timed Local provider the first time it is requested
+     */
+    private static class LocalProviderHolder {
+        private static final CredentialsProvider instance = new TimedCredentialsProvider(LocalCredentialsProvider.getInstance());
+    }
 }
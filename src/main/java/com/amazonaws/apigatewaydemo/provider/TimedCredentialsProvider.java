@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.provider;
+
+import com.amazonaws.apigatewaydemo.exception.AuthorizationException;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+import com.amazonaws.apigatewaydemo.model.user.User;
+import com.amazonaws.apigatewaydemo.model.user.UserCredentials;
+import com.amazonaws.apigatewaydemo.model.user.UserIdentity;
+
+/**
+ * Records the latency and the errors of each call to another CredentialsProvider against the metrics of the running
+ * action
+ */
+public class TimedCredentialsProvider implements CredentialsProvider {
+    private final CredentialsProvider delegate;
+
+    /**
+     * Creates a new timer in front of the given provider
+     *
+     * @param delegate The CredentialsProvider used by the actions
+     */
+    public TimedCredentialsProvider(CredentialsProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    public UserCredentials getUserCredentials(User user) throws AuthorizationException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getUserCredentials(user);
+        } catch (final AuthorizationException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.COGNITO, System.nanoTime() - start);
+        }
+    }
+
+    public UserIdentity getUserIdentity(User user) throws AuthorizationException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getUserIdentity(user);
+        } catch (final AuthorizationException e) {
+            Metrics.recordError(e);
+            throw e;
+        } finally {
+            Metrics.record(Phase.COGNITO, System.nanoTime() - start);
+        }
+    }
+}
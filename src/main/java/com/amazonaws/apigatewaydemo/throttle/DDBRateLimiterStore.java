@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.throttle;
+
+import com.amazonaws.apigatewaydemo.configuration.DynamoDBConfiguration;
+import com.amazonaws.apigatewaydemo.configuration.ThrottleConfiguration;
+import com.amazonaws.apigatewaydemo.model.DynamoDBClientRegistry;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the token buckets in a DynamoDB table so that all the containers of the function share them. The table
+ * should be created with a Hash Key of type string called bucketKey, and the expiresAt attribute can be used as the
+ * table's time to live attribute to remove buckets that are full again.
+ * <p/>
+ * A bucket is read with a consistent read and written back with a conditional put that fails if another container
+ * updated it in the meantime, in which case the update is retried.
+ */
+public class DDBRateLimiterStore implements RateLimiterStore {
+    private static final String KEY_ATTRIBUTE = "bucketKey";
+    private static final String TOKENS_ATTRIBUTE = "tokens";
+    private static final String UPDATED_AT_ATTRIBUTE = "updatedAt";
+    private static final String EXPIRES_AT_ATTRIBUTE = "expiresAt";
+
+    /**
+     * Takes a token from the bucket stored in DynamoDB. Attempts that keep losing the race for the same bucket are
+     * rejected, many concurrent requests for the same key are what the limiter is meant to stop.
+     *
+     * @param key   The key of the bucket
+     * @param limit The capacity and refill rate of the bucket
+     * @param now   The current time in milliseconds
+     * @return True if a token was taken, false if the bucket is empty
+     */
+    public boolean tryConsume(String key, RateLimit limit, long now) {
+        Map<String, AttributeValue> itemKey = Collections.singletonMap(KEY_ATTRIBUTE, new AttributeValue().withS(key));
+
+        for (int attempt = 0; attempt < ThrottleConfiguration.DYNAMODB_MAX_ATTEMPTS; attempt++) {
+            Map<String, AttributeValue> item = DynamoDBClientRegistry.getClient().getItem(new GetItemRequest()
+                    .withTableName(DynamoDBConfiguration.THROTTLE_TABLE_NAME)
+                    .withKey(itemKey)
+                    .withConsistentRead(true)).getItem();
+
+            double tokens = limit.getCapacity();
+            long updatedAt = now;
+            Map<String, ExpectedAttributeValue> expected = new HashMap<String, ExpectedAttributeValue>();
+            if (item == null) {
+                expected.put(KEY_ATTRIBUTE, new ExpectedAttributeValue(false));
+            } else {
+                tokens = Double.parseDouble(item.get(TOKENS_ATTRIBUTE).getN());
+                updatedAt = Long.parseLong(item.get(UPDATED_AT_ATTRIBUTE).getN());
+                expected.put(UPDATED_AT_ATTRIBUTE, new ExpectedAttributeValue(item.get(UPDATED_AT_ATTRIBUTE)));
+            }
+
+            tokens = limit.refill(tokens, updatedAt, now);
+            if (tokens < 1) {
+                return false;
+            }
+
+            Map<String, AttributeValue> newItem = new HashMap<String, AttributeValue>();
+            newItem.put(KEY_ATTRIBUTE, new AttributeValue().withS(key));
+            newItem.put(TOKENS_ATTRIBUTE, new AttributeValue().withN(Double.toString(tokens - 1)));
+            newItem.put(UPDATED_AT_ATTRIBUTE, new AttributeValue().withN(Long.toString(Math.max(updatedAt, now))));
+            newItem.put(EXPIRES_AT_ATTRIBUTE, new AttributeValue().withN(Long.toString((now + limit.getRefillTimeMillis()) / 1000 + 1)));
+
+            try {
+                DynamoDBClientRegistry.getClient().putItem(new PutItemRequest()
+                        .withTableName(DynamoDBConfiguration.THROTTLE_TABLE_NAME)
+                        .withItem(newItem)
+                        .withExpected(expected));
+                return true;
+            } catch (final ConditionalCheckFailedException e) {
+                // another container took a token from the same bucket, read it again
+            }
+        }
+
+        return false;
+    }
+}
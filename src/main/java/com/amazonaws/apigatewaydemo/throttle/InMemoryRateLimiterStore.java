@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.throttle;
+
+import com.amazonaws.apigatewaydemo.helper.ExpiringCache;
+
+/**
+ * Keeps the token buckets in the memory of the Lambda container. Each container limits the requests it receives
+ * independently. Buckets are dropped once they would be full again, the number of buckets is bounded and the least
+ * recently used ones are dropped first.
+ */
+public class InMemoryRateLimiterStore implements RateLimiterStore {
+    private final ExpiringCache<String, Bucket> buckets;
+
+    /**
+     * Creates a new store
+     *
+     * @param maxKeys The maximum number of buckets kept in memory
+     */
+    public InMemoryRateLimiterStore(int maxKeys) {
+        this.buckets = new ExpiringCache<String, Bucket>(maxKeys);
+    }
+
+    public boolean tryConsume(String key, RateLimit limit, long now) {
+        Bucket bucket;
+        synchronized (buckets) {
+            ExpiringCache.Entry<Bucket> entry = buckets.get(key, now);
+            if (entry != null) {
+                bucket = entry.getValue();
+            } else {
+                bucket = new Bucket(limit.getCapacity(), now);
+            }
+
+            if (!bucket.tryConsume(limit, now)) {
+                return false;
+            }
+            // the bucket is as good as new once it is refilled
+            buckets.putUntil(key, bucket, now + limit.getRefillTimeMillis());
+        }
+        return true;
+    }
+
+    private static class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+
+        private boolean tryConsume(RateLimit limit, long now) {
+            tokens = limit.refill(tokens, updatedAt, now);
+            updatedAt = Math.max(updatedAt, now);
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.throttle;
+
+/**
+ * The size and refill rate of a token bucket. Buckets start full, each request takes one token and tokens are given
+ * back continuously at the refill rate up to the capacity.
+ */
+public class RateLimit {
+    private final int capacity;
+    private final double refillPerMillis;
+
+    /**
+     * Creates a new limit
+     *
+     * @param capacity        The maximum number of tokens in the bucket, the number of requests allowed in a burst
+     * @param refillPerMinute The number of tokens given back every minute
+     */
+    public RateLimit(int capacity, int refillPerMinute) {
+        this.capacity = capacity;
+        this.refillPerMillis = refillPerMinute / 60000.0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of tokens in a bucket after refilling it
+     *
+     * @param tokens    The tokens in the bucket at the last update
+     * @param updatedAt The time of the last update in milliseconds
+     * @param now       The current time in milliseconds
+     * @return The number of tokens now
+     */
+    public double refill(double tokens, long updatedAt, long now) {
+        long elapsed = Math.max(0, now - updatedAt);
+        return Math.min(capacity, tokens + elapsed * refillPerMillis);
+    }
+
+    /**
+     * Returns the time it takes for an empty bucket to be full again. After that time a bucket is the same as a new
+     * one and does not need to be stored.
+     *
+     * @return The time in milliseconds
+     */
+    public long getRefillTimeMillis() {
+        if (refillPerMillis <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil(capacity / refillPerMillis);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.throttle;
+
+import com.amazonaws.apigatewaydemo.metrics.CounterSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket rate limiter. Each key, for example a username, has its own bucket in the RateLimiterStore. The
+ * limiter counts the requests it allows and rejects, and the errors of the store. When the store fails the request is
+ * allowed: the limiter protects the function, it should not make it unavailable.
+ */
+public class RateLimiter implements CounterSource {
+    private final String name;
+    private final RateLimit limit;
+    private final RateLimiterStore store;
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * Creates a new limiter
+     *
+     * @param name  The name of the limiter, used as prefix for the keys in the store
+     * @param limit The capacity and refill rate of the buckets
+     * @param store Where the buckets are kept
+     */
+    public RateLimiter(String name, RateLimit limit, RateLimiterStore store) {
+        this.name = name;
+        this.limit = limit;
+        this.store = store;
+    }
+
+    /**
+     * Takes a token from the bucket of the given key
+     *
+     * @param key The key to limit, for example a username
+     * @return True if the request is allowed, false if it should be rejected
+     */
+    public boolean tryAcquire(String key) {
+        boolean acquired;
+        try {
+            acquired = store.tryConsume(name + ":" + key, limit, System.currentTimeMillis());
+        } catch (final RuntimeException e) {
+            errors.incrementAndGet();
+            acquired = true;
+        }
+
+        if (acquired) {
+            allowed.incrementAndGet();
+        } else {
+            rejected.incrementAndGet();
+        }
+        return acquired;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the allowed, rejected and error counters of the limiter, written to the function log by the Metrics
+     * class
+     *
+     * @return The counters by name
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counters = new LinkedHashMap<String, Long>();
+        counters.put("allowed", getAllowed());
+        counters.put("rejected", getRejected());
+        counters.put("errors", getErrors());
+        return counters;
+    }
+
+    /**
+     * Returns the number of requests allowed since the container started
+     *
+     * @return The number of allowed requests
+     */
+    public long getAllowed() {
+        return allowed.get();
+    }
+
+    /**
+     * Returns the number of requests rejected since the container started
+     *
+     * @return The number of rejected requests
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Returns the number of requests allowed because the store could not be accessed
+     *
+     * @return The number of store errors
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+}
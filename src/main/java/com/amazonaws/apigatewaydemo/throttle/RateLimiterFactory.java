@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.throttle;
+
+import com.amazonaws.apigatewaydemo.configuration.ConfigurationHelper;
+import com.amazonaws.apigatewaydemo.configuration.ThrottleConfiguration;
+import com.amazonaws.apigatewaydemo.metrics.Metrics;
+
+/**
+ * Factory object for the rate limiters used by the actions. The limiters, and the store they share, are created once
+ * per container.
+ */
+public class RateLimiterFactory {
+    /**
+     * List of available stores for the token buckets
+     */
+    public enum StoreType {
+        InMemory,
+        DynamoDB
+    }
+
+    protected RateLimiterFactory() {
+        // static factory, should not be instantiated
+    }
+
+    /**
+     * Returns the limiter for login attempts by username
+     *
+     * @return The initialized RateLimiter
+     */
+    public static RateLimiter getLoginUsernameLimiter() {
+        return LoginLimitersHolder.username;
+    }
+
+    /**
+     * Returns the limiter for login attempts by source IP address
+     *
+     * @return The initialized RateLimiter
+     */
+    public static RateLimiter getLoginSourceLimiter() {
+        return LoginLimitersHolder.source;
+    }
+
+    /**
+     * Returns a new store of the given type
+     *
+     * @param type The store type
+     * @return The initialized RateLimiterStore
+     */
+    public static RateLimiterStore getStore(StoreType type) {
+        RateLimiterStore store = null;
+        switch (type) {
+            case InMemory:
+                store = new InMemoryRateLimiterStore(ThrottleConfiguration.IN_MEMORY_MAX_KEYS);
+                break;
+            case DynamoDB:
+                store = new DDBRateLimiterStore();
+                break;
+        }
+
+        return store;
+    }
+
+    /**
+     * Lazily creates the login limiters the first time they are requested and registers their counters with the
+     * Metrics. An unknown store type falls back to InMemory rather than failing the initialization of the holder
+     */
+    private static class LoginLimitersHolder {
+        private static final RateLimiterStore store = getStore(ConfigurationHelper.getEnum(StoreType.class,
+                ThrottleConfiguration.LOGIN_THROTTLE_STORE, StoreType.InMemory));
+
+        private static final RateLimiter username = Metrics.register("loginUserLimiter", new RateLimiter("login-user",
+                new RateLimit(ThrottleConfiguration.USERNAME_CAPACITY, ThrottleConfiguration.USERNAME_REFILL_PER_MINUTE),
+                store));
+        private static final RateLimiter source = Metrics.register("loginSourceLimiter", new RateLimiter("login-source",
+                new RateLimit(ThrottleConfiguration.SOURCE_CAPACITY, ThrottleConfiguration.SOURCE_REFILL_PER_MINUTE),
+                store));
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.throttle;
+
+/**
+ * This interface defines where the token buckets of a RateLimiter are kept. Implementations must take the token
+ * atomically, the same store may be used by concurrent threads or containers.
+ */
+public interface RateLimiterStore {
+    /**
+     * Takes a token from the bucket of a key
+     *
+     * @param key   The key of the bucket
+     * @param limit The capacity and refill rate of the bucket
+     * @param now   The current time in milliseconds
+     * @return True if a token was taken, false if the bucket is empty
+     */
+    boolean tryConsume(String key, RateLimit limit, long now);
+}
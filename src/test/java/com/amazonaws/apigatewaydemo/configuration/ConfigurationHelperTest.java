@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.configuration;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ConfigurationHelperTest {
+    // environment variable that is not expected to be set, the values are read from the system property
+    private static final String VARIABLE = "CONFIGURATION_HELPER_TEST_VALUE";
+    private static final String PROPERTY = "configuration.helper.test.value";
+
+    private enum Mode {
+        Standard,
+        Adaptive
+    }
+
+    @After
+    public void clearProperty() {
+        System.clearProperty(PROPERTY);
+    }
+
+    @Test
+    public void missingValueReturnsTheDefault() {
+        assertEquals("default", ConfigurationHelper.getString(VARIABLE, PROPERTY, "default"));
+        assertEquals(42, ConfigurationHelper.getInt(VARIABLE, PROPERTY, 42));
+    }
+
+    @Test
+    public void blankValueReturnsTheDefault() {
+        System.setProperty(PROPERTY, "  ");
+        assertEquals("default", ConfigurationHelper.getString(VARIABLE, PROPERTY, "default"));
+        assertEquals(42, ConfigurationHelper.getInt(VARIABLE, PROPERTY, 42));
+    }
+
+    @Test
+    public void valueIsTrimmed() {
+        System.setProperty(PROPERTY, " 8081 ");
+        assertEquals("8081", ConfigurationHelper.getString(VARIABLE, PROPERTY, "default"));
+        assertEquals(8081, ConfigurationHelper.getInt(VARIABLE, PROPERTY, 42));
+    }
+
+    @Test
+    public void invalidNumberReturnsTheDefault() {
+        System.setProperty(PROPERTY, "80a");
+        assertEquals(42, ConfigurationHelper.getInt(VARIABLE, PROPERTY, 42));
+    }
+
+    @Test
+    public void propertyIsIgnoredForEnvironmentOnlyValues() {
+        System.setProperty(PROPERTY, "8081");
+        assertEquals(42, ConfigurationHelper.getInt(VARIABLE, null, 42));
+    }
+
+    @Test
+    public void enumIsMatchedIgnoringCase() {
+        assertSame(Mode.Adaptive, ConfigurationHelper.getEnum(Mode.class, "Adaptive", Mode.Standard));
+        assertSame(Mode.Adaptive, ConfigurationHelper.getEnum(Mode.class, " adaptive ", Mode.Standard));
+    }
+
+    @Test
+    public void unknownEnumReturnsTheDefault() {
+        assertSame(Mode.Standard, ConfigurationHelper.getEnum(Mode.class, "Adaptiv", Mode.Standard));
+        assertSame(Mode.Standard, ConfigurationHelper.getEnum(Mode.class, null, Mode.Standard));
+    }
+}
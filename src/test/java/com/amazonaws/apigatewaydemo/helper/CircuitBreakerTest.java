@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+import com.amazonaws.apigatewaydemo.metrics.Phase;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+    private static final int FAILURE_THRESHOLD = 3;
+    // open periods that have either already elapsed or will not elapse while the test runs
+    private static final long ELAPSED = 0;
+    private static final long NEVER = 60 * 60 * 1000;
+    private static final long SHORT = 200;
+
+    @Test
+    public void staysClosedBelowTheThreshold() {
+        CircuitBreaker breaker = breaker(NEVER, 1);
+        fail(breaker, FAILURE_THRESHOLD - 1);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void successResetsTheConsecutiveFailures() {
+        CircuitBreaker breaker = breaker(NEVER, 1);
+        fail(breaker, FAILURE_THRESHOLD - 1);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        fail(breaker, FAILURE_THRESHOLD - 1);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void opensAtTheThresholdAndRejectsCalls() {
+        CircuitBreaker breaker = breaker(NEVER, 1);
+        fail(breaker, FAILURE_THRESHOLD);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void halfOpensAfterTheOpenPeriod() {
+        CircuitBreaker breaker = breaker(ELAPSED, 1);
+        fail(breaker, FAILURE_THRESHOLD);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenLimitsTheProbes() {
+        CircuitBreaker breaker = breaker(ELAPSED, 2);
+        fail(breaker, FAILURE_THRESHOLD);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void closesWhenAProbeSucceeds() {
+        CircuitBreaker breaker = breaker(ELAPSED, 1);
+        fail(breaker, FAILURE_THRESHOLD);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // the failures counted before the circuit opened are not carried over
+        fail(breaker, FAILURE_THRESHOLD - 1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void reopensWhenAProbeFails() throws InterruptedException {
+        CircuitBreaker breaker = breaker(SHORT, 1);
+        fail(breaker, FAILURE_THRESHOLD);
+        assertFalse(breaker.tryAcquire());
+        Thread.sleep(SHORT + 50);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void releaseFreesTheProbeSlot() {
+        CircuitBreaker breaker = breaker(ELAPSED, 1);
+        fail(breaker, FAILURE_THRESHOLD);
+
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.release();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void releaseDoesNotChangeAClosedCircuit() {
+        CircuitBreaker breaker = breaker(NEVER, 1);
+        assertTrue(breaker.tryAcquire());
+        breaker.release();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private static CircuitBreaker breaker(long openMillis, int halfOpenProbes) {
+        return new CircuitBreaker(Phase.COGNITO, FAILURE_THRESHOLD, openMillis, halfOpenProbes);
+    }
+
+    private static void fail(CircuitBreaker breaker, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+}
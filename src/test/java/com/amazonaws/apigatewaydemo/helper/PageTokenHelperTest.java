@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+import com.amazonaws.apigatewaydemo.exception.InvalidPageTokenException;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.util.BinaryUtils;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PageTokenHelperTest {
+    @Test
+    public void encodeReturnsNullWithoutKey() {
+        assertNull(PageTokenHelper.encode(null));
+        assertNull(PageTokenHelper.encode(Collections.<String, AttributeValue>emptyMap()));
+    }
+
+    @Test
+    public void decodeReturnsTheEncodedKey() throws InvalidPageTokenException {
+        Map<String, AttributeValue> key = new HashMap<String, AttributeValue>();
+        key.put("petId", new AttributeValue().withS("5e1d4c3b"));
+        key.put("type", new AttributeValue().withS("dog \"quoted\" \u00e9"));
+
+        assertEquals(key, PageTokenHelper.decode(PageTokenHelper.encode(key)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encodeRejectsNumberAttributes() {
+        PageTokenHelper.encode(Collections.singletonMap("petAge", new AttributeValue().withN("3")));
+    }
+
+    @Test(expected = InvalidPageTokenException.class)
+    public void decodeRejectsOddLength() throws InvalidPageTokenException {
+        PageTokenHelper.decode("7b7");
+    }
+
+    @Test(expected = InvalidPageTokenException.class)
+    public void decodeRejectsNonHexCharacters() throws InvalidPageTokenException {
+        PageTokenHelper.decode("7b7z");
+    }
+
+    @Test(expected = InvalidPageTokenException.class)
+    public void decodeRejectsInvalidJson() throws InvalidPageTokenException {
+        PageTokenHelper.decode(hex("{\"petId\":"));
+    }
+
+    @Test(expected = InvalidPageTokenException.class)
+    public void decodeRejectsNonObjects() throws InvalidPageTokenException {
+        PageTokenHelper.decode(hex("[\"petId\"]"));
+    }
+
+    @Test(expected = InvalidPageTokenException.class)
+    public void decodeRejectsEmptyObjects() throws InvalidPageTokenException {
+        PageTokenHelper.decode(hex("{}"));
+    }
+
+    @Test(expected = InvalidPageTokenException.class)
+    public void decodeRejectsNonStringAttributes() throws InvalidPageTokenException {
+        PageTokenHelper.decode(hex("{\"petId\":3}"));
+    }
+
+    @Test(expected = InvalidPageTokenException.class)
+    public void decodeRejectsNestedAttributes() throws InvalidPageTokenException {
+        PageTokenHelper.decode(hex("{\"petId\":{\"S\":\"x\"}}"));
+    }
+
+    private static String hex(String json) {
+        return BinaryUtils.toHex(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.helper;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+    private static final String KEY = "key";
+    private static final long TEST_TIMEOUT = 5000;
+
+    private final SingleFlight<String, String, IOException> singleFlight =
+            new SingleFlight<String, String, IOException>(IOException.class, TEST_TIMEOUT);
+
+    @Test
+    public void returnsTheLoadedValue() throws Exception {
+        assertEquals("value", singleFlight.execute(KEY, constant("value")));
+        assertEquals(1, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getShared());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    public void sequentialCallsRunTheLoaderAgain() throws Exception {
+        singleFlight.execute(KEY, constant("first"));
+        assertEquals("second", singleFlight.execute(KEY, constant("second")));
+        assertEquals(2, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getShared());
+    }
+
+    @Test
+    public void concurrentCallersShareTheValue() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BlockingLoader leader = new BlockingLoader("shared", null);
+            Future<String> first = submit(executor, leader, TEST_TIMEOUT);
+            leader.awaitStarted();
+
+            Future<String> second = submit(executor, constant("not shared"), TEST_TIMEOUT);
+            Future<String> third = submit(executor, constant("not shared"), TEST_TIMEOUT);
+            awaitShared(2);
+            leader.release();
+
+            assertEquals("shared", first.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals("shared", second.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals("shared", third.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals(1, singleFlight.getExecutions());
+            assertEquals(2, singleFlight.getShared());
+            assertEquals(0, singleFlight.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void checkedExceptionIsRethrownToTheWaiters() throws Exception {
+        IOException failure = new IOException("load failed");
+        assertSame(failure, sharedFailure(failure));
+    }
+
+    @Test
+    public void uncheckedExceptionIsRethrownToTheWaiters() throws Exception {
+        IllegalArgumentException failure = new IllegalArgumentException("bad key");
+        assertSame(failure, sharedFailure(failure));
+    }
+
+    @Test
+    public void waiterGivesUpAfterTheTimeout() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            BlockingLoader leader = new BlockingLoader("late", null);
+            Future<String> first = submit(executor, leader, TEST_TIMEOUT);
+            leader.awaitStarted();
+
+            try {
+                singleFlight.execute(KEY, constant("not shared"), 10);
+                fail("Expected a TimeoutException");
+            } catch (TimeoutException e) {
+                // expected, the call in flight is still blocked
+            }
+
+            // the call itself is not interrupted and completes for its own caller
+            leader.release();
+            assertEquals("late", first.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals(1, singleFlight.getExecutions());
+            assertEquals(1, singleFlight.getShared());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedCallIsNotKept() throws Exception {
+        try {
+            singleFlight.execute(KEY, new BlockingLoader(null, new IOException("load failed")).released());
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertEquals(0, singleFlight.size());
+        assertEquals("value", singleFlight.execute(KEY, constant("value")));
+    }
+
+    /**
+     * Starts a call that fails with the given exception once a second caller waits for it, and returns what the
+     * second caller received
+     */
+    private Throwable sharedFailure(Exception failure) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            BlockingLoader leader = new BlockingLoader(null, failure);
+            Future<String> first = submit(executor, leader, TEST_TIMEOUT);
+            leader.awaitStarted();
+
+            Future<String> second = submit(executor, constant("not shared"), TEST_TIMEOUT);
+            awaitShared(1);
+            leader.release();
+
+            assertSame(failure, causeOf(first));
+            return causeOf(second);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Future<String> submit(ExecutorService executor, final SingleFlight.Loader<String, IOException> loader,
+                                  final long waitTimeout) {
+        return executor.submit(new Callable<String>() {
+            public String call() throws Exception {
+                return singleFlight.execute(KEY, loader, waitTimeout);
+            }
+        });
+    }
+
+    private void awaitShared(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TEST_TIMEOUT;
+        while (singleFlight.getShared() < count) {
+            assertTrue("Callers did not join the call in flight", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static Throwable causeOf(Future<String> future) throws Exception {
+        try {
+            future.get(TEST_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("Expected the call to fail");
+    }
+
+    private static SingleFlight.Loader<String, IOException> constant(final String value) {
+        return new SingleFlight.Loader<String, IOException>() {
+            public String load() {
+                return value;
+            }
+        };
+    }
+
+    /**
+     * A loader that blocks until released, then returns its value or throws its failure
+     */
+    private static class BlockingLoader implements SingleFlight.Loader<String, IOException> {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final String value;
+        private final Exception failure;
+
+        BlockingLoader(String value, Exception failure) {
+            this.value = value;
+            this.failure = failure;
+        }
+
+        public String load() throws IOException {
+            started.countDown();
+            try {
+                if (!released.await(TEST_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Loader was not released");
+                }
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            return value;
+        }
+
+        BlockingLoader released() {
+            release();
+            return this;
+        }
+
+        void awaitStarted() throws InterruptedException {
+            assertTrue("Loader did not start", started.await(TEST_TIMEOUT, TimeUnit.MILLISECONDS));
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.apigatewaydemo.metrics;
+
+import com.amazonaws.apigatewaydemo.configuration.MetricsConfiguration;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    @Test
+    public void smallValuesHaveTheirOwnBucket() {
+        for (int micros = 0; micros < 8; micros++) {
+            assertEquals(micros, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(micros)));
+        }
+    }
+
+    @Test
+    public void upperBoundIsTheLastValueOfTheBucket() {
+        int last = LatencyHistogram.indexOf(MetricsConfiguration.MAX_LATENCY_US);
+        for (int index = 0; index <= last; index++) {
+            long upperBound = LatencyHistogram.upperBoundOf(index);
+            assertEquals("bucket " + index, index, LatencyHistogram.indexOf(upperBound));
+            assertEquals("bucket " + index, index + 1, LatencyHistogram.indexOf(upperBound + 1));
+        }
+    }
+
+    @Test
+    public void bucketsAreAtMostAQuarterWide() {
+        long[] values = {4, 5, 7, 8, 100, 1000, 1023, 1024, 1025, 65535, 65536, 999999, MetricsConfiguration.MAX_LATENCY_US};
+        for (long micros : values) {
+            long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(micros));
+            assertTrue(micros + " -> " + upperBound, upperBound >= micros);
+            assertTrue(micros + " -> " + upperBound, upperBound - micros <= micros / 4);
+        }
+    }
+
+    @Test
+    public void percentilesAreReadFromTheBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 100; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.drain();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(5050, snapshot.getSum());
+        assertEquals(100, snapshot.getMax());
+        assertEquals(LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(50)), snapshot.getPercentile(50));
+        assertEquals(LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(90)), snapshot.getPercentile(90));
+        // the bucket of 99 goes up to 111, the percentile is capped by the maximum
+        assertEquals(100, snapshot.getPercentile(99));
+    }
+
+    @Test
+    public void drainResetsTheHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.drain();
+
+        LatencyHistogram.Snapshot snapshot = histogram.drain();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getSum());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getPercentile(99));
+    }
+
+    @Test
+    public void valuesAboveTheLastBucketAreCountedInIt() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long micros = MetricsConfiguration.MAX_LATENCY_US * 10;
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+
+        LatencyHistogram.Snapshot snapshot = histogram.drain();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(micros, snapshot.getMax());
+        assertEquals(LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(MetricsConfiguration.MAX_LATENCY_US)),
+                snapshot.getPercentile(50));
+    }
+
+    @Test
+    public void negativeLatenciesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5000);
+
+        LatencyHistogram.Snapshot snapshot = histogram.drain();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(0, snapshot.getSum());
+        assertEquals(0, snapshot.getPercentile(50));
+    }
+}